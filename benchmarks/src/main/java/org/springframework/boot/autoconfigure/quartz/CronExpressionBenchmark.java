@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.CronExpression;
+import org.quartz.impl.triggers.CronTriggerImpl;
+
+/**
+ * Compares plain Quartz cron triggers with triggers sharing their expression through
+ * {@link CronExpressionCache}: parsing, the trigger copy made by the job store on every
+ * acquisition, and the next fire time calculation. Run with {@code -prof gc} to compare
+ * allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CronExpressionBenchmark {
+
+	@Param({ "0 0/5 * * * ?", "0 15 10 ? * MON-FRI", "0 0 12 1,15 * ?" })
+	public String cron;
+
+	private final TimeZone timeZone = TimeZone.getTimeZone("Europe/Paris");
+
+	private final Date afterTime = new Date(1656000000000L);
+
+	private CronTriggerImpl plainTrigger;
+
+	private SharedCronTriggerImpl sharedTrigger;
+
+	@Setup
+	public void setup() throws ParseException {
+		this.plainTrigger = new CronTriggerImpl();
+		this.plainTrigger.setName("plain");
+		this.plainTrigger.setTimeZone(this.timeZone);
+		this.plainTrigger.setCronExpression(this.cron);
+		this.sharedTrigger = (SharedCronTriggerImpl) CronExpressionCache
+				.getSharedInstance().share(this.plainTrigger);
+	}
+
+	@Benchmark
+	public CronExpression parsePlain() throws ParseException {
+		CronExpression expression = new CronExpression(this.cron);
+		expression.setTimeZone(this.timeZone);
+		return expression;
+	}
+
+	@Benchmark
+	public CronExpression parseCached() throws ParseException {
+		return CronExpressionCache.getSharedInstance().getExpression(this.cron,
+				this.timeZone);
+	}
+
+	@Benchmark
+	public Object clonePlain() {
+		return this.plainTrigger.clone();
+	}
+
+	@Benchmark
+	public Object cloneShared() {
+		return this.sharedTrigger.clone();
+	}
+
+	@Benchmark
+	public Date nextFireTimePlain() {
+		return this.plainTrigger.getFireTimeAfter(this.afterTime);
+	}
+
+	@Benchmark
+	public Date nextFireTimeShared() {
+		return this.sharedTrigger.getFireTimeAfter(this.afterTime);
+	}
+
+}
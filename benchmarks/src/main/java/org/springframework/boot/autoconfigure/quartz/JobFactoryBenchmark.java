@@ -0,0 +1,141 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.TriggerBuilder;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.quartz.SpringBeanJobFactory;
+
+/**
+ * Measures the job instantiation done on every fire: {@link AutowireCapableBeanJobFactory}
+ * creating, autowiring and initializing a job bean, against a plain
+ * {@link SpringBeanJobFactory} that only applies the job data. Run with
+ * {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobFactoryBenchmark {
+
+	private AnnotationConfigApplicationContext context;
+
+	private AutowireCapableBeanJobFactory autowiringJobFactory;
+
+	private SpringBeanJobFactory plainJobFactory;
+
+	private TriggerFiredBundle bundle;
+
+	@Setup
+	public void setup() {
+		this.context = new AnnotationConfigApplicationContext(DependencyConfiguration.class);
+		this.autowiringJobFactory = new AutowireCapableBeanJobFactory(
+				this.context.getAutowireCapableBeanFactory());
+		this.plainJobFactory = new SpringBeanJobFactory();
+		JobDetail jobDetail = JobBuilder.newJob(AutowiredJob.class).withIdentity("benchmark")
+				.usingJobData("name", "benchmark").build();
+		OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+				.forJob(jobDetail).startNow().build();
+		Date now = new Date();
+		this.bundle = new TriggerFiredBundle(jobDetail, trigger, null, false, now, now, null, null);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public Object createJobInstance() throws Exception {
+		return this.autowiringJobFactory.createJobInstance(this.bundle);
+	}
+
+	@Benchmark
+	public Job newJobAutowiring() throws Exception {
+		return this.autowiringJobFactory.newJob(this.bundle, null);
+	}
+
+	@Benchmark
+	public Job newJobPlain() throws Exception {
+		return this.plainJobFactory.newJob(this.bundle, null);
+	}
+
+	/**
+	 * Job with an autowired dependency and a job data property.
+	 */
+	public static class AutowiredJob implements Job {
+
+		@Autowired
+		private Dependency dependency;
+
+		private String name;
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public void execute(JobExecutionContext context) {
+			this.dependency.run(this.name);
+		}
+
+	}
+
+	static class Dependency {
+
+		void run(String name) {
+		}
+
+	}
+
+	@Configuration
+	static class DependencyConfiguration {
+
+		@Bean
+		Dependency dependency() {
+			return new Dependency();
+		}
+
+	}
+
+}
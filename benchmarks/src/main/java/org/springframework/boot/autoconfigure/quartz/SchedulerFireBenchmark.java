@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.TriggerBuilder;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.format.support.FormattingConversionService;
+import org.springframework.format.support.FormattingConversionServiceFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fires triggers through a scheduler configured by {@link QuartzAutoConfiguration},
+ * with the memory job store and with the JDBC job store on embedded H2 and HSQLDB
+ * databases: the number of fires per second for batches of triggers scheduled at once,
+ * and the latency between scheduling a trigger and the execution of its job. With a JDBC
+ * job store, each trigger is scheduled in its own transaction, as an application would,
+ * so that the scheduler never sees a partially inserted trigger. The scheduler is
+ * signalled before that transaction commits and may then wait for its idle wait time,
+ * lowered to one second, which shows in the tail of the latency distribution.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchedulerFireBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	private static volatile CountDownLatch fired;
+
+	@Param({ "memory", "h2", "hsqldb" })
+	public String store;
+
+	private AnnotationConfigApplicationContext context;
+
+	private Scheduler scheduler;
+
+	private TransactionTemplate transactionTemplate;
+
+	private final JobKey jobKey = JobKey.jobKey("benchmark");
+
+	@Setup
+	public void setup() throws SchedulerException {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("spring.quartz.properties.org.quartz.threadPool.threadCount", "8");
+		properties.put("spring.quartz.properties.org.quartz.scheduler.idleWaitTime", "1000");
+		if ("h2".equals(this.store)) {
+			properties.put("spring.quartz.job-store-type", "jdbc");
+			properties.put("spring.datasource.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+		}
+		else if ("hsqldb".equals(this.store)) {
+			properties.put("spring.quartz.job-store-type", "jdbc");
+			properties.put("spring.datasource.url", "jdbc:hsqldb:mem:benchmark");
+		}
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.getEnvironment().getPropertySources()
+				.addFirst(new MapPropertySource("benchmark", properties));
+		this.context.register(ConversionServiceConfiguration.class, DataSourceAutoConfiguration.class,
+				DataSourceTransactionManagerAutoConfiguration.class, QuartzAutoConfiguration.class);
+		this.context.refresh();
+		this.scheduler = this.context.getBean(Scheduler.class);
+		if (!"memory".equals(this.store)) {
+			this.transactionTemplate = new TransactionTemplate(
+					this.context.getBean(PlatformTransactionManager.class));
+		}
+		this.scheduler.addJob(JobBuilder.newJob(FiringJob.class).withIdentity(this.jobKey).storeDurably()
+				.build(), true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void fires() throws Exception {
+		fire(BATCH_SIZE);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void fireLatency() throws Exception {
+		fire(1);
+	}
+
+	private void fire(int count) throws Exception {
+		CountDownLatch latch = new CountDownLatch(count);
+		fired = latch;
+		for (int i = 0; i < count; i++) {
+			scheduleTrigger();
+		}
+		if (!latch.await(1, TimeUnit.MINUTES)) {
+			throw new IllegalStateException(latch.getCount() + " triggers did not fire");
+		}
+	}
+
+	private void scheduleTrigger() throws SchedulerException {
+		if (this.transactionTemplate == null) {
+			this.scheduler.scheduleJob(TriggerBuilder.newTrigger().forJob(this.jobKey).startNow().build());
+			return;
+		}
+		SchedulerException failure = this.transactionTemplate
+				.execute(new TransactionCallback<SchedulerException>() {
+
+					@Override
+					public SchedulerException doInTransaction(TransactionStatus status) {
+						try {
+							SchedulerFireBenchmark.this.scheduler.scheduleJob(TriggerBuilder.newTrigger()
+									.forJob(SchedulerFireBenchmark.this.jobKey).startNow().build());
+							return null;
+						}
+						catch (SchedulerException ex) {
+							status.setRollbackOnly();
+							return ex;
+						}
+					}
+
+				});
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Job counting its executions down.
+	 */
+	public static class FiringJob implements Job {
+
+		@Override
+		public void execute(JobExecutionContext context) {
+			CountDownLatch latch = fired;
+			if (latch != null) {
+				latch.countDown();
+			}
+		}
+
+	}
+
+	@Configuration
+	static class ConversionServiceConfiguration {
+
+		@Bean
+		public FactoryBean<FormattingConversionService> conversionService() {
+			return new FormattingConversionServiceFactoryBean();
+		}
+
+	}
+
+}
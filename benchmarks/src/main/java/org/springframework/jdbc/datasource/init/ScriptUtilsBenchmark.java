@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Reads, scans and splits sets of scripts with {@link ScriptUtilsEnhanced}: every
+ * platform script shipped with Quartz, the comment test scripts of the Quartz schema
+ * initializer, or a synthetic multi-megabyte script made of the platform scripts and
+ * read from a file, so that it is memory-mapped. Each set is parsed with the comment
+ * prefixes of the initializer, with the Spring default and with a custom prefix.
+ * {@code containsSqlScriptDelimiters} only supports the default comment prefix, the
+ * benchmark calls the {@code containsStatementSeparator} method behind it instead, which
+ * returns at the first separator found. Run with {@code -prof gc} to report allocation
+ * rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScriptUtilsBenchmark {
+
+	private static final String SEPARATOR = ";";
+
+	@Param({ "platforms", "comments", "synthetic-1mb", "synthetic-8mb" })
+	public String scripts;
+
+	@Param({ "#,--", "--", "**" })
+	public String commentPrefixes;
+
+	private final List<EncodedResource> resources = new ArrayList<>();
+
+	private final List<String> contents = new ArrayList<>();
+
+	private String[] prefixes;
+
+	private File syntheticScript;
+
+	@Setup
+	public void setup() throws IOException {
+		this.prefixes = this.commentPrefixes.split(",");
+		PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+		if ("comments".equals(this.scripts)) {
+			for (Resource resource : resolver
+					.getResources("classpath:org/springframework/jdbc/datasource/init/tables_*.sql")) {
+				add(new EncodedResource(resource, StandardCharsets.UTF_8));
+			}
+			return;
+		}
+		List<String> platforms = new ArrayList<>();
+		for (Resource resource : resolver.getResources("classpath*:org/quartz/impl/jdbcjobstore/tables_*.sql")) {
+			EncodedResource encodedResource = new EncodedResource(resource, StandardCharsets.UTF_8);
+			platforms.add(read(encodedResource));
+			if ("platforms".equals(this.scripts)) {
+				add(encodedResource);
+			}
+		}
+		if (this.scripts.startsWith("synthetic-")) {
+			int size = Integer.parseInt(this.scripts.replaceAll("\\D", "")) * 1024 * 1024;
+			StringBuilder script = new StringBuilder(size + 16 * 1024);
+			while (script.length() < size) {
+				for (String platform : platforms) {
+					script.append(platform).append('\n');
+				}
+			}
+			this.syntheticScript = File.createTempFile("synthetic-", ".sql");
+			FileCopyUtils.copy(script.toString().getBytes(StandardCharsets.UTF_8), this.syntheticScript);
+			add(new EncodedResource(new FileSystemResource(this.syntheticScript), StandardCharsets.UTF_8));
+		}
+	}
+
+	private void add(EncodedResource resource) throws IOException {
+		this.resources.add(resource);
+		this.contents.add(read(resource));
+	}
+
+	private static String read(EncodedResource resource) throws IOException {
+		return StreamUtils.copyToString(resource.getResource().getInputStream(), resource.getCharset());
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (this.syntheticScript != null) {
+			this.syntheticScript.delete();
+		}
+	}
+
+	@Benchmark
+	public int readScript() throws IOException {
+		int length = 0;
+		for (EncodedResource resource : this.resources) {
+			length += ScriptUtilsEnhanced.readScript(resource, SEPARATOR, this.prefixes,
+					ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER).length();
+		}
+		return length;
+	}
+
+	@Benchmark
+	public int containsStatementSeparator() {
+		int found = 0;
+		for (int i = 0; i < this.resources.size(); i++) {
+			if (ScriptUtilsEnhanced.containsStatementSeparator(this.resources.get(i), this.contents.get(i),
+					SEPARATOR, this.prefixes, ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+					ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER)) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	@Benchmark
+	@SuppressWarnings("deprecation")
+	public List<String> splitSqlScript() {
+		List<String> statements = new ArrayList<>();
+		for (int i = 0; i < this.resources.size(); i++) {
+			ScriptUtilsEnhanced.splitSqlScript(this.resources.get(i), this.contents.get(i), SEPARATOR,
+					this.prefixes, ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+					ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER, statements);
+		}
+		return statements;
+	}
+
+	@Benchmark
+	public List<String> readStatements() {
+		List<String> statements = new ArrayList<>();
+		for (EncodedResource resource : this.resources) {
+			statements.addAll(ScriptUtilsEnhanced.readStatements(resource, SEPARATOR, this.prefixes,
+					ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+					ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER));
+		}
+		return statements;
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Splits multi-megabyte scripts made of the Quartz PostgreSQL and MySQL schema scripts
+ * with the {@code #} and {@code --} comment prefixes of the Quartz schema initializer:
+ * {@link ScriptUtilsEnhanced#splitSqlScript} and {@link SqlScriptTokenizer}, both
+ * dispatching on the first character through {@link ScriptDelimiterMatcher}, against
+ * the previous loop calling {@code startsWith} for every delimiter at every character.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlScriptSplitBenchmark {
+
+	private static final String[] COMMENT_PREFIXES = { "#", "--" };
+
+	@Param({ "1", "8" })
+	public int megabytes;
+
+	private String script;
+
+	@Setup
+	public void setup() throws IOException {
+		String postgres = read("tables_postgres.sql");
+		String mysql = read("tables_mysql_innodb.sql");
+		StringBuilder script = new StringBuilder();
+		while (script.length() < this.megabytes * 1024 * 1024) {
+			script.append(postgres).append('\n').append(mysql).append('\n');
+		}
+		this.script = script.toString();
+	}
+
+	private static String read(String name) throws IOException {
+		return StreamUtils.copyToString(new ClassPathResource("org/quartz/impl/jdbcjobstore/" + name)
+				.getInputStream(), StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public List<String> startsWithEachDelimiter() {
+		List<String> statements = new ArrayList<>();
+		splitWithStartsWith(this.script, ";", COMMENT_PREFIXES, "/*", "*/", statements);
+		return statements;
+	}
+
+	@Benchmark
+	@SuppressWarnings("deprecation")
+	public List<String> splitSqlScript() {
+		List<String> statements = new ArrayList<>();
+		ScriptUtilsEnhanced.splitSqlScript(null, this.script, ";", COMMENT_PREFIXES, "/*", "*/",
+				statements);
+		return statements;
+	}
+
+	@Benchmark
+	public List<String> tokenizer() throws IOException {
+		List<String> statements = new ArrayList<>();
+		SqlScriptTokenizer tokenizer = new SqlScriptTokenizer(null, new StringReader(this.script),
+				";", COMMENT_PREFIXES, "/*", "*/");
+		String statement;
+		while ((statement = tokenizer.nextStatement()) != null) {
+			statements.add(statement);
+		}
+		return statements;
+	}
+
+	/**
+	 * The splitting loop before {@link ScriptDelimiterMatcher}.
+	 */
+	private static void splitWithStartsWith(String script, String separator, String[] commentPrefixes,
+			String blockCommentStartDelimiter, String blockCommentEndDelimiter, List<String> statements) {
+
+		StringBuilder sb = new StringBuilder();
+		boolean inSingleQuote = false;
+		boolean inDoubleQuote = false;
+		boolean inEscape = false;
+
+		for (int i = 0; i < script.length(); i++) {
+			char c = script.charAt(i);
+			if (inEscape) {
+				inEscape = false;
+				sb.append(c);
+				continue;
+			}
+			if (c == '\\') {
+				inEscape = true;
+				sb.append(c);
+				continue;
+			}
+			if (!inDoubleQuote && (c == '\'')) {
+				inSingleQuote = !inSingleQuote;
+			}
+			else if (!inSingleQuote && (c == '"')) {
+				inDoubleQuote = !inDoubleQuote;
+			}
+			if (!inSingleQuote && !inDoubleQuote) {
+				if (script.startsWith(separator, i)) {
+					if (sb.length() > 0) {
+						statements.add(sb.toString());
+						sb = new StringBuilder();
+					}
+					i += separator.length() - 1;
+					continue;
+				}
+				else if (startsWithAny(script, commentPrefixes, i)) {
+					int indexOfNextNewline = script.indexOf('\n', i);
+					if (indexOfNextNewline > i) {
+						i = indexOfNextNewline;
+						continue;
+					}
+					else {
+						break;
+					}
+				}
+				else if (script.startsWith(blockCommentStartDelimiter, i)) {
+					int indexOfCommentEnd = script.indexOf(blockCommentEndDelimiter, i);
+					if (indexOfCommentEnd > i) {
+						i = indexOfCommentEnd + blockCommentEndDelimiter.length() - 1;
+						continue;
+					}
+					else {
+						throw new IllegalStateException(
+								"Missing block comment end delimiter: " + blockCommentEndDelimiter);
+					}
+				}
+				else if (c == ' ' || c == '\r' || c == '\n' || c == '\t') {
+					if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+						c = ' ';
+					}
+					else {
+						continue;
+					}
+				}
+			}
+			sb.append(c);
+		}
+
+		if (StringUtils.hasText(sb)) {
+			statements.add(sb.toString());
+		}
+	}
+
+	private static boolean startsWithAny(String script, String[] prefixes, int offset) {
+		for (String prefix : prefixes) {
+			if (script.startsWith(prefix, offset)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,10 @@
+# This is a test script to check # is treated as a comment prefix by default
+
+CREATE TABLE QRTZ_TEST_TABLE (
+  SCHED_NAME VARCHAR(120) NOT NULL,
+  CALENDAR_NAME VARCHAR (200) NOT NULL
+);
+
+# Another comment
+
+COMMIT;
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import org.quartz.Scheduler;
+
+import org.springframework.boot.actuate.condition.ConditionalOnEnabledEndpoint;
+import org.springframework.boot.actuate.endpoint.Endpoint;
+import org.springframework.boot.actuate.endpoint.QuartzEndpoint;
+import org.springframework.boot.actuate.endpoint.QuartzJdbcEndpoint;
+import org.springframework.boot.actuate.endpoint.QuartzLagEndpoint;
+import org.springframework.boot.actuate.endpoint.mvc.QuartzMvcEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.quartz.JdbcJobStoreTimings;
+import org.springframework.boot.autoconfigure.quartz.QuartzAutoConfiguration;
+import org.springframework.boot.autoconfigure.quartz.TriggerLagRecorder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for the Quartz Scheduler actuator
+ * endpoints.
+ */
+@Configuration
+@ConditionalOnClass({ Scheduler.class, SchedulerFactoryBean.class, Endpoint.class })
+@AutoConfigureAfter(QuartzAutoConfiguration.class)
+public class QuartzEndpointAutoConfiguration {
+
+	@Configuration
+	@ConditionalOnBean(Scheduler.class)
+	@ConditionalOnEnabledEndpoint("quartz")
+	static class QuartzEndpointConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public QuartzEndpoint quartzEndpoint(Scheduler scheduler) {
+			return new QuartzEndpoint(scheduler);
+		}
+
+		@Configuration
+		@ConditionalOnClass(name = "org.springframework.web.servlet.DispatcherServlet")
+		@ConditionalOnWebApplication
+		static class QuartzMvcEndpointConfiguration {
+
+			@Bean
+			@ConditionalOnMissingBean
+			public QuartzMvcEndpoint quartzMvcEndpoint(QuartzEndpoint quartzEndpoint) {
+				return new QuartzMvcEndpoint(quartzEndpoint);
+			}
+
+		}
+
+	}
+
+	@Configuration
+	@ConditionalOnEnabledEndpoint("quartzlag")
+	static class QuartzLagEndpointConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public TriggerLagRecorder triggerLagRecorder() {
+			return new TriggerLagRecorder();
+		}
+
+		@Bean
+		@ConditionalOnMissingBean
+		public QuartzLagEndpoint quartzLagEndpoint(TriggerLagRecorder triggerLagRecorder) {
+			return new QuartzLagEndpoint(triggerLagRecorder);
+		}
+
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnBean(JdbcJobStoreTimings.class)
+	@ConditionalOnEnabledEndpoint("quartzjdbc")
+	public QuartzJdbcEndpoint quartzJdbcEndpoint(JdbcJobStoreTimings jdbcJobStoreTimings) {
+		return new QuartzJdbcEndpoint(jdbcJobStoreTimings);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.quartz.Scheduler;
+
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.quartz.CounterServiceJobResourceAccounting;
+import org.springframework.boot.actuate.metrics.quartz.CounterServiceQuartzMetrics;
+import org.springframework.boot.actuate.metrics.quartz.JobResourceAccounting;
+import org.springframework.boot.actuate.metrics.quartz.MicrometerJobResourceAccounting;
+import org.springframework.boot.actuate.metrics.quartz.MicrometerQuartzMetrics;
+import org.springframework.boot.actuate.metrics.quartz.QuartzMetrics;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for Quartz Scheduler metrics. The
+ * {@link QuartzMetrics} bean is registered by the Quartz auto-configuration as a global
+ * job and trigger listener. Micrometer is used when a {@link MeterRegistry} is
+ * available, the actuator {@link CounterService} and {@link GaugeService} otherwise.
+ * The {@link JobResourceAccounting} bean, registered when
+ * {@code spring.quartz.metrics.resource-accounting=true}, is added as a global job
+ * listener the same way.
+ */
+@Configuration
+@ConditionalOnClass({ Scheduler.class, SchedulerFactoryBean.class, CounterService.class })
+@ConditionalOnProperty(prefix = "spring.quartz.metrics", name = "enabled", matchIfMissing = true)
+@AutoConfigureAfter(value = { MetricRepositoryAutoConfiguration.class, MetricsDropwizardAutoConfiguration.class },
+		name = "io.micrometer.spring.autoconfigure.MetricsAutoConfiguration")
+public class QuartzMetricsAutoConfiguration {
+
+	@Configuration
+	@ConditionalOnClass(MeterRegistry.class)
+	@ConditionalOnBean(MeterRegistry.class)
+	static class MicrometerQuartzMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean(QuartzMetrics.class)
+		public MicrometerQuartzMetrics quartzMetrics(MeterRegistry registry) {
+			return new MicrometerQuartzMetrics(registry);
+		}
+
+		@Bean
+		@ConditionalOnMissingBean(JobResourceAccounting.class)
+		@ConditionalOnProperty(prefix = "spring.quartz.metrics", name = "resource-accounting", havingValue = "true")
+		public MicrometerJobResourceAccounting jobResourceAccounting(MeterRegistry registry) {
+			return new MicrometerJobResourceAccounting(registry);
+		}
+
+	}
+
+	@Configuration
+	@ConditionalOnBean({ CounterService.class, GaugeService.class })
+	@ConditionalOnMissingBean(type = "io.micrometer.core.instrument.MeterRegistry")
+	static class CounterServiceQuartzMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean(QuartzMetrics.class)
+		public CounterServiceQuartzMetrics quartzMetrics(CounterService counterService,
+				GaugeService gaugeService) {
+			return new CounterServiceQuartzMetrics(counterService, gaugeService);
+		}
+
+		@Bean
+		@ConditionalOnMissingBean(JobResourceAccounting.class)
+		@ConditionalOnProperty(prefix = "spring.quartz.metrics", name = "resource-accounting", havingValue = "true")
+		public CounterServiceJobResourceAccounting jobResourceAccounting(GaugeService gaugeService) {
+			return new CounterServiceJobResourceAccounting(gaugeService);
+		}
+
+	}
+
+}
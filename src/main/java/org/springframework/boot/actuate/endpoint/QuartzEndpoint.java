@@ -0,0 +1,400 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.quartz.CalendarIntervalTrigger;
+import org.quartz.CronTrigger;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SchedulerMetaData;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.utils.Key;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Endpoint} to expose the state of the Quartz {@link Scheduler}. The endpoint
+ * itself returns a summary with the number of jobs and triggers per group. The sorted
+ * job and trigger keys of each group are cached for {@link #setTimeToLive(long)
+ * timeToLive} milliseconds so that frequent calls do not scan the job store each time.
+ * Jobs and triggers are listed page by page, in the order of their group and name, cut
+ * from the cached keys, loading the details of the requested page only.
+ * <p>
+ * Pages may therefore be slightly off while jobs are added or removed, until the
+ * cached keys are refreshed.
+ *
+ * @see QuartzMvcEndpoint
+ */
+@ConfigurationProperties(prefix = "endpoints.quartz")
+public class QuartzEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+	private final Scheduler scheduler;
+
+	/**
+	 * Time to live of the cached job and trigger keys, in milliseconds.
+	 */
+	private long timeToLive = 10000;
+
+	/**
+	 * Default number of jobs or triggers per page.
+	 */
+	private int pageSize = 20;
+
+	/**
+	 * Maximum number of jobs or triggers per page.
+	 */
+	private int maxPageSize = 200;
+
+	private volatile Summary summary;
+
+	/**
+	 * Create a new {@link QuartzEndpoint} instance.
+	 * @param scheduler the scheduler to expose
+	 */
+	public QuartzEndpoint(Scheduler scheduler) {
+		super("quartz");
+		Assert.notNull(scheduler, "Scheduler must not be null");
+		this.scheduler = scheduler;
+	}
+
+	public long getTimeToLive() {
+		return this.timeToLive;
+	}
+
+	public void setTimeToLive(long timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	public int getPageSize() {
+		return this.pageSize;
+	}
+
+	public void setPageSize(int pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	public int getMaxPageSize() {
+		return this.maxPageSize;
+	}
+
+	public void setMaxPageSize(int maxPageSize) {
+		this.maxPageSize = maxPageSize;
+	}
+
+	@Override
+	public Map<String, Object> invoke() {
+		try {
+			SchedulerMetaData metaData = this.scheduler.getMetaData();
+			Summary summary = getSummary();
+			Map<String, Object> result = new LinkedHashMap<String, Object>();
+			result.put("schedulerName", metaData.getSchedulerName());
+			result.put("schedulerInstanceId", metaData.getSchedulerInstanceId());
+			result.put("version", metaData.getVersion());
+			result.put("state", getState(metaData));
+			result.put("jobStore", metaData.getJobStoreClass().getName());
+			result.put("clustered", metaData.isJobStoreClustered());
+			result.put("threadPoolSize", metaData.getThreadPoolSize());
+			result.put("runningJobs", this.scheduler.getCurrentlyExecutingJobs().size());
+			result.put("jobsExecuted", metaData.getNumberOfJobsExecuted());
+			result.put("jobs", count(summary.jobs));
+			result.put("triggers", count(summary.triggers));
+			result.put("pausedTriggerGroups",
+					Collections.unmodifiableList(summary.pausedTriggerGroups));
+			result.put("countedAt", summary.timestamp);
+			return result;
+		}
+		catch (SchedulerException ex) {
+			throw new IllegalStateException("Could not read the scheduler state", ex);
+		}
+	}
+
+	/**
+	 * Return a page of jobs, with their trigger keys.
+	 * @param group the job group, or {@code null} for all groups
+	 * @param page the zero-based page number
+	 * @param size the page size, or {@code null} for the default
+	 * @return the page
+	 */
+	public Map<String, Object> getJobs(String group, int page, Integer size) {
+		try {
+			Page<JobKey> keys = new Page<JobKey>(group, page, getPageSize(size));
+			keys.load(getSummary().jobs);
+			List<Object> jobs = new ArrayList<Object>(keys.items.size());
+			for (JobKey key : keys.items) {
+				JobDetail jobDetail = this.scheduler.getJobDetail(key);
+				if (jobDetail != null) {
+					Map<String, Object> job = describeJob(jobDetail);
+					List<String> triggers = new ArrayList<String>();
+					for (Trigger trigger : this.scheduler.getTriggersOfJob(key)) {
+						triggers.add(trigger.getKey().toString());
+					}
+					job.put("triggers", triggers);
+					jobs.add(job);
+				}
+			}
+			return keys.toMap(jobs);
+		}
+		catch (SchedulerException ex) {
+			throw new IllegalStateException("Could not read jobs", ex);
+		}
+	}
+
+	/**
+	 * Return a page of triggers.
+	 * @param group the trigger group, or {@code null} for all groups
+	 * @param page the zero-based page number
+	 * @param size the page size, or {@code null} for the default
+	 * @return the page
+	 */
+	public Map<String, Object> getTriggers(String group, int page, Integer size) {
+		try {
+			Page<TriggerKey> keys = new Page<TriggerKey>(group, page, getPageSize(size));
+			keys.load(getSummary().triggers);
+			List<Object> triggers = new ArrayList<Object>(keys.items.size());
+			for (TriggerKey key : keys.items) {
+				Trigger trigger = this.scheduler.getTrigger(key);
+				if (trigger != null) {
+					triggers.add(describeTrigger(trigger));
+				}
+			}
+			return keys.toMap(triggers);
+		}
+		catch (SchedulerException ex) {
+			throw new IllegalStateException("Could not read triggers", ex);
+		}
+	}
+
+	/**
+	 * Return the details of a job and its triggers.
+	 * @param group the job group
+	 * @param name the job name
+	 * @return the job, or {@code null} if it does not exist
+	 */
+	public Map<String, Object> getJob(String group, String name) {
+		try {
+			JobKey key = new JobKey(name, group);
+			JobDetail jobDetail = this.scheduler.getJobDetail(key);
+			if (jobDetail == null) {
+				return null;
+			}
+			Map<String, Object> job = describeJob(jobDetail);
+			job.put("durable", jobDetail.isDurable());
+			job.put("requestsRecovery", jobDetail.requestsRecovery());
+			job.put("concurrentExecutionDisallowed", jobDetail.isConcurrentExectionDisallowed());
+			job.put("persistJobDataAfterExecution", jobDetail.isPersistJobDataAfterExecution());
+			job.put("dataKeys", new ArrayList<String>(jobDetail.getJobDataMap().keySet()));
+			List<Object> triggers = new ArrayList<Object>();
+			for (Trigger trigger : this.scheduler.getTriggersOfJob(key)) {
+				triggers.add(describeTrigger(trigger));
+			}
+			job.put("triggers", triggers);
+			return job;
+		}
+		catch (SchedulerException ex) {
+			throw new IllegalStateException("Could not read job " + group + "." + name, ex);
+		}
+	}
+
+	private int getPageSize(Integer size) {
+		int pageSize = (size != null) ? size : this.pageSize;
+		return Math.max(1, Math.min(pageSize, this.maxPageSize));
+	}
+
+	private Summary getSummary() throws SchedulerException {
+		Summary summary = this.summary;
+		if (summary == null || summary.isExpired(this.timeToLive)) {
+			synchronized (this) {
+				summary = this.summary;
+				if (summary == null || summary.isExpired(this.timeToLive)) {
+					summary = new Summary(this.scheduler);
+					this.summary = summary;
+				}
+			}
+		}
+		return summary;
+	}
+
+	private Map<String, Integer> count(Map<String, ? extends List<?>> keys) {
+		Map<String, Integer> counts = new LinkedHashMap<String, Integer>();
+		for (Map.Entry<String, ? extends List<?>> entry : keys.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().size());
+		}
+		return counts;
+	}
+
+	private String getState(SchedulerMetaData metaData) {
+		if (metaData.isShutdown()) {
+			return "shutdown";
+		}
+		return metaData.isInStandbyMode() ? "standby" : "started";
+	}
+
+	private Map<String, Object> describeJob(JobDetail jobDetail) {
+		Map<String, Object> job = new LinkedHashMap<String, Object>();
+		job.put("group", jobDetail.getKey().getGroup());
+		job.put("name", jobDetail.getKey().getName());
+		job.put("description", jobDetail.getDescription());
+		job.put("className", jobDetail.getJobClass().getName());
+		return job;
+	}
+
+	private Map<String, Object> describeTrigger(Trigger trigger) throws SchedulerException {
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		result.put("group", trigger.getKey().getGroup());
+		result.put("name", trigger.getKey().getName());
+		result.put("job", trigger.getJobKey().toString());
+		result.put("state", this.scheduler.getTriggerState(trigger.getKey()).name());
+		if (trigger instanceof CronTrigger) {
+			CronTrigger cronTrigger = (CronTrigger) trigger;
+			result.put("type", "cron");
+			result.put("expression", cronTrigger.getCronExpression());
+			result.put("timeZone", cronTrigger.getTimeZone().getID());
+		}
+		else if (trigger instanceof SimpleTrigger) {
+			SimpleTrigger simpleTrigger = (SimpleTrigger) trigger;
+			result.put("type", "simple");
+			result.put("interval", simpleTrigger.getRepeatInterval());
+			result.put("repeatCount", simpleTrigger.getRepeatCount());
+		}
+		else if (trigger instanceof CalendarIntervalTrigger) {
+			CalendarIntervalTrigger calendarTrigger = (CalendarIntervalTrigger) trigger;
+			result.put("type", "calendarInterval");
+			result.put("interval", calendarTrigger.getRepeatInterval() + " "
+					+ calendarTrigger.getRepeatIntervalUnit());
+		}
+		else {
+			result.put("type", trigger.getClass().getName());
+		}
+		result.put("priority", trigger.getPriority());
+		result.put("calendarName", trigger.getCalendarName());
+		result.put("previousFireTime", trigger.getPreviousFireTime());
+		result.put("nextFireTime", trigger.getNextFireTime());
+		return result;
+	}
+
+	/**
+	 * Sorted job and trigger keys per group, sorted by group.
+	 */
+	private static final class Summary {
+
+		private final long timestamp = System.currentTimeMillis();
+
+		private final Map<String, List<JobKey>> jobs = new TreeMap<String, List<JobKey>>();
+
+		private final Map<String, List<TriggerKey>> triggers = new TreeMap<String, List<TriggerKey>>();
+
+		private final List<String> pausedTriggerGroups;
+
+		Summary(Scheduler scheduler) throws SchedulerException {
+			for (String group : scheduler.getJobGroupNames()) {
+				this.jobs.put(group, sort(scheduler.getJobKeys(GroupMatcher.jobGroupEquals(group))));
+			}
+			for (String group : scheduler.getTriggerGroupNames()) {
+				this.triggers.put(group,
+						sort(scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(group))));
+			}
+			List<String> paused = new ArrayList<String>(scheduler.getPausedTriggerGroups());
+			Collections.sort(paused);
+			this.pausedTriggerGroups = paused;
+		}
+
+		boolean isExpired(long timeToLive) {
+			return System.currentTimeMillis() - this.timestamp >= timeToLive;
+		}
+
+		private static <K extends Key<K>> List<K> sort(Set<K> keys) {
+			List<K> sorted = new ArrayList<K>(keys);
+			Collections.sort(sorted);
+			return Collections.unmodifiableList(sorted);
+		}
+
+	}
+
+	/**
+	 * Keys of one page, cut from the cached keys of each group.
+	 */
+	private static final class Page<K extends Key<K>> {
+
+		private final String group;
+
+		private final int page;
+
+		private final int size;
+
+		private int total;
+
+		private final List<K> items = new ArrayList<K>();
+
+		Page(String group, int page, int size) {
+			this.group = group;
+			this.page = Math.max(0, page);
+			this.size = size;
+		}
+
+		void load(Map<String, List<K>> groups) {
+			if (this.group != null) {
+				List<K> keys = groups.get(this.group);
+				if (keys != null) {
+					this.total = keys.size();
+					int from = (int) Math.min(keys.size(), (long) this.page * this.size);
+					this.items.addAll(keys.subList(from, Math.min(keys.size(), from + this.size)));
+				}
+				return;
+			}
+			long skip = (long) this.page * this.size;
+			for (List<K> keys : groups.values()) {
+				this.total += keys.size();
+				if (this.items.size() >= this.size || skip >= keys.size()) {
+					skip -= Math.min(skip, keys.size());
+					continue;
+				}
+				int from = (int) skip;
+				int to = Math.min(keys.size(), from + this.size - this.items.size());
+				this.items.addAll(keys.subList(from, to));
+				skip = 0;
+			}
+		}
+
+		Map<String, Object> toMap(List<Object> items) {
+			Map<String, Object> result = new LinkedHashMap<String, Object>();
+			if (this.group != null) {
+				result.put("group", this.group);
+			}
+			result.put("page", this.page);
+			result.put("size", this.size);
+			result.put("total", this.total);
+			result.put("items", items);
+			return result;
+		}
+
+	}
+
+}
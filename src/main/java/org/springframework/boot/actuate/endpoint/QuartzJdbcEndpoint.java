@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.autoconfigure.quartz.JdbcJobStoreTimings;
+import org.springframework.boot.autoconfigure.quartz.LatencyHistogram;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Endpoint} to expose the time spent by the Quartz JDBC job store in the database,
+ * per operation and in microseconds.
+ *
+ * @see JdbcJobStoreTimings
+ */
+@ConfigurationProperties(prefix = "endpoints.quartzjdbc")
+public class QuartzJdbcEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+	private final JdbcJobStoreTimings timings;
+
+	/**
+	 * Create a new {@link QuartzJdbcEndpoint} instance.
+	 * @param timings the timings of the job store
+	 */
+	public QuartzJdbcEndpoint(JdbcJobStoreTimings timings) {
+		super("quartzjdbc");
+		Assert.notNull(timings, "Timings must not be null");
+		this.timings = timings;
+	}
+
+	@Override
+	public Map<String, Object> invoke() {
+		Map<String, Object> operations = new TreeMap<String, Object>();
+		for (Map.Entry<String, LatencyHistogram> entry : this.timings.getHistograms().entrySet()) {
+			operations.put(entry.getKey(), QuartzLagEndpoint.summarize(entry.getValue()));
+		}
+		return operations;
+	}
+
+}
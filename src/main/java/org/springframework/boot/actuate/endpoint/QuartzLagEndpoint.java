@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.autoconfigure.quartz.LatencyHistogram;
+import org.springframework.boot.autoconfigure.quartz.TriggerLagRecorder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.Assert;
+
+/**
+ * {@link Endpoint} to expose how late Quartz jobs start, per job group: the lag between
+ * the scheduled and actual fire times, in milliseconds.
+ *
+ * @see TriggerLagRecorder
+ */
+@ConfigurationProperties(prefix = "endpoints.quartzlag")
+public class QuartzLagEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+	private final TriggerLagRecorder recorder;
+
+	/**
+	 * Create a new {@link QuartzLagEndpoint} instance.
+	 * @param recorder the recorder of the lag histograms
+	 */
+	public QuartzLagEndpoint(TriggerLagRecorder recorder) {
+		super("quartzlag");
+		Assert.notNull(recorder, "Recorder must not be null");
+		this.recorder = recorder;
+	}
+
+	@Override
+	public Map<String, Object> invoke() {
+		Map<String, Object> groups = new TreeMap<String, Object>();
+		for (Map.Entry<String, TriggerLagRecorder.Histograms> entry : this.recorder.getHistograms()
+				.entrySet()) {
+			Map<String, Object> group = new LinkedHashMap<String, Object>();
+			group.put("lag", summarize(entry.getValue().getLag()));
+			groups.put(entry.getKey(), group);
+		}
+		return groups;
+	}
+
+	static Map<String, Object> summarize(LatencyHistogram histogram) {
+		LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+		Map<String, Object> summary = new LinkedHashMap<String, Object>();
+		summary.put("count", snapshot.getCount());
+		summary.put("mean", snapshot.getMean());
+		summary.put("max", snapshot.getMax());
+		summary.put("p50", snapshot.getPercentile(0.5));
+		summary.put("p90", snapshot.getPercentile(0.9));
+		summary.put("p99", snapshot.getPercentile(0.99));
+		return summary;
+	}
+
+}
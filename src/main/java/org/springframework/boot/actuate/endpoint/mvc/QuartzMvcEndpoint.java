@@ -0,0 +1,74 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.endpoint.mvc;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.QuartzEndpoint;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Adapter to expose {@link QuartzEndpoint} as an {@link MvcEndpoint}, with paged
+ * {@code /jobs} and {@code /triggers} listings filtered by an optional {@code group}
+ * parameter, and the details of single jobs at {@code /jobs/{group}/{name}}.
+ */
+public class QuartzMvcEndpoint extends EndpointMvcAdapter {
+
+	private final QuartzEndpoint delegate;
+
+	public QuartzMvcEndpoint(QuartzEndpoint delegate) {
+		super(delegate);
+		this.delegate = delegate;
+	}
+
+	@ActuatorGetMapping("/jobs")
+	@ResponseBody
+	public Object jobs(@RequestParam(name = "group", required = false) String group,
+			@RequestParam(name = "page", defaultValue = "0") int page,
+			@RequestParam(name = "size", required = false) Integer size) {
+		if (!this.delegate.isEnabled()) {
+			return getDisabledResponse();
+		}
+		return this.delegate.getJobs(group, page, size);
+	}
+
+	@ActuatorGetMapping("/triggers")
+	@ResponseBody
+	public Object triggers(@RequestParam(name = "group", required = false) String group,
+			@RequestParam(name = "page", defaultValue = "0") int page,
+			@RequestParam(name = "size", required = false) Integer size) {
+		if (!this.delegate.isEnabled()) {
+			return getDisabledResponse();
+		}
+		return this.delegate.getTriggers(group, page, size);
+	}
+
+	@ActuatorGetMapping("/jobs/{group}/{name:.*}")
+	@ResponseBody
+	public Object job(@PathVariable("group") String group,
+			@PathVariable("name") String name) {
+		if (!this.delegate.isEnabled()) {
+			return getDisabledResponse();
+		}
+		Map<String, Object> job = this.delegate.getJob(group, name);
+		return (job != null) ? job : ResponseEntity.notFound().build();
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.quartz;
+
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+/**
+ * {@link JobResourceAccounting} submitting the totals of each job class to the
+ * actuator {@link GaugeService} after each execution, as
+ * {@code gauge.quartz.jobs.<class>.cpu} in milliseconds and
+ * {@code gauge.quartz.jobs.<class>.allocated} in bytes.
+ */
+public class CounterServiceJobResourceAccounting
+		extends JobResourceAccounting<CounterServiceJobResourceAccounting.Names> {
+
+	private final GaugeService gaugeService;
+
+	public CounterServiceJobResourceAccounting(GaugeService gaugeService) {
+		this.gaugeService = gaugeService;
+	}
+
+	@Override
+	protected Names createUsage(String jobClass) {
+		return new Names(jobClass);
+	}
+
+	@Override
+	protected void recorded(Names usage) {
+		this.gaugeService.submit(usage.cpu, usage.getCpuTime() / 1000000d);
+		this.gaugeService.submit(usage.allocated, usage.getAllocatedBytes());
+	}
+
+	/**
+	 * Metric names of a job class.
+	 */
+	static class Names extends JobResourceAccounting.Usage {
+
+		private final String cpu;
+
+		private final String allocated;
+
+		Names(String jobClass) {
+			super(jobClass);
+			this.cpu = "gauge.quartz.jobs." + jobClass + ".cpu";
+			this.allocated = "gauge.quartz.jobs." + jobClass + ".allocated";
+		}
+
+	}
+
+}
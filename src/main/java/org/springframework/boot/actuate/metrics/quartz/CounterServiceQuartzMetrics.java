@@ -0,0 +1,150 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.quartz;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.quartz.LatencyHistogram;
+
+/**
+ * {@link QuartzMetrics} publishing through a {@link CounterService} and a
+ * {@link GaugeService}, with names such as {@code counter.quartz.<group>.fired}. Names
+ * are built once per job group and already carry their prefix, so that the services do
+ * not rebuild them on each fire.
+ * <p>
+ * The execution time of jobs is submitted as {@code timer.quartz.<group>.execution},
+ * which Dropwizard backed services record as a timer histogram but the default
+ * services only keep as the last value. The distribution of execution times is
+ * therefore also recorded into a {@link LatencyHistogram} per job group, published as
+ * {@link PublicMetrics} named {@code timer.quartz.<group>.execution.count},
+ * {@code .mean}, {@code .max}, {@code .p50}, {@code .p90} and {@code .p99}, in
+ * milliseconds.
+ */
+public class CounterServiceQuartzMetrics extends QuartzMetrics<CounterServiceQuartzMetrics.Names>
+		implements PublicMetrics {
+
+	private static final String ACTIVE_THREADS = "gauge.quartz.threads.active";
+
+	private static final String THREAD_UTILIZATION = "gauge.quartz.threads.utilization";
+
+	private final CounterService counterService;
+
+	private final GaugeService gaugeService;
+
+	public CounterServiceQuartzMetrics(CounterService counterService, GaugeService gaugeService) {
+		this.counterService = counterService;
+		this.gaugeService = gaugeService;
+	}
+
+	@Override
+	protected Names createGroup(String name) {
+		return new Names(name);
+	}
+
+	@Override
+	protected void fired(Names group) {
+		this.counterService.increment(group.fired);
+	}
+
+	@Override
+	protected void misfired(Names group) {
+		this.counterService.increment(group.misfired);
+	}
+
+	@Override
+	protected void vetoed(Names group) {
+		this.counterService.increment(group.vetoed);
+	}
+
+	@Override
+	protected void executed(Names group, long timeMillis, boolean failed) {
+		this.counterService.increment(failed ? group.failed : group.succeeded);
+		this.gaugeService.submit(group.execution, timeMillis);
+		group.executions.record(timeMillis);
+	}
+
+	@Override
+	protected synchronized void running(Names group, int groupRunning, int running,
+			int threadPoolSize) {
+		// Submit the current values rather than the given ones, so that a thread
+		// publishing after another one never overwrites its gauges with older values
+		this.gaugeService.submit(group.running, group.getRunning());
+		this.gaugeService.submit(ACTIVE_THREADS, getRunning());
+		if (threadPoolSize > 0) {
+			this.gaugeService.submit(THREAD_UTILIZATION, getThreadPoolUtilization());
+		}
+	}
+
+	@Override
+	public Collection<Metric<?>> metrics() {
+		List<Metric<?>> metrics = new ArrayList<>();
+		for (Names group : getGroups()) {
+			LatencyHistogram.Snapshot snapshot = group.executions.getSnapshot();
+			if (snapshot.getCount() == 0) {
+				continue;
+			}
+			metrics.add(new Metric<Long>(group.execution + ".count", snapshot.getCount()));
+			metrics.add(new Metric<Double>(group.execution + ".mean", snapshot.getMean()));
+			metrics.add(new Metric<Long>(group.execution + ".max", snapshot.getMax()));
+			metrics.add(new Metric<Long>(group.execution + ".p50", snapshot.getPercentile(0.5)));
+			metrics.add(new Metric<Long>(group.execution + ".p90", snapshot.getPercentile(0.9)));
+			metrics.add(new Metric<Long>(group.execution + ".p99", snapshot.getPercentile(0.99)));
+		}
+		return metrics;
+	}
+
+	/**
+	 * Metric names and execution time histogram of a job group.
+	 */
+	static class Names extends QuartzMetrics.Group {
+
+		private final String fired;
+
+		private final String misfired;
+
+		private final String vetoed;
+
+		private final String succeeded;
+
+		private final String failed;
+
+		private final String execution;
+
+		private final String running;
+
+		private final LatencyHistogram executions = new LatencyHistogram();
+
+		Names(String name) {
+			super(name);
+			this.fired = "counter.quartz." + name + ".fired";
+			this.misfired = "counter.quartz." + name + ".misfired";
+			this.vetoed = "counter.quartz." + name + ".vetoed";
+			this.succeeded = "counter.quartz." + name + ".succeeded";
+			this.failed = "counter.quartz." + name + ".failed";
+			this.execution = "timer.quartz." + name + ".execution";
+			this.running = "gauge.quartz." + name + ".running";
+		}
+
+	}
+
+}
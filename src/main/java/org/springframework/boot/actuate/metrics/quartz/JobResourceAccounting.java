@@ -0,0 +1,233 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.quartz;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.listeners.JobListenerSupport;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Base class for job listeners accounting the CPU time and the allocated bytes of job
+ * executions per job class. Both are sampled for the worker thread when the job starts
+ * and when it completes, using the JVM {@link ThreadMXBean}. Allocated bytes are only
+ * available on JVMs providing {@code com.sun.management.ThreadMXBean}, and CPU time
+ * only when thread CPU time measurement is enabled; unavailable values are not
+ * recorded.
+ * <p>
+ * Jobs run by a batch are accounted to the job class of the execution that ran them.
+ * Member jobs of a {@code CoalescingJob} run on their own threads and are not
+ * accounted.
+ *
+ * @param <U> the type of the per job class usage
+ */
+public abstract class JobResourceAccounting<U extends JobResourceAccounting.Usage>
+		extends JobListenerSupport {
+
+	private static final boolean ALLOCATIONS_SUPPORTED = ClassUtils.isPresent(
+			"com.sun.management.ThreadMXBean", JobResourceAccounting.class.getClassLoader());
+
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final boolean cpuTimeSupported;
+
+	private final boolean allocationsSupported;
+
+	private final ConcurrentMap<Class<?>, U> usages = new ConcurrentHashMap<>();
+
+	private final ThreadLocal<long[]> samples = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[2];
+		}
+	};
+
+	protected JobResourceAccounting() {
+		this.cpuTimeSupported = this.threads.isCurrentThreadCpuTimeSupported()
+				&& this.threads.isThreadCpuTimeEnabled();
+		this.allocationsSupported = ALLOCATIONS_SUPPORTED && Allocations.isEnabled(this.threads);
+		if (!this.cpuTimeSupported) {
+			getLog().info("Thread CPU time is not available, job CPU time is not recorded");
+		}
+		if (!this.allocationsSupported) {
+			getLog().info("Thread allocated bytes are not available, job allocations are not recorded");
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "JobResourceAccounting";
+	}
+
+	@Override
+	public void jobToBeExecuted(JobExecutionContext context) {
+		long[] sample = this.samples.get();
+		sample[0] = getCpuTime();
+		sample[1] = getAllocatedBytes();
+	}
+
+	@Override
+	public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+		long[] sample = this.samples.get();
+		long cpuTime = getCpuTime();
+		long allocatedBytes = getAllocatedBytes();
+		U usage = getUsage(context.getJobDetail().getJobClass());
+		usage.record((cpuTime >= 0 && sample[0] >= 0) ? cpuTime - sample[0] : -1,
+				(allocatedBytes >= 0 && sample[1] >= 0) ? allocatedBytes - sample[1] : -1);
+		recorded(usage);
+	}
+
+	/**
+	 * Return the usage recorded so far per job class name.
+	 * @return the usages
+	 */
+	public Map<String, U> getUsages() {
+		Map<String, U> usages = new TreeMap<>();
+		for (U usage : this.usages.values()) {
+			usages.put(usage.getJobClass(), usage);
+		}
+		return Collections.unmodifiableMap(usages);
+	}
+
+	private long getCpuTime() {
+		return this.cpuTimeSupported ? this.threads.getCurrentThreadCpuTime() : -1;
+	}
+
+	private long getAllocatedBytes() {
+		return this.allocationsSupported ? Allocations.getCurrentThreadAllocatedBytes(this.threads)
+				: -1;
+	}
+
+	private U getUsage(Class<?> jobClass) {
+		U usage = this.usages.get(jobClass);
+		if (usage == null) {
+			usage = createUsage(jobClass.getName());
+			U existing = this.usages.putIfAbsent(jobClass, usage);
+			if (existing != null) {
+				return existing;
+			}
+		}
+		return usage;
+	}
+
+	/**
+	 * Create the usage of the given job class.
+	 * @param jobClass the name of the job class
+	 * @return the usage of the job class
+	 */
+	protected abstract U createUsage(String jobClass);
+
+	/**
+	 * Called after an execution was recorded into the given usage.
+	 * @param usage the usage of the job class of the execution
+	 */
+	protected abstract void recorded(U usage);
+
+	/**
+	 * Resources used by the executions of a job class.
+	 */
+	public static class Usage {
+
+		private final String jobClass;
+
+		private final AtomicLong executions = new AtomicLong();
+
+		private final AtomicLong cpuTime = new AtomicLong();
+
+		private final AtomicLong allocatedBytes = new AtomicLong();
+
+		protected Usage(String jobClass) {
+			this.jobClass = jobClass;
+		}
+
+		/**
+		 * Return the name of the job class.
+		 * @return the job class
+		 */
+		public String getJobClass() {
+			return this.jobClass;
+		}
+
+		/**
+		 * Return the number of recorded executions.
+		 * @return the number of executions
+		 */
+		public long getExecutions() {
+			return this.executions.get();
+		}
+
+		/**
+		 * Return the total CPU time of the recorded executions.
+		 * @return the CPU time in nanoseconds
+		 */
+		public long getCpuTime() {
+			return this.cpuTime.get();
+		}
+
+		/**
+		 * Return the total number of bytes allocated by the recorded executions.
+		 * @return the allocated bytes
+		 */
+		public long getAllocatedBytes() {
+			return this.allocatedBytes.get();
+		}
+
+		void record(long cpuTime, long allocatedBytes) {
+			this.executions.incrementAndGet();
+			if (cpuTime > 0) {
+				this.cpuTime.addAndGet(cpuTime);
+			}
+			if (allocatedBytes > 0) {
+				this.allocatedBytes.addAndGet(allocatedBytes);
+			}
+		}
+
+	}
+
+	/**
+	 * Access to {@code com.sun.management.ThreadMXBean}, isolated so that the class is
+	 * only loaded where it exists.
+	 */
+	private static final class Allocations {
+
+		static boolean isEnabled(ThreadMXBean threads) {
+			if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+				return false;
+			}
+			com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+			return sunThreads.isThreadAllocatedMemorySupported()
+					&& sunThreads.isThreadAllocatedMemoryEnabled();
+		}
+
+		static long getCurrentThreadAllocatedBytes(ThreadMXBean threads) {
+			return ((com.sun.management.ThreadMXBean) threads)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+
+	}
+
+}
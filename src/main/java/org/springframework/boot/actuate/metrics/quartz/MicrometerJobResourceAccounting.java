@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.quartz;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link JobResourceAccounting} publishing to a Micrometer {@link MeterRegistry}, with
+ * the {@code quartz.jobs.cpu} and {@code quartz.jobs.allocated} counters tagged by job
+ * class. Counters are registered once per job class and read the recorded totals.
+ */
+public class MicrometerJobResourceAccounting
+		extends JobResourceAccounting<JobResourceAccounting.Usage> {
+
+	private final MeterRegistry registry;
+
+	public MicrometerJobResourceAccounting(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	protected Usage createUsage(String jobClass) {
+		Usage usage = new Usage(jobClass);
+		FunctionCounter.builder("quartz.jobs.cpu", usage,
+				(value) -> (double) value.getCpuTime() / TimeUnit.SECONDS.toNanos(1))
+				.tag("job", jobClass).baseUnit("seconds")
+				.description("CPU time of the executions of a job class").register(this.registry);
+		FunctionCounter.builder("quartz.jobs.allocated", usage, Usage::getAllocatedBytes)
+				.tag("job", jobClass).baseUnit("bytes")
+				.description("Bytes allocated by the executions of a job class")
+				.register(this.registry);
+		return usage;
+	}
+
+	@Override
+	protected void recorded(Usage usage) {
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.quartz;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link QuartzMetrics} publishing to a Micrometer {@link MeterRegistry}, with meters
+ * tagged by job group. Meters are registered once per job group.
+ */
+public class MicrometerQuartzMetrics extends QuartzMetrics<MicrometerQuartzMetrics.Meters> {
+
+	private final MeterRegistry registry;
+
+	public MicrometerQuartzMetrics(MeterRegistry registry) {
+		this.registry = registry;
+		Gauge.builder("quartz.threads.active", this, QuartzMetrics::getRunning)
+				.description("Number of busy scheduler worker threads").register(registry);
+		Gauge.builder("quartz.threads.utilization", this, QuartzMetrics::getThreadPoolUtilization)
+				.description("Share of busy scheduler worker threads").register(registry);
+	}
+
+	@Override
+	protected Meters createGroup(String name) {
+		return new Meters(name, this.registry);
+	}
+
+	@Override
+	protected void fired(Meters group) {
+		group.fired.increment();
+	}
+
+	@Override
+	protected void misfired(Meters group) {
+		group.misfired.increment();
+	}
+
+	@Override
+	protected void vetoed(Meters group) {
+		group.vetoed.increment();
+	}
+
+	@Override
+	protected void executed(Meters group, long timeMillis, boolean failed) {
+		(failed ? group.failed : group.succeeded).record(timeMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	protected void running(Meters group, int groupRunning, int running, int threadPoolSize) {
+	}
+
+	/**
+	 * Meters of a job group.
+	 */
+	static class Meters extends QuartzMetrics.Group {
+
+		private final Counter fired;
+
+		private final Counter misfired;
+
+		private final Counter vetoed;
+
+		private final Timer succeeded;
+
+		private final Timer failed;
+
+		Meters(String name, MeterRegistry registry) {
+			super(name);
+			this.fired = Counter.builder("quartz.fires").tag("group", name)
+					.description("Number of trigger fires").register(registry);
+			this.misfired = Counter.builder("quartz.misfires").tag("group", name)
+					.description("Number of trigger misfires").register(registry);
+			this.vetoed = Counter.builder("quartz.vetoes").tag("group", name)
+					.description("Number of vetoed fires").register(registry);
+			this.succeeded = executions(name, "success", registry);
+			this.failed = executions(name, "failure", registry);
+			Gauge.builder("quartz.running", this, Meters::getRunning).tag("group", name)
+					.description("Number of running jobs").register(registry);
+		}
+
+		private static Timer executions(String name, String outcome, MeterRegistry registry) {
+			return Timer.builder("quartz.executions").tag("group", name).tag("outcome", outcome)
+					.description("Execution time of jobs").publishPercentileHistogram()
+					.register(registry);
+		}
+
+	}
+
+}
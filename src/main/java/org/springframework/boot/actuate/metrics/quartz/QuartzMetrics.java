@@ -0,0 +1,234 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.metrics.quartz;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerListener;
+
+/**
+ * Base class for job and trigger listeners publishing scheduler metrics per job group:
+ * fires, misfires, vetoes, execution times, failures and running jobs. The state of
+ * each job group is created once and reused, so that recording a fire does not
+ * allocate.
+ *
+ * @param <G> the type of the per job group state
+ */
+public abstract class QuartzMetrics<G extends QuartzMetrics.Group> implements JobListener, TriggerListener {
+
+	private final ConcurrentMap<String, G> groups = new ConcurrentHashMap<>();
+
+	private final AtomicInteger running = new AtomicInteger();
+
+	private volatile int threadPoolSize = -1;
+
+	@Override
+	public String getName() {
+		return "QuartzMetrics";
+	}
+
+	@Override
+	public void triggerFired(Trigger trigger, JobExecutionContext context) {
+		fired(getGroup(context.getJobDetail().getKey().getGroup()));
+	}
+
+	@Override
+	public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+		return false;
+	}
+
+	@Override
+	public void triggerMisfired(Trigger trigger) {
+		misfired(getGroup(trigger.getJobKey().getGroup()));
+	}
+
+	@Override
+	public void triggerComplete(Trigger trigger, JobExecutionContext context,
+			CompletedExecutionInstruction triggerInstructionCode) {
+	}
+
+	@Override
+	public void jobToBeExecuted(JobExecutionContext context) {
+		G group = getGroup(context.getJobDetail().getKey().getGroup());
+		int groupRunning = group.started();
+		running(group, groupRunning, this.running.incrementAndGet(), getThreadPoolSize(context));
+	}
+
+	@Override
+	public void jobExecutionVetoed(JobExecutionContext context) {
+		vetoed(getGroup(context.getJobDetail().getKey().getGroup()));
+	}
+
+	@Override
+	public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+		G group = getGroup(context.getJobDetail().getKey().getGroup());
+		executed(group, context.getJobRunTime(), jobException != null);
+		int groupRunning = group.completed();
+		running(group, groupRunning, this.running.decrementAndGet(), getThreadPoolSize(context));
+	}
+
+	/**
+	 * Return the number of jobs currently running.
+	 * @return the number of running jobs
+	 */
+	public int getRunning() {
+		return this.running.get();
+	}
+
+	/**
+	 * Return the size of the scheduler thread pool, or {@code -1} before the first fire.
+	 * @return the size of the thread pool
+	 */
+	public int getThreadPoolSize() {
+		return this.threadPoolSize;
+	}
+
+	/**
+	 * Return the share of busy worker threads, between 0 and 1, or {@code 0} before the
+	 * first fire.
+	 * @return the utilization of the thread pool
+	 */
+	public double getThreadPoolUtilization() {
+		int size = this.threadPoolSize;
+		return (size > 0) ? (double) this.running.get() / size : 0;
+	}
+
+	/**
+	 * Return the state of the job groups seen so far.
+	 * @return the job groups
+	 */
+	protected Collection<G> getGroups() {
+		return this.groups.values();
+	}
+
+	private int getThreadPoolSize(JobExecutionContext context) {
+		int size = this.threadPoolSize;
+		if (size < 0) {
+			try {
+				size = context.getScheduler().getMetaData().getThreadPoolSize();
+			}
+			catch (SchedulerException ex) {
+				size = 0;
+			}
+			this.threadPoolSize = size;
+		}
+		return size;
+	}
+
+	private G getGroup(String name) {
+		G group = this.groups.get(name);
+		if (group == null) {
+			group = createGroup(name);
+			G existing = this.groups.putIfAbsent(name, group);
+			if (existing != null) {
+				return existing;
+			}
+		}
+		return group;
+	}
+
+	/**
+	 * Create the state of the given job group.
+	 * @param name the name of the job group
+	 * @return the state of the job group
+	 */
+	protected abstract G createGroup(String name);
+
+	/**
+	 * Record a fire of a trigger of the given job group.
+	 * @param group the job group
+	 */
+	protected abstract void fired(G group);
+
+	/**
+	 * Record a misfire of a trigger of the given job group.
+	 * @param group the job group
+	 */
+	protected abstract void misfired(G group);
+
+	/**
+	 * Record a vetoed fire of the given job group.
+	 * @param group the job group
+	 */
+	protected abstract void vetoed(G group);
+
+	/**
+	 * Record an execution of a job of the given job group.
+	 * @param group the job group
+	 * @param timeMillis the execution time in milliseconds
+	 * @param failed whether the job threw an exception
+	 */
+	protected abstract void executed(G group, long timeMillis, boolean failed);
+
+	/**
+	 * Record a change of the number of running jobs.
+	 * @param group the job group whose job started or completed
+	 * @param groupRunning the number of running jobs of the group
+	 * @param running the number of running jobs of all groups
+	 * @param threadPoolSize the size of the scheduler thread pool
+	 */
+	protected abstract void running(G group, int groupRunning, int running, int threadPoolSize);
+
+	/**
+	 * State of a job group.
+	 */
+	public static class Group {
+
+		private final String name;
+
+		private final AtomicInteger running = new AtomicInteger();
+
+		protected Group(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Return the name of the job group.
+		 * @return the name
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the number of running jobs of the group.
+		 * @return the number of running jobs
+		 */
+		public int getRunning() {
+			return this.running.get();
+		}
+
+		int started() {
+			return this.running.incrementAndGet();
+		}
+
+		int completed() {
+			return this.running.decrementAndGet();
+		}
+
+	}
+
+}
@@ -18,17 +18,30 @@
 // add features from spring-boot-2.6.6:org\springframework\boot\jdbc\init\DataSourceScriptDatabaseInitializer.java
 package org.springframework.boot.autoconfigure;
 
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.autoconfigure.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.autoconfigure.quartz.QuartzDatabaseInitializer;
 import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulatorEnhanced;
+import org.springframework.jdbc.datasource.init.ScriptExecutionReport;
+import org.springframework.jdbc.datasource.init.ScriptException;
+import org.springframework.jdbc.datasource.init.UncategorizedScriptException;
 import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 import javax.annotation.PostConstruct;
 import javax.sql.DataSource;
@@ -38,6 +51,11 @@ import javax.sql.DataSource;
  * Add {@link #isEmbeddedDatabase()} and {@link #customize(ResourceDatabasePopulatorEnhanced)}
  *
  * Base class used for database initialization.
+ * <p>
+ * {@link #initialize()} borrows a single connection for the embedded database check,
+ * the platform detection, the existing schema check and the population. The database
+ * product name is read once and cached, as is the detected {@link #getPlatform()
+ * platform}.
  *
  * @author Vedran Pavic
  * @author Stephane Nicoll
@@ -53,6 +71,21 @@ public abstract class AbstractDatabaseInitializerEnhanced {
 
 	private final ResourceLoader resourceLoader;
 
+	/**
+	 * Whether {@link #initialize()} is running, and may borrow {@link #connection}.
+	 */
+	private boolean initializing;
+
+	private Connection connection;
+
+	private DatabaseMetaData metaData;
+
+	private String databaseProductName;
+
+	private String platform;
+
+	private volatile ScriptExecutionReport executionReport;
+
 	protected AbstractDatabaseInitializerEnhanced(DataSource dataSource, ResourceLoader resourceLoader) {
 		Assert.notNull(dataSource, "DataSource must not be null");
 		Assert.notNull(resourceLoader, "ResourceLoader must not be null");
@@ -62,7 +95,17 @@ public abstract class AbstractDatabaseInitializerEnhanced {
 
 	public boolean isEmbeddedDatabase() {
 		try {
-			return EmbeddedDatabaseConnection.isEmbedded(this.dataSource);
+			String productName = getDatabaseProductName();
+			if (productName == null) {
+				return false;
+			}
+			productName = productName.toUpperCase(Locale.ENGLISH);
+			for (EmbeddedDatabaseConnection candidate : EmbeddedDatabaseConnection.values()) {
+				if (candidate != EmbeddedDatabaseConnection.NONE && productName.contains(candidate.name())) {
+					return true;
+				}
+			}
+			return false;
 		}
 		catch (Exception ex) {
 			logger.debug("Could not determine if datasource is embedded", ex);
@@ -70,41 +113,217 @@ public abstract class AbstractDatabaseInitializerEnhanced {
 		}
 	}
 
+	/**
+	 * Return the platform used in place of the {@code @@platform@@} placeholder of the
+	 * schema location, detected once and cached.
+	 * @return the platform
+	 * @throws IllegalStateException if the platform cannot be detected
+	 */
+	public synchronized String getPlatform() {
+		if (this.platform == null) {
+			this.platform = getDatabaseName();
+		}
+		return this.platform;
+	}
+
 	@PostConstruct
-	protected void initialize() {
-		if (!isEnabled()) {
-			return;
+	protected synchronized void initialize() {
+		this.initializing = true;
+		try {
+			if (!isEnabled()) {
+				return;
+			}
+			ResourceDatabasePopulatorEnhanced populator = new ResourceDatabasePopulatorEnhanced();
+			String schemaLocation = getSchemaLocation();
+			if (schemaLocation.contains(PLATFORM_PLACEHOLDER)) {
+				schemaLocation = schemaLocation.replace(PLATFORM_PLACEHOLDER, getPlatform());
+			}
+			Resource schema = this.resourceLoader.getResource(schemaLocation);
+			List<String> statements = getSchemaStatements(schema);
+			if (statements != null) {
+				populator.addScript(schema, statements);
+			}
+			else {
+				populator.addScript(schema);
+			}
+			populator.setContinueOnError(true);
+			populator.setDataSource(this.dataSource);
+			customize(populator);
+			if (isSkipExistingSchema() && isInitialized(populator)) {
+				logger.info("Skipping initialization of " + schemaLocation
+						+ ", the tables it creates already exist");
+				return;
+			}
+			try {
+				populator.populate(getConnection());
+			}
+			catch (ScriptException ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				throw new UncategorizedScriptException("Failed to execute database script", ex);
+			}
+			finally {
+				this.executionReport = populator.getExecutionReport();
+			}
 		}
-		ResourceDatabasePopulatorEnhanced populator = new ResourceDatabasePopulatorEnhanced();
-		String schemaLocation = getSchemaLocation();
-		if (schemaLocation.contains(PLATFORM_PLACEHOLDER)) {
-			String platform = getDatabaseName();
-			schemaLocation = schemaLocation.replace(PLATFORM_PLACEHOLDER, platform);
+		finally {
+			this.initializing = false;
+			this.metaData = null;
+			if (this.connection != null) {
+				DataSourceUtils.releaseConnection(this.connection, this.dataSource);
+				this.connection = null;
+			}
 		}
-		populator.addScript(this.resourceLoader.getResource(schemaLocation));
-		populator.setContinueOnError(true);
-		customize(populator);
-		DatabasePopulatorUtils.execute(populator, this.dataSource);
+	}
+
+	/**
+	 * Return the statement timings of the schema initialization, recorded if the
+	 * populator was {@link #customize customized} to do so.
+	 * @return the report of the schema initialization, or {@code null}
+	 */
+	public ScriptExecutionReport getExecutionReport() {
+		return this.executionReport;
 	}
 
 	protected abstract boolean isEnabled();
 
+	/**
+	 * Return whether the initialization should be skipped when all the tables created
+	 * by the schema script already exist.
+	 * @return {@code true} to skip the initialization of an existing schema
+	 */
+	protected boolean isSkipExistingSchema() {
+		return false;
+	}
+
 	protected abstract String getSchemaLocation();
 
 	protected void customize(ResourceDatabasePopulatorEnhanced populator) {
 	}
 
+	/**
+	 * Return the statements of the given schema script if they are known without parsing
+	 * the script, for instance because they were split at build time.
+	 * @param schema the schema script
+	 * @return the statements of the script, or {@code null} to parse it
+	 */
+	protected List<String> getSchemaStatements(Resource schema) {
+		return null;
+	}
+
+	private Connection getConnection() {
+		Assert.state(this.initializing, "Connection only available during initialization");
+		if (this.connection == null) {
+			this.connection = DataSourceUtils.getConnection(this.dataSource);
+		}
+		return this.connection;
+	}
+
+	private DatabaseMetaData getMetaData() throws SQLException {
+		if (this.metaData == null) {
+			this.metaData = getConnection().getMetaData();
+		}
+		return this.metaData;
+	}
+
+	/**
+	 * Return the database product name, read once with the metadata of the
+	 * initialization and cached.
+	 * @return the database product name
+	 * @throws SQLException if the metadata cannot be read
+	 * @throws MetaDataAccessException if the metadata cannot be read
+	 */
+	public synchronized String getDatabaseProductName() throws SQLException, MetaDataAccessException {
+		if (this.databaseProductName == null) {
+			this.databaseProductName = this.initializing ? getMetaData().getDatabaseProductName()
+					: (String) JdbcUtils.extractDatabaseMetaData(this.dataSource, "getDatabaseProductName");
+		}
+		return this.databaseProductName;
+	}
+
+	private boolean isInitialized(ResourceDatabasePopulatorEnhanced populator) {
+		Set<String> tables = populator.getCreatedTables();
+		if (tables.isEmpty()) {
+			return false;
+		}
+		try {
+			DatabaseMetaData metaData = getMetaData();
+			for (String table : tables) {
+				if (!exists(metaData, table)) {
+					logger.debug("Table " + table + " does not exist");
+					return false;
+				}
+			}
+			return true;
+		}
+		catch (SQLException ex) {
+			logger.debug("Could not determine whether the schema is initialized", ex);
+			return false;
+		}
+	}
+
+	private boolean exists(DatabaseMetaData metaData, String table) throws SQLException {
+		String[] parts = StringUtils.delimitedListToStringArray(table, ".");
+		String name = toStoredIdentifier(metaData, parts[parts.length - 1]);
+		String schema = (parts.length > 1) ? toStoredIdentifier(metaData, parts[parts.length - 2])
+				: getCurrentSchema(metaData);
+		String escape = metaData.getSearchStringEscape();
+		try (ResultSet tables = metaData.getTables(metaData.getConnection().getCatalog(),
+				escapePattern(schema, escape), escapePattern(name, escape), null)) {
+			return tables.next();
+		}
+	}
+
+	private String getCurrentSchema(DatabaseMetaData metaData) {
+		try {
+			return metaData.getConnection().getSchema();
+		}
+		catch (SQLException | AbstractMethodError ex) {
+			// JDBC 4.0 driver
+			return null;
+		}
+	}
+
+	private String toStoredIdentifier(DatabaseMetaData metaData, String identifier)
+			throws SQLException {
+		if (identifier.length() > 1 && "\"`[".indexOf(identifier.charAt(0)) >= 0) {
+			return identifier.substring(1, identifier.length() - 1);
+		}
+		if (metaData.storesUpperCaseIdentifiers()) {
+			return identifier.toUpperCase(Locale.ENGLISH);
+		}
+		if (metaData.storesLowerCaseIdentifiers()) {
+			return identifier.toLowerCase(Locale.ENGLISH);
+		}
+		return identifier;
+	}
+
+	private String escapePattern(String name, String escape) {
+		if (name == null || !StringUtils.hasLength(escape)) {
+			return name;
+		}
+		StringBuilder pattern = new StringBuilder(name.length() + 4);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '_' || c == '%' || escape.indexOf(c) >= 0) {
+				pattern.append(escape);
+			}
+			pattern.append(c);
+		}
+		return pattern.toString();
+	}
+
 	protected String getDatabaseName() {
 		try {
-			String productName = JdbcUtils.commonDatabaseName(
-					JdbcUtils.extractDatabaseMetaData(this.dataSource, "getDatabaseProductName").toString());
+			String productName = JdbcUtils.commonDatabaseName(getDatabaseProductName());
 			DatabaseDriver databaseDriver = DatabaseDriver.fromProductName(productName);
 			if (databaseDriver == DatabaseDriver.UNKNOWN) {
 				throw new IllegalStateException("Unable to detect database type");
 			}
 			return databaseDriver.getId();
 		}
-		catch (MetaDataAccessException ex) {
+		catch (SQLException | MetaDataAccessException ex) {
 			throw new IllegalStateException("Unable to detect database type", ex);
 		}
 	}
@@ -33,16 +33,35 @@ class AutowireCapableBeanJobFactory extends SpringBeanJobFactory {
 
 	private final AutowireCapableBeanFactory beanFactory;
 
+	private BatchJobCoordinator batchJobCoordinator;
+
+	private CoalescedJobExecutor coalescedJobExecutor;
+
 	AutowireCapableBeanJobFactory(AutowireCapableBeanFactory beanFactory) {
 		Assert.notNull(beanFactory, "Bean factory must not be null");
 		this.beanFactory = beanFactory;
 	}
 
+	void setBatchJobCoordinator(BatchJobCoordinator batchJobCoordinator) {
+		this.batchJobCoordinator = batchJobCoordinator;
+	}
+
+	void setCoalescedJobExecutor(CoalescedJobExecutor coalescedJobExecutor) {
+		this.coalescedJobExecutor = coalescedJobExecutor;
+	}
+
 	@Override
 	protected Object createJobInstance(TriggerFiredBundle bundle) throws Exception {
 		Object jobInstance = super.createJobInstance(bundle);
 		this.beanFactory.autowireBean(jobInstance);
 		this.beanFactory.initializeBean(jobInstance, null);
+		if (jobInstance instanceof CoalescingJob) {
+			((CoalescingJob) jobInstance).setJobFactory(this);
+			((CoalescingJob) jobInstance).setExecutor(this.coalescedJobExecutor);
+		}
+		if (jobInstance instanceof BatchJob && this.batchJobCoordinator != null) {
+			return this.batchJobCoordinator.adapt((BatchJob) jobInstance);
+		}
 		return jobInstance;
 	}
 
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Date;
+import java.util.List;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.listeners.TriggerListenerSupport;
+
+import org.springframework.boot.autoconfigure.quartz.TriggerBackpressure.Decision;
+
+/**
+ * Trigger listener consulting the {@link TriggerBackpressure} beans before each fire.
+ * Deferred fires are vetoed and replayed by one-shot triggers in the {@value #GROUP}
+ * group, skipped fires are vetoed only.
+ *
+ * @see QuartzProperties.Backpressure
+ */
+class BackpressureTriggerListener extends TriggerListenerSupport {
+
+	/**
+	 * Group of the one-shot triggers replaying deferred fires.
+	 */
+	static final String GROUP = "BACKPRESSURE";
+
+	private final List<TriggerBackpressure> backpressures;
+
+	private final long deferDelayMillis;
+
+	BackpressureTriggerListener(List<TriggerBackpressure> backpressures, long deferDelayMillis) {
+		this.backpressures = backpressures;
+		this.deferDelayMillis = deferDelayMillis;
+	}
+
+	@Override
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+		if (DeferredFires.isVetoed(context)) {
+			return true;
+		}
+		Decision decision = decide(trigger, context);
+		if (decision == Decision.SKIP) {
+			DeferredFires.markVetoed(context);
+			if (getLog().isDebugEnabled()) {
+				getLog().debug("Skipped fire of trigger " + trigger.getKey());
+			}
+			return true;
+		}
+		if (decision == Decision.DEFER) {
+			Date fireTime = new Date(System.currentTimeMillis() + this.deferDelayMillis);
+			try {
+				DeferredFires.defer(context, GROUP, fireTime, trigger.getPriority());
+				DeferredFires.markVetoed(context);
+				if (getLog().isDebugEnabled()) {
+					getLog().debug("Deferred fire of trigger " + trigger.getKey() + " to "
+							+ fireTime);
+				}
+				return true;
+			}
+			catch (SchedulerException ex) {
+				getLog().warn("Could not defer fire of trigger " + trigger.getKey()
+						+ ", firing it now", ex);
+			}
+		}
+		return false;
+	}
+
+	private Decision decide(Trigger trigger, JobExecutionContext context) {
+		for (TriggerBackpressure backpressure : this.backpressures) {
+			Decision decision = backpressure.decide(trigger, context);
+			if (decision != null && decision != Decision.PROCEED) {
+				return decision;
+			}
+		}
+		return Decision.PROCEED;
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+/**
+ * {@link Job} that can process several fires at once. With the auto-configured job
+ * factory, fires of the same batch job class that happen within
+ * {@code spring.quartz.batch.window} of each other are handed to a single
+ * {@link #executeBatch(List)} call on one of the job instances, while each trigger still
+ * completes on its own. Job data should be read from each context rather than from
+ * properties of the job instance.
+ *
+ * @see BatchJobExecutionException
+ * @see QuartzProperties.Batch
+ */
+public interface BatchJob extends Job {
+
+	/**
+	 * Execute the given fires. A {@link BatchJobExecutionException} fails the listed
+	 * contexts only; any other exception fails every context of the batch.
+	 * @param contexts the contexts of the fires, in arrival order
+	 * @throws JobExecutionException if some or all of the fires failed
+	 */
+	void executeBatch(List<JobExecutionContext> contexts) throws JobExecutionException;
+
+	@Override
+	default void execute(JobExecutionContext context) throws JobExecutionException {
+		try {
+			executeBatch(Collections.singletonList(context));
+		}
+		catch (BatchJobExecutionException ex) {
+			JobExecutionException failure = ex.getFailure(context);
+			if (failure != null) {
+				throw failure;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.quartz.InterruptableJob;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.UnableToInterruptJobException;
+
+/**
+ * Groups the fires of {@link BatchJob batch jobs} of the same class. The first fire of a
+ * group waits for the batch window to elapse, or for the batch to fill up, and then runs
+ * {@link BatchJob#executeBatch(List)} for the whole group; the other fires wait on their
+ * worker threads for the outcome of their own context.
+ *
+ * @see QuartzProperties.Batch
+ */
+class BatchJobCoordinator {
+
+	private final long windowMillis;
+
+	private final int maxSize;
+
+	private final Map<Class<?>, Batch> openBatches = new HashMap<>();
+
+	BatchJobCoordinator(long windowMillis, int maxSize) {
+		this.windowMillis = windowMillis;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Return a job that runs the given batch job through this coordinator.
+	 * @param job the batch job instance
+	 * @return the job to run
+	 */
+	Job adapt(BatchJob job) {
+		return new BatchJobAdapter(job);
+	}
+
+	void execute(BatchJob job, JobExecutionContext context) throws JobExecutionException {
+		if (this.windowMillis <= 0 || this.maxSize <= 1) {
+			job.execute(context);
+			return;
+		}
+		Batch batch;
+		boolean leader = false;
+		synchronized (this) {
+			batch = this.openBatches.get(job.getClass());
+			if (batch == null) {
+				batch = new Batch(System.currentTimeMillis() + this.windowMillis);
+				this.openBatches.put(job.getClass(), batch);
+				leader = true;
+			}
+			batch.contexts.add(context);
+			if (batch.contexts.size() >= this.maxSize) {
+				close(job.getClass(), batch);
+			}
+		}
+		if (leader) {
+			runBatch(job, batch);
+		}
+		else {
+			awaitCompletion(batch);
+		}
+		JobExecutionException failure = batch.getFailure(context);
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private void runBatch(BatchJob job, Batch batch) {
+		List<JobExecutionContext> contexts;
+		synchronized (this) {
+			long remaining = batch.deadline - System.currentTimeMillis();
+			while (!batch.closed && remaining > 0) {
+				try {
+					wait(remaining);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				remaining = batch.deadline - System.currentTimeMillis();
+			}
+			close(job.getClass(), batch);
+			contexts = Collections.unmodifiableList(new ArrayList<>(batch.contexts));
+		}
+		try {
+			job.executeBatch(contexts);
+		}
+		catch (BatchJobExecutionException ex) {
+			batch.failures = ex.getFailures();
+		}
+		catch (JobExecutionException ex) {
+			batch.failure = ex;
+		}
+		catch (RuntimeException ex) {
+			batch.failure = new JobExecutionException(ex);
+		}
+		catch (Error ex) {
+			batch.failure = new JobExecutionException(ex);
+			throw ex;
+		}
+		finally {
+			synchronized (this) {
+				batch.completed = true;
+				notifyAll();
+			}
+		}
+	}
+
+	private void close(Class<?> jobClass, Batch batch) {
+		batch.closed = true;
+		if (this.openBatches.get(jobClass) == batch) {
+			this.openBatches.remove(jobClass);
+		}
+		notifyAll();
+	}
+
+	private synchronized void awaitCompletion(Batch batch) {
+		boolean interrupted = false;
+		while (!batch.completed) {
+			try {
+				wait();
+			}
+			catch (InterruptedException ex) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final class Batch {
+
+		private final long deadline;
+
+		private final List<JobExecutionContext> contexts = new ArrayList<>();
+
+		private boolean closed;
+
+		private boolean completed;
+
+		private volatile JobExecutionException failure;
+
+		private volatile Map<JobExecutionContext, JobExecutionException> failures;
+
+		Batch(long deadline) {
+			this.deadline = deadline;
+		}
+
+		JobExecutionException getFailure(JobExecutionContext context) {
+			if (this.failure != null) {
+				return this.failure;
+			}
+			return (this.failures != null) ? this.failures.get(context) : null;
+		}
+
+	}
+
+	/**
+	 * {@link Job} created by the job factory in place of a {@link BatchJob}.
+	 */
+	private class BatchJobAdapter implements InterruptableJob {
+
+		private final BatchJob job;
+
+		BatchJobAdapter(BatchJob job) {
+			this.job = job;
+		}
+
+		@Override
+		public void execute(JobExecutionContext context) throws JobExecutionException {
+			BatchJobCoordinator.this.execute(this.job, context);
+		}
+
+		@Override
+		public void interrupt() throws UnableToInterruptJobException {
+			if (!(this.job instanceof InterruptableJob)) {
+				throw new UnableToInterruptJobException(
+						"Job " + this.job.getClass().getName() + " is not interruptable");
+			}
+			((InterruptableJob) this.job).interrupt();
+		}
+
+	}
+
+}
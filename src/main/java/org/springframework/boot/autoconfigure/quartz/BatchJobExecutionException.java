@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+/**
+ * Exception thrown by {@link BatchJob#executeBatch(java.util.List)} when some of the
+ * fires of a batch failed. Fires without a failure complete normally.
+ */
+public class BatchJobExecutionException extends JobExecutionException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient Map<JobExecutionContext, JobExecutionException> failures = new IdentityHashMap<>();
+
+	public BatchJobExecutionException() {
+		super("Some fires of the batch failed");
+	}
+
+	/**
+	 * Record the failure of a fire.
+	 * @param context the context of the failed fire
+	 * @param failure the failure, possibly asking for the fire to be retried
+	 */
+	public void addFailure(JobExecutionContext context, JobExecutionException failure) {
+		this.failures.put(context, failure);
+	}
+
+	/**
+	 * Record the failure of a fire.
+	 * @param context the context of the failed fire
+	 * @param cause the cause of the failure
+	 */
+	public void addFailure(JobExecutionContext context, Throwable cause) {
+		addFailure(context, new JobExecutionException(cause));
+	}
+
+	/**
+	 * Return the failure recorded for the given fire.
+	 * @param context the context of the fire
+	 * @return the failure or {@code null} if the fire succeeded
+	 */
+	public JobExecutionException getFailure(JobExecutionContext context) {
+		return this.failures.get(context);
+	}
+
+	public Map<JobExecutionContext, JobExecutionException> getFailures() {
+		return Collections.unmodifiableMap(this.failures);
+	}
+
+}
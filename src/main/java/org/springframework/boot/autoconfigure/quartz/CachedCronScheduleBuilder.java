@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.text.ParseException;
+import java.util.TimeZone;
+
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.ScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.spi.MutableTrigger;
+
+/**
+ * Drop-in replacement for {@link CronScheduleBuilder} for triggers scheduled at
+ * runtime. The built triggers share their parsed cron expression through the
+ * {@link CronExpressionCache#getSharedInstance() shared cache}.
+ *
+ * @see SharedCronTriggerImpl
+ */
+public class CachedCronScheduleBuilder extends ScheduleBuilder<CronTrigger> {
+
+	private final String cronExpression;
+
+	private TimeZone timeZone = TimeZone.getDefault();
+
+	private int misfireInstruction = CronTrigger.MISFIRE_INSTRUCTION_SMART_POLICY;
+
+	protected CachedCronScheduleBuilder(String cronExpression) {
+		this.cronExpression = cronExpression;
+	}
+
+	/**
+	 * Create a builder for the given cron expression.
+	 * @param cronExpression the cron expression
+	 * @return the new builder
+	 * @throws RuntimeException wrapping a {@link ParseException} if the expression is
+	 * invalid
+	 */
+	public static CachedCronScheduleBuilder cronSchedule(String cronExpression) {
+		CachedCronScheduleBuilder builder = new CachedCronScheduleBuilder(cronExpression);
+		builder.validate();
+		return builder;
+	}
+
+	/**
+	 * Set the time zone in which the schedule is resolved.
+	 * @param timeZone the time zone
+	 * @return the updated builder
+	 */
+	public CachedCronScheduleBuilder inTimeZone(TimeZone timeZone) {
+		this.timeZone = timeZone;
+		validate();
+		return this;
+	}
+
+	/**
+	 * Use the {@link Trigger#MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY} instruction.
+	 * @return the updated builder
+	 */
+	public CachedCronScheduleBuilder withMisfireHandlingInstructionIgnoreMisfires() {
+		this.misfireInstruction = Trigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY;
+		return this;
+	}
+
+	/**
+	 * Use the {@link CronTrigger#MISFIRE_INSTRUCTION_DO_NOTHING} instruction.
+	 * @return the updated builder
+	 */
+	public CachedCronScheduleBuilder withMisfireHandlingInstructionDoNothing() {
+		this.misfireInstruction = CronTrigger.MISFIRE_INSTRUCTION_DO_NOTHING;
+		return this;
+	}
+
+	/**
+	 * Use the {@link CronTrigger#MISFIRE_INSTRUCTION_FIRE_ONCE_NOW} instruction.
+	 * @return the updated builder
+	 */
+	public CachedCronScheduleBuilder withMisfireHandlingInstructionFireAndProceed() {
+		this.misfireInstruction = CronTrigger.MISFIRE_INSTRUCTION_FIRE_ONCE_NOW;
+		return this;
+	}
+
+	@Override
+	protected MutableTrigger build() {
+		SharedCronTriggerImpl trigger = new SharedCronTriggerImpl();
+		trigger.setSharedExpression(validate());
+		trigger.setMisfireInstruction(this.misfireInstruction);
+		return trigger;
+	}
+
+	private SharedCronExpression validate() {
+		try {
+			return CronExpressionCache.getSharedInstance().get(this.cronExpression,
+					this.timeZone);
+		}
+		catch (ParseException ex) {
+			throw new RuntimeException("CronExpression '" + this.cronExpression
+					+ "' is invalid.", ex);
+		}
+	}
+
+}
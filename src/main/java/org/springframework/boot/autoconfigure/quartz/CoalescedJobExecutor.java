@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Thread pool shared by all {@link CoalescingJob coalescing jobs} to run their member
+ * jobs. Threads are started on demand, up to the maximum concurrency, and stop after a
+ * minute without work; members beyond the maximum concurrency wait for a free thread.
+ *
+ * @see QuartzProperties.Coalescing
+ */
+class CoalescedJobExecutor implements DisposableBean {
+
+	private final ThreadPoolExecutor executor;
+
+	CoalescedJobExecutor(int maxConcurrency) {
+		Assert.isTrue(maxConcurrency > 0, "MaxConcurrency must be positive");
+		this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60,
+				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				new CustomizableThreadFactory("quartz-coalesced-"));
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	<T> Future<T> submit(Callable<T> task) {
+		return this.executor.submit(task);
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+	}
+
+}
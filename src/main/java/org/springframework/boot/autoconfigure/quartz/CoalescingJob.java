@@ -0,0 +1,207 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.quartz.InterruptableJob;
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.UnableToInterruptJobException;
+import org.quartz.impl.JobExecutionContextImpl;
+import org.quartz.spi.JobFactory;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+
+import org.springframework.scheduling.quartz.SpringBeanJobFactory;
+
+/**
+ * Internal job driven by a single coalesced trigger that runs its member jobs with the
+ * fire times of the coalesced trigger. Members are dispatched at once to the
+ * {@link CoalescedJobExecutor}, so that a slow member does not delay the others, and
+ * the coalescing job completes when all of them have completed. Without an executor,
+ * members run one after the other on the worker thread.
+ * <p>
+ * The job details of the members are held in the job data of the coalescing job, so
+ * that firing does not read them from the job store, and are created through the
+ * scheduler's job factory. Job listeners are only notified for the coalescing job, not
+ * for its members.
+ *
+ * @see QuartzProperties.Coalescing
+ */
+public class CoalescingJob implements InterruptableJob {
+
+	private static final Log logger = LogFactory.getLog(CoalescingJob.class);
+
+	private static final String MEMBERS_KEY = "coalescing.members";
+
+	private JobFactory jobFactory = new SpringBeanJobFactory();
+
+	private CoalescedJobExecutor executor;
+
+	private final Set<Job> runningJobs = Collections
+			.newSetFromMap(new ConcurrentHashMap<Job, Boolean>());
+
+	private volatile List<Future<Boolean>> runs = Collections.emptyList();
+
+	private volatile boolean interrupted;
+
+	void setJobFactory(JobFactory jobFactory) {
+		this.jobFactory = jobFactory;
+	}
+
+	void setExecutor(CoalescedJobExecutor executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public void execute(JobExecutionContext context) throws JobExecutionException {
+		List<JobDetail> members = getMembers(context.getJobDetail().getJobDataMap());
+		List<Future<Boolean>> runs = new ArrayList<>(members.size());
+		this.runs = runs;
+		for (JobDetail member : members) {
+			if (this.interrupted) {
+				break;
+			}
+			MemberRun run = new MemberRun(member, context);
+			if (this.executor != null) {
+				runs.add(this.executor.submit(run));
+			}
+			else {
+				FutureTask<Boolean> task = new FutureTask<>(run);
+				runs.add(task);
+				task.run();
+			}
+		}
+		int failures = 0;
+		for (Future<Boolean> run : runs) {
+			if (!await(run)) {
+				failures++;
+			}
+		}
+		if (failures > 0) {
+			throw new JobExecutionException(
+					failures + " of " + members.size() + " coalesced jobs failed");
+		}
+	}
+
+	private boolean await(Future<Boolean> run) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return run.get();
+				}
+				catch (InterruptedException ex) {
+					interrupted = true;
+				}
+			}
+		}
+		catch (CancellationException ex) {
+			return true;
+		}
+		catch (ExecutionException ex) {
+			return false;
+		}
+		finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public void interrupt() throws UnableToInterruptJobException {
+		this.interrupted = true;
+		for (Future<Boolean> run : this.runs) {
+			run.cancel(false);
+		}
+		for (Job job : this.runningJobs) {
+			if (job instanceof InterruptableJob) {
+				((InterruptableJob) job).interrupt();
+			}
+		}
+	}
+
+	static void setMembers(JobDataMap jobDataMap, List<JobDetail> members) {
+		jobDataMap.put(MEMBERS_KEY, Collections.unmodifiableList(new ArrayList<>(members)));
+	}
+
+	@SuppressWarnings("unchecked")
+	static List<JobDetail> getMembers(JobDataMap jobDataMap) {
+		return (List<JobDetail>) jobDataMap.get(MEMBERS_KEY);
+	}
+
+	/**
+	 * Run of one member job, reporting whether it succeeded.
+	 */
+	private class MemberRun implements Callable<Boolean> {
+
+		private final JobDetail member;
+
+		private final JobExecutionContext context;
+
+		MemberRun(JobDetail member, JobExecutionContext context) {
+			this.member = member;
+			this.context = context;
+		}
+
+		@Override
+		public Boolean call() {
+			JobExecutionContext context = this.context;
+			Scheduler scheduler = context.getScheduler();
+			TriggerFiredBundle bundle = new TriggerFiredBundle((JobDetail) this.member.clone(),
+					(OperableTrigger) context.getTrigger(), context.getCalendar(),
+					context.isRecovering(), context.getFireTime(), context.getScheduledFireTime(),
+					context.getPreviousFireTime(), context.getNextFireTime());
+			Job job = null;
+			try {
+				job = CoalescingJob.this.jobFactory.newJob(bundle, scheduler);
+				CoalescingJob.this.runningJobs.add(job);
+				job.execute(new JobExecutionContextImpl(scheduler, bundle, job));
+				return true;
+			}
+			catch (SchedulerException | RuntimeException ex) {
+				logger.warn("Coalesced job " + this.member.getKey() + " threw an exception", ex);
+				return false;
+			}
+			finally {
+				if (job != null) {
+					CoalescingJob.this.runningJobs.remove(job);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.quartz.CronExpression;
+import org.quartz.CronTrigger;
+import org.quartz.impl.triggers.CronTriggerImpl;
+
+import org.springframework.util.Assert;
+
+/**
+ * Interning cache of parsed {@link CronExpression cron expressions}. Triggers using the
+ * same cron string and time zone share a single parsed expression, which also
+ * survives the trigger copies that job stores make when acquiring and firing triggers.
+ *
+ * @see CachedCronScheduleBuilder
+ */
+public class CronExpressionCache {
+
+	private static final int DEFAULT_MAX_SIZE = 10000;
+
+	private static final CronExpressionCache sharedInstance = new CronExpressionCache(
+			DEFAULT_MAX_SIZE);
+
+	private final ConcurrentMap<String, SharedCronExpression> expressions = new ConcurrentHashMap<>();
+
+	private final int maxSize;
+
+	/**
+	 * Create a new cache holding at most the given number of expressions. Expressions
+	 * requested once the cache is full are parsed but not retained.
+	 * @param maxSize the maximum number of cached expressions
+	 */
+	public CronExpressionCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Return the cache shared by the auto-configuration and
+	 * {@link CachedCronScheduleBuilder}.
+	 * @return the shared cache
+	 */
+	public static CronExpressionCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+	/**
+	 * Return the shared expression for the given cron string and time zone. The
+	 * returned expression is used by other triggers and must not be modified.
+	 * @param cronExpression the cron expression
+	 * @param timeZone the time zone, or {@code null} for the default time zone
+	 * @return the shared expression
+	 * @throws ParseException if the expression is invalid
+	 */
+	public CronExpression getExpression(String cronExpression, TimeZone timeZone)
+			throws ParseException {
+		return get(cronExpression, timeZone).getExpression();
+	}
+
+	SharedCronExpression get(String cronExpression, TimeZone timeZone)
+			throws ParseException {
+		Assert.notNull(cronExpression, "CronExpression must not be null");
+		TimeZone zone = (timeZone != null) ? timeZone : TimeZone.getDefault();
+		String key = zone.getID() + " " + cronExpression.toUpperCase(Locale.US);
+		SharedCronExpression expression = this.expressions.get(key);
+		if (expression == null) {
+			expression = new SharedCronExpression(cronExpression, zone);
+			if (this.expressions.size() < this.maxSize) {
+				SharedCronExpression existing = this.expressions.putIfAbsent(key,
+						expression);
+				if (existing != null) {
+					expression = existing;
+				}
+			}
+		}
+		return expression;
+	}
+
+	/**
+	 * Return a trigger equivalent to the given one that uses a shared expression. The
+	 * trigger is returned unchanged if it is not a standard cron trigger.
+	 * @param trigger the trigger
+	 * @return a trigger sharing its cron expression
+	 */
+	public CronTrigger share(CronTrigger trigger) {
+		if (trigger.getClass() != CronTriggerImpl.class
+				|| trigger.getCronExpression() == null) {
+			return trigger;
+		}
+		try {
+			return new SharedCronTriggerImpl((CronTriggerImpl) trigger,
+					get(trigger.getCronExpression(), trigger.getTimeZone()));
+		}
+		catch (ParseException ex) {
+			throw new IllegalArgumentException(
+					"Invalid cron expression of trigger " + trigger.getKey(), ex);
+		}
+	}
+
+	/**
+	 * Return the number of cached expressions.
+	 * @return the cache size
+	 */
+	public int size() {
+		return this.expressions.size();
+	}
+
+	/**
+	 * Remove all cached expressions. Triggers keep the expressions they already hold.
+	 */
+	public void clear() {
+		this.expressions.clear();
+	}
+
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.Trigger;
+
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadata;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link TriggerBackpressure} holding back fires while a connection pool is saturated:
+ * when the share of active connections reaches {@code maxUsage}, or when more than
+ * {@code maxWaiting} threads are waiting for a connection. Active connections are read
+ * from the {@link DataSourcePoolMetadata} of the pool, waiting threads from HikariCP or
+ * the Tomcat pool when the pool is one of those, through accessors resolved on the
+ * first fire.
+ *
+ * @see QuartzProperties.Backpressure.DataSourcePool
+ */
+public class DataSourcePoolBackpressure implements TriggerBackpressure {
+
+	private final DataSource dataSource;
+
+	private final DataSourcePoolMetadata metadata;
+
+	private float maxUsage = 0.9f;
+
+	private int maxWaiting = 0;
+
+	private Decision decision = Decision.SKIP;
+
+	private Collection<String> groups = Collections.emptyList();
+
+	private volatile WaitingThreads waitingThreads;
+
+	/**
+	 * Create a new instance.
+	 * @param dataSource the pooled data source
+	 * @param metadata the metadata of the pool, or {@code null} if not available
+	 */
+	public DataSourcePoolBackpressure(DataSource dataSource, DataSourcePoolMetadata metadata) {
+		this.dataSource = dataSource;
+		this.metadata = metadata;
+	}
+
+	/**
+	 * Set the share of active connections, between 0 and 1, from which fires are held
+	 * back.
+	 * @param maxUsage the maximum usage
+	 */
+	public void setMaxUsage(float maxUsage) {
+		this.maxUsage = maxUsage;
+	}
+
+	/**
+	 * Set the number of threads waiting for a connection above which fires are held
+	 * back.
+	 * @param maxWaiting the maximum number of waiting threads
+	 */
+	public void setMaxWaiting(int maxWaiting) {
+		this.maxWaiting = maxWaiting;
+	}
+
+	/**
+	 * Set what to do with fires while the pool is saturated. Defaults to
+	 * {@link Decision#SKIP}: with a JDBC job store, deferring a fire stores a one-shot
+	 * trigger through the saturated pool.
+	 * @param decision {@link Decision#DEFER} or {@link Decision#SKIP}
+	 */
+	public void setDecision(Decision decision) {
+		this.decision = decision;
+	}
+
+	/**
+	 * Set the trigger groups whose fires are held back, all groups when empty.
+	 * @param groups the trigger groups
+	 */
+	public void setGroups(Collection<String> groups) {
+		this.groups = (groups != null) ? groups : Collections.<String>emptyList();
+	}
+
+	@Override
+	public Decision decide(Trigger trigger, JobExecutionContext context) {
+		if (!this.groups.isEmpty() && !this.groups.contains(trigger.getKey().getGroup())) {
+			return Decision.PROCEED;
+		}
+		return isSaturated() ? this.decision : Decision.PROCEED;
+	}
+
+	/**
+	 * Return whether the pool is saturated.
+	 * @return whether fires should be held back
+	 */
+	public boolean isSaturated() {
+		Float usage = (this.metadata != null) ? this.metadata.getUsage() : null;
+		if (usage != null && usage >= 0 && usage >= this.maxUsage) {
+			return true;
+		}
+		Integer waiting = getWaiting();
+		return waiting != null && waiting > this.maxWaiting;
+	}
+
+	/**
+	 * Return the number of threads waiting for a connection, or {@code null} if the
+	 * pool does not tell.
+	 * @return the number of waiting threads
+	 */
+	public Integer getWaiting() {
+		WaitingThreads waitingThreads = this.waitingThreads;
+		if (waitingThreads == null) {
+			waitingThreads = WaitingThreads.of(this.dataSource);
+			this.waitingThreads = waitingThreads;
+		}
+		return waitingThreads.get(this.dataSource);
+	}
+
+	/**
+	 * Reflective access to the number of threads waiting for a connection, resolved once
+	 * per data source.
+	 */
+	private static final class WaitingThreads {
+
+		private static final WaitingThreads UNSUPPORTED = new WaitingThreads(null, null, null);
+
+		private final Method poolMethod;
+
+		private final Field poolField;
+
+		private final Method waitCountMethod;
+
+		private volatile Method threadsAwaitingMethod;
+
+		private WaitingThreads(Method poolMethod, Field poolField, Method waitCountMethod) {
+			this.poolMethod = poolMethod;
+			this.poolField = poolField;
+			this.waitCountMethod = waitCountMethod;
+		}
+
+		static WaitingThreads of(DataSource dataSource) {
+			Class<?> type = dataSource.getClass();
+			// HikariCP 2.4+
+			Method poolMethod = findMethod(type, "getHikariPoolMXBean");
+			if (poolMethod != null) {
+				return new WaitingThreads(poolMethod, null, null);
+			}
+			// HikariCP before 2.4
+			if (type.getName().startsWith("com.zaxxer.hikari.")) {
+				Field poolField = ReflectionUtils.findField(type, "pool");
+				if (poolField != null) {
+					ReflectionUtils.makeAccessible(poolField);
+					return new WaitingThreads(null, poolField, null);
+				}
+			}
+			// Tomcat JDBC pool
+			Method waitCountMethod = findMethod(type, "getWaitCount");
+			return (waitCountMethod != null) ? new WaitingThreads(null, null, waitCountMethod)
+					: UNSUPPORTED;
+		}
+
+		Integer get(DataSource dataSource) {
+			if (this.waitCountMethod != null) {
+				return (Integer) ReflectionUtils.invokeMethod(this.waitCountMethod, dataSource);
+			}
+			Object pool = null;
+			if (this.poolMethod != null) {
+				pool = ReflectionUtils.invokeMethod(this.poolMethod, dataSource);
+			}
+			else if (this.poolField != null) {
+				pool = ReflectionUtils.getField(this.poolField, dataSource);
+			}
+			if (pool == null) {
+				// Not supported, or the pool has not started yet
+				return null;
+			}
+			Method threadsAwaitingMethod = this.threadsAwaitingMethod;
+			if (threadsAwaitingMethod == null) {
+				threadsAwaitingMethod = findMethod(pool.getClass(), "getThreadsAwaitingConnection");
+				if (threadsAwaitingMethod == null) {
+					return null;
+				}
+				this.threadsAwaitingMethod = threadsAwaitingMethod;
+			}
+			return (Integer) ReflectionUtils.invokeMethod(threadsAwaitingMethod, pool);
+		}
+
+		private static Method findMethod(Class<?> type, String name) {
+			Method method = ReflectionUtils.findMethod(type, name);
+			if (method != null) {
+				ReflectionUtils.makeAccessible(method);
+			}
+			return method;
+		}
+
+	}
+
+}
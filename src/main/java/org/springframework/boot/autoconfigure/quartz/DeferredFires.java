@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Date;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+
+/**
+ * Helpers to replay a vetoed fire later through a one-shot trigger for the same job and
+ * with the same trigger job data. The one-shot trigger is stored in a dedicated group
+ * and described with the key of the trigger it replaces.
+ */
+final class DeferredFires {
+
+	/**
+	 * Groups of the one-shot triggers replaying deferred fires.
+	 */
+	private static final String[] GROUPS = { MisfireRecoveryThrottle.GROUP,
+			BackpressureTriggerListener.GROUP };
+
+	private static final String VETOED_KEY = DeferredFires.class.getName() + ".vetoed";
+
+	private DeferredFires() {
+	}
+
+	/**
+	 * Mark the fire of the given context as vetoed, so that other listeners vetoing the
+	 * same fire do not defer it a second time.
+	 * @param context the context of the fire
+	 * @return {@code false} if the fire was already vetoed
+	 */
+	static boolean markVetoed(JobExecutionContext context) {
+		if (isVetoed(context)) {
+			return false;
+		}
+		context.put(VETOED_KEY, Boolean.TRUE);
+		return true;
+	}
+
+	/**
+	 * Return whether the fire of the given context was vetoed by another listener.
+	 * @param context the context of the fire
+	 * @return whether the fire was vetoed
+	 */
+	static boolean isVetoed(JobExecutionContext context) {
+		return Boolean.TRUE.equals(context.get(VETOED_KEY));
+	}
+
+	/**
+	 * Schedule the fire of the given context again.
+	 * @param context the context of the vetoed fire
+	 * @param group the group of the one-shot trigger
+	 * @param fireTime when to fire again
+	 * @param priority the priority of the one-shot trigger
+	 * @return the one-shot trigger
+	 * @throws SchedulerException if the trigger cannot be scheduled
+	 */
+	static Trigger defer(JobExecutionContext context, String group, Date fireTime,
+			int priority) throws SchedulerException {
+		Trigger trigger = context.getTrigger();
+		String originalKey = getOriginalKey(trigger);
+		Trigger deferred = TriggerBuilder.newTrigger()
+				.withIdentity(originalKey + "." + context.getFireInstanceId(), group)
+				.withDescription(originalKey).forJob(trigger.getJobKey())
+				.usingJobData(trigger.getJobDataMap()).startAt(fireTime)
+				.withPriority(priority)
+				.withSchedule(SimpleScheduleBuilder.simpleSchedule()
+						.withMisfireHandlingInstructionFireNow())
+				.build();
+		context.getScheduler().scheduleJob(deferred);
+		return deferred;
+	}
+
+	/**
+	 * Return the key of the trigger a fire originates from, following deferred fires
+	 * back to the original trigger.
+	 * @param trigger the trigger that fired
+	 * @return the original trigger key, as {@code group.name}
+	 */
+	static String getOriginalKey(Trigger trigger) {
+		for (String group : GROUPS) {
+			if (group.equals(trigger.getKey().getGroup()) && trigger.getDescription() != null) {
+				return trigger.getDescription();
+			}
+		}
+		return trigger.getKey().toString();
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Detects the driver delegate of the JDBC job store from the configured platform or, when
+ * none is configured, from the database product name, regardless of whether the schema
+ * is initialized. The product name cached by the {@link QuartzDatabaseInitializer} is
+ * reused when there is one, the metadata of the job store {@link DataSource} is only read
+ * otherwise. Only the platforms whose driver needs a delegate other than the standard one
+ * are detected.
+ */
+class DriverDelegateDetector {
+
+	private static final Log logger = LogFactory.getLog(DriverDelegateDetector.class);
+
+	/**
+	 * Driver delegates by platform, as used in the names of the schema scripts.
+	 */
+	private static final Map<String, String> PLATFORM_DELEGATES;
+
+	/**
+	 * Platforms by database driver, Sybase being detected by its common product name.
+	 */
+	private static final Map<DatabaseDriver, String> DRIVER_PLATFORMS;
+
+	static {
+		Map<String, String> delegates = new HashMap<>();
+		delegates.put("hsqldb", "org.quartz.impl.jdbcjobstore.HSQLDBDelegate");
+		delegates.put("postgres", "org.quartz.impl.jdbcjobstore.PostgreSQLDelegate");
+		delegates.put("sqlServer", "org.quartz.impl.jdbcjobstore.MSSQLDelegate");
+		delegates.put("sybase", "org.quartz.impl.jdbcjobstore.SybaseDelegate");
+		PLATFORM_DELEGATES = Collections.unmodifiableMap(delegates);
+		Map<DatabaseDriver, String> platforms = new EnumMap<>(DatabaseDriver.class);
+		platforms.put(DatabaseDriver.HSQLDB, "hsqldb");
+		platforms.put(DatabaseDriver.POSTGRESQL, "postgres");
+		platforms.put(DatabaseDriver.SQLSERVER, "sqlServer");
+		DRIVER_PLATFORMS = Collections.unmodifiableMap(platforms);
+	}
+
+	private final DataSource dataSource;
+
+	private final String platform;
+
+	private final ObjectProvider<QuartzDatabaseInitializer> databaseInitializer;
+
+	/**
+	 * Create a new {@link DriverDelegateDetector} instance.
+	 * @param dataSource the data source of the job store
+	 * @param platform the configured platform, or {@code null} to detect it
+	 * @param databaseInitializer the schema initializer, whose product name is reused
+	 */
+	DriverDelegateDetector(DataSource dataSource, String platform,
+			ObjectProvider<QuartzDatabaseInitializer> databaseInitializer) {
+		Assert.notNull(dataSource, "DataSource must not be null");
+		Assert.notNull(databaseInitializer, "DatabaseInitializer must not be null");
+		this.dataSource = dataSource;
+		this.platform = platform;
+		this.databaseInitializer = databaseInitializer;
+	}
+
+	/**
+	 * Return the class name of the driver delegate matching the database.
+	 * @return the driver delegate class name, or {@code null} if the standard delegate
+	 * applies or the database cannot be detected
+	 */
+	String getDriverDelegateClass() {
+		String platform = getPlatform();
+		return (platform != null) ? PLATFORM_DELEGATES.get(platform) : null;
+	}
+
+	private String getPlatform() {
+		if (StringUtils.hasText(this.platform)) {
+			return this.platform;
+		}
+		try {
+			String productName = JdbcUtils.commonDatabaseName(getDatabaseProductName());
+			if ("Sybase".equals(productName)) {
+				return "sybase";
+			}
+			return DRIVER_PLATFORMS.get(DatabaseDriver.fromProductName(productName));
+		}
+		catch (SQLException | MetaDataAccessException ex) {
+			logger.debug("Could not detect the database of the job store, using the standard driver delegate", ex);
+			return null;
+		}
+	}
+
+	private String getDatabaseProductName() throws SQLException, MetaDataAccessException {
+		QuartzDatabaseInitializer databaseInitializer = this.databaseInitializer.getIfAvailable();
+		if (databaseInitializer != null) {
+			return databaseInitializer.getDatabaseProductName();
+		}
+		return (String) JdbcUtils.extractDatabaseMetaData(this.dataSource, "getDatabaseProductName");
+	}
+
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.InfrastructureProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Records the time spent by the JDBC job store in the database, per logical operation,
+ * into {@link LatencyHistogram histograms} in microseconds. Statements are timed from
+ * their execution to their close, so that reading the result set, including job data
+ * BLOBs, is accounted for, and are grouped by verb and Quartz table, for instance
+ * {@code select JOB_DETAILS}. Two operations are named specifically:
+ * <ul>
+ * <li>{@value #LOCK_WAIT}: the row lock statements on the {@code LOCKS} table, which
+ * block while another node or thread holds the lock,</li>
+ * <li>{@value #ACQUIRE_TRIGGERS}: the query selecting the next triggers to acquire.</li>
+ * </ul>
+ * The time each connection is held, which spans one job store transaction, is recorded
+ * as {@value #TRANSACTION}.
+ * <p>
+ * Connections bound to a Spring managed transaction of the target data source are
+ * shared with the job store as before and are not timed.
+ */
+public class JdbcJobStoreTimings {
+
+	/**
+	 * Operation of the statements acquiring the row lock of the job store.
+	 */
+	public static final String LOCK_WAIT = "lockWait";
+
+	/**
+	 * Operation of the query selecting the next triggers to acquire.
+	 */
+	public static final String ACQUIRE_TRIGGERS = "acquireTriggers";
+
+	/**
+	 * Operation of the connections of the job store, from their retrieval to their
+	 * close.
+	 */
+	public static final String TRANSACTION = "transaction";
+
+	private static final String[] TABLES = { "SIMPROP_TRIGGERS", "SIMPLE_TRIGGERS",
+			"CRON_TRIGGERS", "BLOB_TRIGGERS", "FIRED_TRIGGERS", "PAUSED_TRIGGER_GRPS",
+			"TRIGGERS", "JOB_DETAILS", "CALENDARS", "SCHEDULER_STATE", "LOCKS" };
+
+	private static final Pattern TABLE = Pattern.compile("\\b(?:FROM|INTO|UPDATE)\\s+([\\w.$\"]+)");
+
+	private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, String> operations = new ConcurrentHashMap<>();
+
+	/**
+	 * Return a data source timing the connections and statements of the given one.
+	 * @param dataSource the data source of the job store
+	 * @return the timed data source
+	 */
+	public DataSource wrap(DataSource dataSource) {
+		return new TimedDataSource(dataSource);
+	}
+
+	/**
+	 * Return the histograms recorded so far, by operation, in microseconds.
+	 * @return the histograms by operation
+	 */
+	public Map<String, LatencyHistogram> getHistograms() {
+		return Collections.unmodifiableMap(this.histograms);
+	}
+
+	void record(String operation, long startNanos) {
+		LatencyHistogram histogram = this.histograms.get(operation);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			LatencyHistogram existing = this.histograms.putIfAbsent(operation, histogram);
+			if (existing != null) {
+				histogram = existing;
+			}
+		}
+		histogram.record((System.nanoTime() - startNanos) / 1000);
+	}
+
+	/**
+	 * Return the operation of the given statement. The job store uses a fixed set of
+	 * statements, so operations are cached by statement.
+	 */
+	String getOperation(String sql) {
+		String operation = this.operations.get(sql);
+		if (operation == null) {
+			operation = classify(sql);
+			this.operations.putIfAbsent(sql, operation);
+		}
+		return operation;
+	}
+
+	static String classify(String sql) {
+		String statement = sql.trim().toUpperCase(Locale.ENGLISH);
+		int end = 0;
+		while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+			end++;
+		}
+		String verb = statement.substring(0, end).toLowerCase(Locale.ENGLISH);
+		Matcher matcher = TABLE.matcher(statement);
+		String table = matcher.find() ? getTable(matcher.group(1)) : null;
+		if (table == null) {
+			return verb;
+		}
+		if ("LOCKS".equals(table) && (statement.contains("FOR UPDATE") || "update".equals(verb))) {
+			return LOCK_WAIT;
+		}
+		if ("TRIGGERS".equals(table) && "select".equals(verb)
+				&& statement.contains("ORDER BY NEXT_FIRE_TIME")) {
+			return ACQUIRE_TRIGGERS;
+		}
+		return verb + " " + table;
+	}
+
+	private static String getTable(String name) {
+		for (String table : TABLES) {
+			if (name.endsWith(table) || name.endsWith(table + "\"")) {
+				return table;
+			}
+		}
+		return null;
+	}
+
+	private static Object proceed(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getTargetException();
+		}
+	}
+
+	/**
+	 * Data source handing out timed connections. As an {@link InfrastructureProxy}, it
+	 * shares the transactional resources of its target.
+	 */
+	private class TimedDataSource extends DelegatingDataSource implements InfrastructureProxy {
+
+		TimedDataSource(DataSource targetDataSource) {
+			super(targetDataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return timed(getTargetDataSource().getConnection());
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return timed(getTargetDataSource().getConnection(username, password));
+		}
+
+		private Connection timed(Connection connection) {
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+		}
+
+		@Override
+		public Object getWrappedObject() {
+			return getTargetDataSource();
+		}
+
+	}
+
+	private class ConnectionHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final long start = System.nanoTime();
+
+		private boolean closed;
+
+		ConnectionHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+			if ("close".equals(name) && !this.closed) {
+				this.closed = true;
+				try {
+					return proceed(this.target, method, args);
+				}
+				finally {
+					record(TRANSACTION, this.start);
+				}
+			}
+			Object result = proceed(this.target, method, args);
+			if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+				String sql = (args != null && args.length > 0 && args[0] instanceof String)
+						? (String) args[0] : null;
+				return Proxy.newProxyInstance(getClass().getClassLoader(),
+						new Class<?>[] { method.getReturnType() }, new StatementHandler((Statement) result, sql));
+			}
+			return result;
+		}
+
+	}
+
+	private class StatementHandler implements InvocationHandler {
+
+		private final Statement target;
+
+		private final String sql;
+
+		private String operation;
+
+		private long start;
+
+		StatementHandler(Statement target, String sql) {
+			this.target = target;
+			this.sql = sql;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if ("equals".equals(name)) {
+				return proxy == args[0];
+			}
+			if ("hashCode".equals(name)) {
+				return System.identityHashCode(proxy);
+			}
+			if (name.startsWith("execute")) {
+				finish();
+				String sql = (args != null && args.length > 0 && args[0] instanceof String)
+						? (String) args[0] : this.sql;
+				if (sql != null) {
+					this.operation = getOperation(sql);
+					this.start = System.nanoTime();
+				}
+			}
+			else if ("close".equals(name)) {
+				try {
+					return proceed(this.target, method, args);
+				}
+				finally {
+					finish();
+				}
+			}
+			return proceed(this.target, method, args);
+		}
+
+		private void finish() {
+			if (this.operation != null) {
+				record(this.operation, this.start);
+				this.operation = null;
+			}
+		}
+
+	}
+
+}
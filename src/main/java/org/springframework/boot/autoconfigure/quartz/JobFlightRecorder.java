@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerListener;
+
+/**
+ * Job and trigger listener recording trigger fires and job executions as JDK Flight
+ * Recorder events, next to the GC and lock events of the same recording. This is the
+ * Java 8 variant, which records nothing and is never registered; the variant in
+ * {@code META-INF/versions/11} of the multi-release jar records the events on Java 11
+ * and later.
+ *
+ * @see QuartzProperties#isFlightRecorder()
+ */
+class JobFlightRecorder implements JobListener, TriggerListener {
+
+	/**
+	 * Return whether events can be recorded on this JVM.
+	 * @return whether the flight recorder is available
+	 */
+	static boolean isSupported() {
+		return false;
+	}
+
+	@Override
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public void triggerFired(Trigger trigger, JobExecutionContext context) {
+	}
+
+	@Override
+	public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+		return false;
+	}
+
+	@Override
+	public void triggerMisfired(Trigger trigger) {
+	}
+
+	@Override
+	public void triggerComplete(Trigger trigger, JobExecutionContext context,
+			CompletedExecutionInstruction triggerInstructionCode) {
+	}
+
+	@Override
+	public void jobToBeExecuted(JobExecutionContext context) {
+	}
+
+	@Override
+	public void jobExecutionVetoed(JobExecutionContext context) {
+	}
+
+	@Override
+	public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+	}
+
+}
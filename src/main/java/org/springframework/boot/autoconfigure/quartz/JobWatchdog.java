@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.quartz.InterruptableJob;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.UnableToInterruptJobException;
+import org.quartz.listeners.JobListenerSupport;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * Job listener that watches running executions and reports those running longer than
+ * the threshold of their job group, with the stack of their worker thread, so that
+ * hanging jobs are noticed before they exhaust the thread pool. Each execution is
+ * reported once. Executions of {@link InterruptableJob interruptable jobs} running
+ * longer than the interrupt limit, when set, are also interrupted.
+ * <p>
+ * Executions are checked by a daemon thread at a fixed interval, the worker threads
+ * themselves are never blocked. Override {@link #slowExecution} to publish slow
+ * executions somewhere else than the log.
+ *
+ * @see QuartzProperties.Watchdog
+ */
+public class JobWatchdog extends JobListenerSupport implements DisposableBean {
+
+	private final long thresholdMillis;
+
+	private final Map<String, Long> groupThresholdMillis;
+
+	private final long interruptAfterMillis;
+
+	private final ConcurrentMap<String, Execution> executions = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService executor;
+
+	/**
+	 * Create a new watchdog.
+	 * @param thresholdMillis the time after which executions are reported, in
+	 * milliseconds
+	 * @param groupThresholdMillis the threshold per job group, overriding the default
+	 * one
+	 * @param interruptAfterMillis the time after which interruptable jobs are
+	 * interrupted, in milliseconds, or zero to never interrupt them
+	 * @param checkIntervalMillis the interval at which executions are checked, in
+	 * milliseconds
+	 */
+	public JobWatchdog(long thresholdMillis, Map<String, Long> groupThresholdMillis,
+			long interruptAfterMillis, long checkIntervalMillis) {
+		Assert.isTrue(checkIntervalMillis > 0, "CheckIntervalMillis must be positive");
+		this.thresholdMillis = thresholdMillis;
+		this.groupThresholdMillis = (groupThresholdMillis != null) ? groupThresholdMillis
+				: Collections.<String, Long>emptyMap();
+		this.interruptAfterMillis = interruptAfterMillis;
+		this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "QuartzJobWatchdog");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.executor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				check();
+			}
+		}, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public void jobToBeExecuted(JobExecutionContext context) {
+		Long threshold = this.groupThresholdMillis.get(context.getJobDetail().getKey().getGroup());
+		this.executions.put(context.getFireInstanceId(), new Execution(context,
+				Thread.currentThread(), (threshold != null) ? threshold : this.thresholdMillis));
+	}
+
+	@Override
+	public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+		Execution execution = this.executions.remove(context.getFireInstanceId());
+		if (execution != null && execution.reported) {
+			getLog().info("Job " + context.getJobDetail().getKey() + " completed after "
+					+ (System.currentTimeMillis() - execution.startTime) + "ms");
+		}
+	}
+
+	private void check() {
+		long now = System.currentTimeMillis();
+		for (Execution execution : this.executions.values()) {
+			long runtime = now - execution.startTime;
+			if (!execution.reported && runtime >= execution.thresholdMillis) {
+				execution.reported = true;
+				try {
+					slowExecution(execution.context, runtime, execution.thread.getStackTrace());
+				}
+				catch (RuntimeException ex) {
+					// A failure escaping the scheduled task would cancel all later checks
+					getLog().warn("Could not report slow execution of job "
+							+ execution.context.getJobDetail().getKey(), ex);
+				}
+			}
+			if (!execution.interrupted && this.interruptAfterMillis > 0
+					&& runtime >= this.interruptAfterMillis) {
+				execution.interrupted = true;
+				interrupt(execution.context, runtime);
+			}
+		}
+	}
+
+	/**
+	 * Called once for each execution running longer than its threshold. Logs a warning
+	 * with the stack of the worker thread by default. Exceptions thrown are logged and do
+	 * not stop the watchdog.
+	 * @param context the context of the execution
+	 * @param runtime the time the execution has been running for, in milliseconds
+	 * @param stackTrace the stack of the worker thread running the execution
+	 */
+	protected void slowExecution(JobExecutionContext context, long runtime,
+			StackTraceElement[] stackTrace) {
+		StringBuilder message = new StringBuilder("Job ").append(context.getJobDetail().getKey())
+				.append(" fired by trigger ").append(context.getTrigger().getKey())
+				.append(" has been running for ").append(runtime).append("ms");
+		for (StackTraceElement element : stackTrace) {
+			message.append(System.lineSeparator()).append("\tat ").append(element);
+		}
+		getLog().warn(message.toString());
+	}
+
+	private void interrupt(JobExecutionContext context, long runtime) {
+		Job job = context.getJobInstance();
+		if (!(job instanceof InterruptableJob)) {
+			getLog().warn("Job " + context.getJobDetail().getKey() + " has been running for "
+					+ runtime + "ms but is not interruptable");
+			return;
+		}
+		getLog().warn("Interrupting job " + context.getJobDetail().getKey()
+				+ " after " + runtime + "ms");
+		try {
+			((InterruptableJob) job).interrupt();
+		}
+		catch (UnableToInterruptJobException | RuntimeException ex) {
+			getLog().warn("Could not interrupt job " + context.getJobDetail().getKey(), ex);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+	}
+
+	private static final class Execution {
+
+		private final JobExecutionContext context;
+
+		private final Thread thread;
+
+		private final long thresholdMillis;
+
+		private final long startTime = System.currentTimeMillis();
+
+		private volatile boolean reported;
+
+		private volatile boolean interrupted;
+
+		Execution(JobExecutionContext context, Thread thread, long thresholdMillis) {
+			this.context = context;
+			this.thread = thread;
+			this.thresholdMillis = thresholdMillis;
+		}
+
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of non-negative durations, with buckets growing exponentially:
+ * each power of two is split into four linear buckets, so that percentiles are reported
+ * with an error below 25% whatever the magnitude of the values. Recording a value does
+ * not allocate.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 2;
+
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKETS = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong count = new AtomicLong();
+
+	private final AtomicLong sum = new AtomicLong();
+
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a value, negative values are recorded as zero.
+	 * @param value the value
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		this.buckets.incrementAndGet(bucketOf(value));
+		this.count.incrementAndGet();
+		this.sum.addAndGet(value);
+		long current = this.max.get();
+		while (value > current && !this.max.compareAndSet(current, value)) {
+			current = this.max.get();
+		}
+	}
+
+	/**
+	 * Return a copy of the recorded values. Values recorded concurrently may be partly
+	 * included.
+	 * @return the snapshot
+	 */
+	public Snapshot getSnapshot() {
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = this.buckets.get(i);
+		}
+		return new Snapshot(counts, this.count.get(), this.sum.get(), this.max.get());
+	}
+
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Return the highest value of the given bucket.
+	 */
+	static long upperBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+		long lowerBound = (long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1))) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+
+	/**
+	 * Immutable copy of the values of a {@link LatencyHistogram}.
+	 */
+	public static final class Snapshot {
+
+		private final long[] counts;
+
+		private final long count;
+
+		private final long sum;
+
+		private final long max;
+
+		private Snapshot(long[] counts, long count, long sum, long max) {
+			this.counts = counts;
+			this.count = count;
+			this.sum = sum;
+			this.max = max;
+		}
+
+		public long getCount() {
+			return this.count;
+		}
+
+		public double getMean() {
+			return (this.count > 0) ? (double) this.sum / this.count : 0;
+		}
+
+		public long getMax() {
+			return this.max;
+		}
+
+		/**
+		 * Return the value below which the given share of the recorded values fall,
+		 * rounded up to the upper bound of its bucket and capped at the maximum.
+		 * @param percentile the percentile, between 0 and 1
+		 * @return the value, or {@code 0} if no value was recorded
+		 */
+		public long getPercentile(double percentile) {
+			long total = 0;
+			for (long bucketCount : this.counts) {
+				total += bucketCount;
+			}
+			if (total == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(percentile * total));
+			long seen = 0;
+			for (int i = 0; i < this.counts.length; i++) {
+				seen += this.counts[i];
+				if (seen >= rank) {
+					return Math.min(upperBoundOf(i), this.max);
+				}
+			}
+			return this.max;
+		}
+
+	}
+
+}
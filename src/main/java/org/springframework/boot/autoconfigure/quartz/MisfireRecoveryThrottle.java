@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.listeners.TriggerListenerSupport;
+
+import org.springframework.util.Assert;
+
+/**
+ * Trigger listener that limits how fast misfired triggers are recovered, for instance
+ * after the scheduler or its database was down. Recovered fires beyond
+ * {@code maxFiresPerSecond} are vetoed and replayed later by one-shot triggers in the
+ * {@value #GROUP} group, spaced at the configured rate. Trigger groups with a higher
+ * priority are replayed first. On-time fires are not limited.
+ * <p>
+ * Triggers using {@link Trigger#MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY} are not
+ * reported as misfired by Quartz and are therefore not limited either.
+ *
+ * @see QuartzProperties.MisfireRecovery
+ */
+public class MisfireRecoveryThrottle extends TriggerListenerSupport {
+
+	/**
+	 * Group of the one-shot triggers replaying deferred fires.
+	 */
+	public static final String GROUP = "MISFIRE_RECOVERY";
+
+	/**
+	 * Maximum time between the misfire notification and the scheduled time of the fire
+	 * that recovers it.
+	 */
+	private static final long RECOVERY_MATCH_MILLIS = 1000;
+
+	private final double maxFiresPerSecond;
+
+	private final Map<String, Integer> groupPriorities;
+
+	private final ConcurrentMap<TriggerKey, Long> misfired = new ConcurrentHashMap<>();
+
+	private final TreeMap<Integer, Integer> pendingByPriority = new TreeMap<>(
+			Comparator.reverseOrder());
+
+	private double tokens;
+
+	private long lastRefill = System.currentTimeMillis();
+
+	/**
+	 * Create a new throttle.
+	 * @param maxFiresPerSecond the maximum number of recovered fires per second
+	 * @param groupPriorities the priority of recovered fires per trigger group, higher
+	 * first; triggers of other groups use their own priority
+	 */
+	public MisfireRecoveryThrottle(double maxFiresPerSecond,
+			Map<String, Integer> groupPriorities) {
+		Assert.isTrue(maxFiresPerSecond > 0, "MaxFiresPerSecond must be positive");
+		this.maxFiresPerSecond = maxFiresPerSecond;
+		this.groupPriorities = (groupPriorities != null) ? groupPriorities
+				: Collections.<String, Integer>emptyMap();
+		this.tokens = getCapacity();
+	}
+
+	@Override
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public void triggerMisfired(Trigger trigger) {
+		if (!GROUP.equals(trigger.getKey().getGroup())) {
+			this.misfired.put(trigger.getKey(), System.currentTimeMillis());
+		}
+	}
+
+	@Override
+	public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+		int priority;
+		if (GROUP.equals(trigger.getKey().getGroup())) {
+			priority = trigger.getPriority();
+			release(priority);
+		}
+		else {
+			Long misfiredAt = this.misfired.remove(trigger.getKey());
+			Date scheduledFireTime = context.getScheduledFireTime();
+			if (misfiredAt == null || scheduledFireTime == null
+					|| scheduledFireTime.getTime() - misfiredAt > RECOVERY_MATCH_MILLIS) {
+				return false;
+			}
+			Integer groupPriority = this.groupPriorities.get(trigger.getKey().getGroup());
+			priority = (groupPriority != null) ? groupPriority : trigger.getPriority();
+		}
+		if (DeferredFires.isVetoed(context)) {
+			return true;
+		}
+		if (tryAcquire()) {
+			return false;
+		}
+		Date fireTime = new Date(System.currentTimeMillis() + reserve(priority));
+		try {
+			DeferredFires.defer(context, GROUP, fireTime, priority);
+			DeferredFires.markVetoed(context);
+			if (getLog().isDebugEnabled()) {
+				getLog().debug("Deferred recovery of trigger " + trigger.getKey() + " to "
+						+ fireTime);
+			}
+			return true;
+		}
+		catch (SchedulerException ex) {
+			release(priority);
+			getLog().warn("Could not defer recovery of trigger " + trigger.getKey()
+					+ ", firing it now", ex);
+			return false;
+		}
+	}
+
+	private double getCapacity() {
+		return Math.max(1, this.maxFiresPerSecond);
+	}
+
+	private synchronized boolean tryAcquire() {
+		long now = System.currentTimeMillis();
+		this.tokens = Math.min(getCapacity(),
+				this.tokens + (now - this.lastRefill) * this.maxFiresPerSecond / 1000);
+		this.lastRefill = now;
+		if (this.tokens >= 1) {
+			this.tokens--;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Reserve a replay slot behind the pending fires of the same or a higher priority.
+	 * @return the delay of the slot in milliseconds
+	 */
+	private synchronized long reserve(int priority) {
+		int ahead = 0;
+		for (Integer count : this.pendingByPriority.headMap(priority, true).values()) {
+			ahead += count;
+		}
+		Integer count = this.pendingByPriority.get(priority);
+		this.pendingByPriority.put(priority, (count != null) ? count + 1 : 1);
+		return (long) ((ahead + 1) * 1000 / this.maxFiresPerSecond);
+	}
+
+	private synchronized void release(int priority) {
+		Integer count = this.pendingByPriority.get(priority);
+		if (count != null && count > 1) {
+			this.pendingByPriority.put(priority, count - 1);
+		}
+		else {
+			this.pendingByPriority.remove(priority);
+		}
+	}
+
+}
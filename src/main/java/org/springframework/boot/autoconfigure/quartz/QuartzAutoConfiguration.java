@@ -16,13 +16,21 @@
 
 package org.springframework.boot.autoconfigure.quartz;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
 import javax.sql.DataSource;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.quartz.*;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.simpl.RAMJobStore;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +40,9 @@ import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.*;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadata;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.boot.autoconfigure.jdbc.metadata.DataSourcePoolMetadataProviders;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
 import org.springframework.boot.autoconfigure.sql.init.OnDatabaseInitializationCondition;
@@ -42,7 +53,6 @@ import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
-import org.springframework.scheduling.quartz.SpringBeanJobFactory;
 import org.springframework.transaction.PlatformTransactionManager;
 
 /**
@@ -59,6 +69,8 @@ import org.springframework.transaction.PlatformTransactionManager;
 @EnableConfigurationProperties(QuartzProperties.class)
 public class QuartzAutoConfiguration {
 
+	private static final Log logger = LogFactory.getLog(QuartzAutoConfiguration.class);
+
 	@Bean
 	@ConditionalOnMissingBean
 	public SchedulerFactoryBean quartzScheduler(QuartzProperties properties,
@@ -66,9 +78,18 @@ public class QuartzAutoConfiguration {
 			@Autowired(required = false) List<JobDetail> jobDetails,
 			@Autowired(required = false) Map<String, Calendar> calendars,
 			@Autowired(required = false) List<Trigger> triggers,
+			@Autowired(required = false) List<JobListener> jobListeners,
+			@Autowired(required = false) List<TriggerListener> triggerListeners,
+			@Autowired(required = false) List<SchedulerListener> schedulerListeners,
+			@Autowired(required = false) List<TriggerBackpressure> backpressures,
+			@Autowired(required = false) CoalescedJobExecutor coalescedJobExecutor,
+			ObjectProvider<DriverDelegateDetector> driverDelegateDetector,
 			ApplicationContext applicationContext) {
 		SchedulerFactoryBean schedulerFactoryBean = new SchedulerFactoryBean();
-		SpringBeanJobFactory jobFactory = new AutowireCapableBeanJobFactory(applicationContext.getAutowireCapableBeanFactory());
+		AutowireCapableBeanJobFactory jobFactory = new AutowireCapableBeanJobFactory(applicationContext.getAutowireCapableBeanFactory());
+		jobFactory.setBatchJobCoordinator(new BatchJobCoordinator(
+				properties.getBatch().getWindow().toMillis(), properties.getBatch().getMaxSize()));
+		jobFactory.setCoalescedJobExecutor(coalescedJobExecutor);
 		schedulerFactoryBean.setJobFactory(jobFactory);
 		if (properties.getSchedulerName() != null) {
 			schedulerFactoryBean.setSchedulerName(properties.getSchedulerName());
@@ -77,8 +98,32 @@ public class QuartzAutoConfiguration {
 		schedulerFactoryBean.setStartupDelay((int) properties.getStartupDelay().getSeconds());
 		schedulerFactoryBean.setWaitForJobsToCompleteOnShutdown(properties.isWaitForJobsToCompleteOnShutdown());
 		schedulerFactoryBean.setOverwriteExistingJobs(properties.isOverwriteExistingJobs());
-		if (!properties.getProperties().isEmpty()) {
-			schedulerFactoryBean.setQuartzProperties(asProperties(properties.getProperties()));
+		Properties quartzProperties = asProperties(properties.getProperties());
+		if (properties.getJobStoreType() == JobStoreType.MEMORY) {
+			applySnapshotProperties(properties.getSnapshot(), quartzProperties);
+		}
+		else {
+			applyDriverDelegate(driverDelegateDetector.getIfAvailable(), quartzProperties);
+		}
+		if (!quartzProperties.isEmpty()) {
+			schedulerFactoryBean.setQuartzProperties(quartzProperties);
+		}
+		if (properties.getCoalescing().isEnabled() && triggers != null && !triggers.isEmpty()) {
+			if (isVolatileJobStore(properties, quartzProperties)) {
+				TriggerCoalescer coalescer = new TriggerCoalescer(jobDetails, triggers,
+						properties.getCoalescing().getMinGroupSize());
+				jobDetails = coalescer.getJobDetails();
+				triggers = coalescer.getTriggers();
+			}
+			else {
+				logger.warn("Trigger coalescing requires the in-memory job store without snapshot, "
+						+ "triggers are not coalesced");
+			}
+		}
+		QuartzProperties.Jitter jitter = properties.getJitter();
+		if (jitter.getWindow() != null && triggers != null && !triggers.isEmpty()) {
+			triggers = new TriggerJitter(jitter.getWindow().toMillis(), jitter.isEnabled(),
+					jitter.getGroups()).apply(triggers);
 		}
 		if (jobDetails != null && !jobDetails.isEmpty()) {
 			schedulerFactoryBean.setJobDetails(jobDetails.toArray(new JobDetail[0]));
@@ -87,7 +132,32 @@ public class QuartzAutoConfiguration {
 			schedulerFactoryBean.setCalendars(calendars);
 		}
 		if (triggers != null && !triggers.isEmpty()) {
-			schedulerFactoryBean.setTriggers(triggers.toArray(new Trigger[0]));
+			schedulerFactoryBean.setTriggers(properties.isShareCronExpressions()
+					? shareCronExpressions(triggers) : triggers.toArray(new Trigger[0]));
+		}
+		if (properties.isFlightRecorder() && JobFlightRecorder.isSupported()) {
+			JobFlightRecorder flightRecorder = new JobFlightRecorder();
+			jobListeners = append(jobListeners, flightRecorder);
+			triggerListeners = append(triggerListeners, flightRecorder);
+		}
+		if (jobListeners != null && !jobListeners.isEmpty()) {
+			schedulerFactoryBean.setGlobalJobListeners(jobListeners.toArray(new JobListener[0]));
+		}
+		if (backpressures != null && !backpressures.isEmpty()) {
+			AnnotationAwareOrderComparator.sort(backpressures);
+			List<TriggerListener> listeners = new ArrayList<>();
+			listeners.add(new BackpressureTriggerListener(backpressures,
+					properties.getBackpressure().getDeferDelay().toMillis()));
+			if (triggerListeners != null) {
+				listeners.addAll(triggerListeners);
+			}
+			triggerListeners = listeners;
+		}
+		if (triggerListeners != null && !triggerListeners.isEmpty()) {
+			schedulerFactoryBean.setGlobalTriggerListeners(triggerListeners.toArray(new TriggerListener[0]));
+		}
+		if (schedulerListeners != null && !schedulerListeners.isEmpty()) {
+			schedulerFactoryBean.setSchedulerListeners(schedulerListeners.toArray(new SchedulerListener[0]));
 		}
 		if (customizers != null) {
 			AnnotationAwareOrderComparator.sort(customizers);
@@ -98,12 +168,100 @@ public class QuartzAutoConfiguration {
 		return schedulerFactoryBean;
 	}
 
+	@Bean
+	@ConditionalOnProperty(prefix = "spring.quartz.coalescing", name = "enabled", havingValue = "true")
+	CoalescedJobExecutor quartzCoalescedJobExecutor(QuartzProperties properties) {
+		return new CoalescedJobExecutor(properties.getCoalescing().getMaxConcurrency());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.quartz.misfire-recovery", name = "max-fires-per-second")
+	public MisfireRecoveryThrottle misfireRecoveryThrottle(QuartzProperties properties) {
+		QuartzProperties.MisfireRecovery misfireRecovery = properties.getMisfireRecovery();
+		return new MisfireRecoveryThrottle(misfireRecovery.getMaxFiresPerSecond(),
+				misfireRecovery.getGroupPriorities());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.quartz.watchdog", name = "enabled", havingValue = "true")
+	public JobWatchdog jobWatchdog(QuartzProperties properties) {
+		QuartzProperties.Watchdog watchdog = properties.getWatchdog();
+		Map<String, Long> groupThresholds = new HashMap<>();
+		for (Map.Entry<String, Duration> entry : watchdog.getGroupThresholds().entrySet()) {
+			groupThresholds.put(entry.getKey(), entry.getValue().toMillis());
+		}
+		long interruptAfter = (watchdog.getInterruptAfter() != null)
+				? watchdog.getInterruptAfter().toMillis() : 0;
+		return new JobWatchdog(watchdog.getThreshold().toMillis(), groupThresholds,
+				interruptAfter, watchdog.getCheckInterval().toMillis());
+	}
+
+	private static <T> List<T> append(List<T> list, T element) {
+		List<T> result = (list != null) ? new ArrayList<>(list) : new ArrayList<>();
+		result.add(element);
+		return result;
+	}
+
 	private Properties asProperties(Map<String, String> source) {
 		Properties properties = new Properties();
 		properties.putAll(source);
 		return properties;
 	}
 
+	private Trigger[] shareCronExpressions(List<Trigger> triggers) {
+		CronExpressionCache cache = CronExpressionCache.getSharedInstance();
+		Trigger[] result = new Trigger[triggers.size()];
+		for (int i = 0; i < result.length; i++) {
+			Trigger trigger = triggers.get(i);
+			if (trigger instanceof CronTrigger) {
+				trigger = cache.share((CronTrigger) trigger);
+			}
+			result[i] = trigger;
+		}
+		return result;
+	}
+
+	/**
+	 * Whether the job store starts empty with every scheduler, so that triggers replaced
+	 * by coalescing cannot be left over from a previous run.
+	 */
+	private boolean isVolatileJobStore(QuartzProperties properties, Properties quartzProperties) {
+		String jobStoreClass = quartzProperties.getProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS);
+		return properties.getJobStoreType() == JobStoreType.MEMORY
+				&& (jobStoreClass == null || jobStoreClass.equals(RAMJobStore.class.getName()));
+	}
+
+	/**
+	 * Set the driver delegate matching the database of the job store, unless one is
+	 * configured.
+	 */
+	private void applyDriverDelegate(DriverDelegateDetector detector, Properties quartzProperties) {
+		String key = StdSchedulerFactory.PROP_JOB_STORE_PREFIX + ".driverDelegateClass";
+		if (detector == null || quartzProperties.containsKey(key)) {
+			return;
+		}
+		String delegate = detector.getDriverDelegateClass();
+		if (delegate != null) {
+			quartzProperties.setProperty(key, delegate);
+		}
+	}
+
+	private void applySnapshotProperties(QuartzProperties.Snapshot snapshot, Properties quartzProperties) {
+		if (snapshot.getFile() == null) {
+			return;
+		}
+		String jobStoreClass = quartzProperties.getProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS);
+		if (jobStoreClass != null && !jobStoreClass.equals(SnapshotRAMJobStore.class.getName())) {
+			return;
+		}
+		String prefix = StdSchedulerFactory.PROP_JOB_STORE_PREFIX + ".";
+		quartzProperties.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, SnapshotRAMJobStore.class.getName());
+		quartzProperties.setProperty(prefix + "snapshotFile", snapshot.getFile());
+		quartzProperties.setProperty(prefix + "snapshotInterval", String.valueOf(snapshot.getInterval().toMillis()));
+	}
+
 	@Configuration
 	@Scope(proxyMode = ScopedProxyMode.NO)
 	@AutoConfigureBefore(QuartzAutoConfiguration.class)
@@ -117,11 +275,16 @@ public class QuartzAutoConfiguration {
 				QuartzProperties properties, final DataSource dataSource,
 				@QuartzDataSource final ObjectProvider<DataSource> quartzDataSource,
 				final ObjectProvider<PlatformTransactionManager> transactionManager,
-				@QuartzTransactionManager final ObjectProvider<PlatformTransactionManager> quartzTransactionManager) {
+				@QuartzTransactionManager final ObjectProvider<PlatformTransactionManager> quartzTransactionManager,
+				final ObjectProvider<JdbcJobStoreTimings> jdbcJobStoreTimings) {
 			return new SchedulerFactoryBeanCustomizer() {
 				@Override
 				public void customize(SchedulerFactoryBean schedulerFactoryBean) {
 					DataSource dataSourceToUse = getDataSource(dataSource, quartzDataSource);
+					JdbcJobStoreTimings timings = jdbcJobStoreTimings.getIfAvailable();
+					if (timings != null) {
+						dataSourceToUse = timings.wrap(dataSourceToUse);
+					}
 					schedulerFactoryBean.setDataSource(dataSourceToUse);
 					PlatformTransactionManager txManager = getTransactionManager(transactionManager, quartzTransactionManager);
 					if (txManager != null) {
@@ -144,6 +307,41 @@ public class QuartzAutoConfiguration {
 					: transactionManager.getIfUnique();
 		}
 
+		@Bean
+		@ConditionalOnMissingBean
+		@ConditionalOnProperty(prefix = "spring.quartz.jdbc", name = "record-timings", havingValue = "true")
+		public JdbcJobStoreTimings jdbcJobStoreTimings() {
+			return new JdbcJobStoreTimings();
+		}
+
+		@Bean
+		@ConditionalOnProperty(prefix = "spring.quartz.backpressure.data-source-pool", name = "enabled", havingValue = "true")
+		public DataSourcePoolBackpressure dataSourcePoolBackpressure(
+				QuartzProperties properties, DataSource dataSource,
+				@QuartzDataSource ObjectProvider<DataSource> quartzDataSource,
+				@Autowired(required = false) Collection<DataSourcePoolMetadataProvider> metadataProviders) {
+			DataSource dataSourceToUse = getDataSource(dataSource, quartzDataSource);
+			DataSourcePoolMetadata metadata = (metadataProviders != null)
+					? new DataSourcePoolMetadataProviders(metadataProviders).getDataSourcePoolMetadata(dataSourceToUse)
+					: null;
+			QuartzProperties.Backpressure.DataSourcePool pool = properties.getBackpressure().getDataSourcePool();
+			DataSourcePoolBackpressure backpressure = new DataSourcePoolBackpressure(dataSourceToUse, metadata);
+			backpressure.setMaxUsage(pool.getMaxUsage());
+			backpressure.setMaxWaiting(pool.getMaxWaiting());
+			backpressure.setDecision(pool.getDecision());
+			backpressure.setGroups(pool.getGroups());
+			return backpressure;
+		}
+
+		@Bean
+		@ConditionalOnProperty(prefix = "spring.quartz.jdbc", name = "detect-driver-delegate", matchIfMissing = true)
+		DriverDelegateDetector quartzDriverDelegateDetector(QuartzProperties properties,
+				DataSource dataSource, @QuartzDataSource ObjectProvider<DataSource> quartzDataSource,
+				ObjectProvider<QuartzDatabaseInitializer> databaseInitializer) {
+			return new DriverDelegateDetector(getDataSource(dataSource, quartzDataSource),
+					properties.getJdbc().getPlatform(), databaseInitializer);
+		}
+
 		@Bean
 		@ConditionalOnMissingBean(QuartzDatabaseInitializer.class)
 		@Conditional(OnQuartzDatasourceInitializationCondition.class)
@@ -21,11 +21,13 @@ import javax.sql.DataSource;
 import org.springframework.boot.autoconfigure.AbstractDatabaseInitializerEnhanced;
 import org.springframework.jdbc.datasource.init.ResourceDatabasePopulatorEnhanced;
 import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -58,6 +60,11 @@ public class QuartzDatabaseInitializer extends AbstractDatabaseInitializerEnhanc
 		return mode == DatabaseInitializationMode.ALWAYS || isEmbeddedDatabase();
 	}
 
+	@Override
+	protected boolean isSkipExistingSchema() {
+		return this.properties.getJdbc().isSkipExistingSchema();
+	}
+
 	@Override
 	protected String getSchemaLocation() {
 		return this.properties.getJdbc().getSchema();
@@ -69,6 +76,19 @@ public class QuartzDatabaseInitializer extends AbstractDatabaseInitializerEnhanc
 		if (!ObjectUtils.isEmpty(commentPrefixes)) {
 			populator.setCommentPrefixes(commentPrefixes.toArray(new String[0]));
 		}
+		populator.setBatchSize(this.properties.getJdbc().getBatchSize());
+		populator.setParallelism(this.properties.getJdbc().getParallelism());
+		populator.setSlowestStatementsLogged(this.properties.getJdbc().getLogSlowestStatements());
+	}
+
+	@Override
+	protected List<String> getSchemaStatements(Resource schema) {
+		QuartzProperties.Jdbc jdbc = this.properties.getJdbc();
+		if (!QuartzProperties.Jdbc.DEFAULT_SCHEMA_LOCATION.equals(jdbc.getSchema())
+				|| !Arrays.asList(SchemaStatementIndex.COMMENT_PREFIXES).equals(jdbc.getCommentPrefix())) {
+			return null;
+		}
+		return SchemaStatementIndex.load(getPlatform(), schema);
 	}
 
 	@Override
@@ -73,6 +73,18 @@ public class QuartzProperties {
 	 */
 	private boolean overwriteExistingJobs = false;
 
+	/**
+	 * Whether cron triggers with the same expression and time zone should share a
+	 * single parsed cron expression.
+	 */
+	private boolean shareCronExpressions = true;
+
+	/**
+	 * Whether trigger fires and job executions should be recorded as JDK Flight Recorder
+	 * events. Only has an effect on Java 11 and later.
+	 */
+	private boolean flightRecorder = true;
+
 	/**
 	 * Additional Quartz Scheduler properties.
 	 */
@@ -80,6 +92,20 @@ public class QuartzProperties {
 
 	private final Jdbc jdbc = new Jdbc();
 
+	private final Snapshot snapshot = new Snapshot();
+
+	private final Coalescing coalescing = new Coalescing();
+
+	private final Batch batch = new Batch();
+
+	private final MisfireRecovery misfireRecovery = new MisfireRecovery();
+
+	private final Jitter jitter = new Jitter();
+
+	private final Backpressure backpressure = new Backpressure();
+
+	private final Watchdog watchdog = new Watchdog();
+
 	public JobStoreType getJobStoreType() {
 		return this.jobStoreType;
 	}
@@ -128,6 +154,22 @@ public class QuartzProperties {
 		this.overwriteExistingJobs = overwriteExistingJobs;
 	}
 
+	public boolean isShareCronExpressions() {
+		return this.shareCronExpressions;
+	}
+
+	public void setShareCronExpressions(boolean shareCronExpressions) {
+		this.shareCronExpressions = shareCronExpressions;
+	}
+
+	public boolean isFlightRecorder() {
+		return this.flightRecorder;
+	}
+
+	public void setFlightRecorder(boolean flightRecorder) {
+		this.flightRecorder = flightRecorder;
+	}
+
 	public Map<String, String> getProperties() {
 		return this.properties;
 	}
@@ -136,9 +178,37 @@ public class QuartzProperties {
 		return this.jdbc;
 	}
 
+	public Snapshot getSnapshot() {
+		return this.snapshot;
+	}
+
+	public Coalescing getCoalescing() {
+		return this.coalescing;
+	}
+
+	public Batch getBatch() {
+		return this.batch;
+	}
+
+	public MisfireRecovery getMisfireRecovery() {
+		return this.misfireRecovery;
+	}
+
+	public Jitter getJitter() {
+		return this.jitter;
+	}
+
+	public Backpressure getBackpressure() {
+		return this.backpressure;
+	}
+
+	public Watchdog getWatchdog() {
+		return this.watchdog;
+	}
+
 	public static class Jdbc {
 
-		private static final String DEFAULT_SCHEMA_LOCATION = "classpath:org/quartz/impl/"
+		static final String DEFAULT_SCHEMA_LOCATION = "classpath:org/quartz/impl/"
 				+ "jdbcjobstore/tables_@@platform@@.sql";
 
 		/**
@@ -163,6 +233,43 @@ public class QuartzProperties {
 		 */
 		private List<String> commentPrefix = new ArrayList<String>(Arrays.asList("#", "--"));
 
+		/**
+		 * Maximum number of schema initialization statements sent to the database in a
+		 * single JDBC batch. Statements are executed one by one when 1 or when the driver
+		 * does not support batch updates.
+		 */
+		private int batchSize = 1;
+
+		/**
+		 * Maximum number of connections executing the index creations of the schema
+		 * script concurrently, one table per connection. Other statements are always
+		 * executed in script order.
+		 */
+		private int parallelism = 1;
+
+		/**
+		 * Number of slowest schema initialization statements logged, with their
+		 * execution time, update count and failure. None are logged when 0.
+		 */
+		private int logSlowestStatements;
+
+		/**
+		 * Whether to skip schema initialization when all the tables created by the schema
+		 * script already exist.
+		 */
+		private boolean skipExistingSchema;
+
+		/**
+		 * Whether the statements and lock waits of the JDBC job store should be timed.
+		 */
+		private boolean recordTimings;
+
+		/**
+		 * Whether to detect the driver delegate of the JDBC job store from the configured
+		 * platform or the database, when no driverDelegateClass property is set.
+		 */
+		private boolean detectDriverDelegate = true;
+
 		public String getSchema() {
 			return this.schema;
 		}
@@ -195,6 +302,398 @@ public class QuartzProperties {
 			this.commentPrefix = commentPrefix;
 		}
 
+		public int getBatchSize() {
+			return this.batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public int getParallelism() {
+			return this.parallelism;
+		}
+
+		public void setParallelism(int parallelism) {
+			this.parallelism = parallelism;
+		}
+
+		public int getLogSlowestStatements() {
+			return this.logSlowestStatements;
+		}
+
+		public void setLogSlowestStatements(int logSlowestStatements) {
+			this.logSlowestStatements = logSlowestStatements;
+		}
+
+		public boolean isSkipExistingSchema() {
+			return this.skipExistingSchema;
+		}
+
+		public void setSkipExistingSchema(boolean skipExistingSchema) {
+			this.skipExistingSchema = skipExistingSchema;
+		}
+
+		public boolean isRecordTimings() {
+			return this.recordTimings;
+		}
+
+		public void setRecordTimings(boolean recordTimings) {
+			this.recordTimings = recordTimings;
+		}
+
+		public boolean isDetectDriverDelegate() {
+			return this.detectDriverDelegate;
+		}
+
+		public void setDetectDriverDelegate(boolean detectDriverDelegate) {
+			this.detectDriverDelegate = detectDriverDelegate;
+		}
+
+	}
+
+	public static class Snapshot {
+
+		/**
+		 * File the in-memory job store is snapshotted to and restored from. Only used
+		 * with the memory job store; snapshots are disabled when not set.
+		 */
+		private String file;
+
+		/**
+		 * Interval at which snapshots are written while the scheduler is running, in
+		 * addition to the snapshot written on shutdown. Zero only writes on shutdown.
+		 */
+		private Duration interval = Duration.ofMinutes(5);
+
+		public String getFile() {
+			return this.file;
+		}
+
+		public void setFile(String file) {
+			this.file = file;
+		}
+
+		public Duration getInterval() {
+			return this.interval;
+		}
+
+		public void setInterval(Duration interval) {
+			this.interval = interval;
+		}
+
+	}
+
+	public static class Coalescing {
+
+		/**
+		 * Whether cron trigger beans sharing the same schedule should be driven by a
+		 * single trigger that runs their jobs. Only applies to the in-memory job store
+		 * without snapshot.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Minimum number of triggers sharing a schedule for them to be coalesced.
+		 */
+		private int minGroupSize = 2;
+
+		/**
+		 * Maximum number of member jobs of coalesced triggers running at the same time.
+		 */
+		private int maxConcurrency = 10;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMinGroupSize() {
+			return this.minGroupSize;
+		}
+
+		public void setMinGroupSize(int minGroupSize) {
+			this.minGroupSize = minGroupSize;
+		}
+
+		public int getMaxConcurrency() {
+			return this.maxConcurrency;
+		}
+
+		public void setMaxConcurrency(int maxConcurrency) {
+			this.maxConcurrency = maxConcurrency;
+		}
+
+	}
+
+	public static class Batch {
+
+		/**
+		 * How long the first fire of a batch job waits for other fires of the same job
+		 * class before running them as one batch. Zero runs every fire on its own.
+		 */
+		private Duration window = Duration.ofMillis(50);
+
+		/**
+		 * Maximum number of fires handed to a single batch.
+		 */
+		private int maxSize = 100;
+
+		public Duration getWindow() {
+			return this.window;
+		}
+
+		public void setWindow(Duration window) {
+			this.window = window;
+		}
+
+		public int getMaxSize() {
+			return this.maxSize;
+		}
+
+		public void setMaxSize(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+	}
+
+	public static class MisfireRecovery {
+
+		/**
+		 * Maximum number of misfired fires recovered per second. Recovery is not limited
+		 * when not set.
+		 */
+		private Double maxFiresPerSecond;
+
+		/**
+		 * Priority of recovered fires per trigger group, higher first. Triggers of other
+		 * groups keep their own priority.
+		 */
+		private final Map<String, Integer> groupPriorities = new HashMap<String, Integer>();
+
+		public Double getMaxFiresPerSecond() {
+			return this.maxFiresPerSecond;
+		}
+
+		public void setMaxFiresPerSecond(Double maxFiresPerSecond) {
+			this.maxFiresPerSecond = maxFiresPerSecond;
+		}
+
+		public Map<String, Integer> getGroupPriorities() {
+			return this.groupPriorities;
+		}
+
+	}
+
+	public static class Jitter {
+
+		/**
+		 * Window within which trigger beans are shifted by a stable offset derived from
+		 * their key. Jitter is disabled when not set.
+		 */
+		private Duration window;
+
+		/**
+		 * Whether all trigger beans should be shifted. Otherwise only the triggers of the
+		 * groups listed in "groups" are.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Trigger groups whose trigger beans should be shifted.
+		 */
+		private List<String> groups = new ArrayList<>();
+
+		public Duration getWindow() {
+			return this.window;
+		}
+
+		public void setWindow(Duration window) {
+			this.window = window;
+		}
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public List<String> getGroups() {
+			return this.groups;
+		}
+
+		public void setGroups(List<String> groups) {
+			this.groups = groups;
+		}
+
+	}
+
+	public static class Backpressure {
+
+		/**
+		 * Delay after which fires deferred by a TriggerBackpressure bean are replayed.
+		 */
+		private Duration deferDelay = Duration.ofSeconds(10);
+
+		private final DataSourcePool dataSourcePool = new DataSourcePool();
+
+		public Duration getDeferDelay() {
+			return this.deferDelay;
+		}
+
+		public void setDeferDelay(Duration deferDelay) {
+			this.deferDelay = deferDelay;
+		}
+
+		public DataSourcePool getDataSourcePool() {
+			return this.dataSourcePool;
+		}
+
+		public static class DataSourcePool {
+
+			/**
+			 * Whether fires should be held back while the pool of the Quartz data
+			 * source is saturated.
+			 */
+			private boolean enabled;
+
+			/**
+			 * Share of active connections, between 0 and 1, from which the pool is
+			 * considered saturated.
+			 */
+			private float maxUsage = 0.9f;
+
+			/**
+			 * Number of threads waiting for a connection above which the pool is
+			 * considered saturated.
+			 */
+			private int maxWaiting = 0;
+
+			/**
+			 * What to do with fires while the pool is saturated, "defer" or "skip".
+			 * Deferring a fire stores a one-shot trigger through the saturated pool.
+			 */
+			private TriggerBackpressure.Decision decision = TriggerBackpressure.Decision.SKIP;
+
+			/**
+			 * Trigger groups whose fires are held back. All groups when empty.
+			 */
+			private List<String> groups = new ArrayList<>();
+
+			public boolean isEnabled() {
+				return this.enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public float getMaxUsage() {
+				return this.maxUsage;
+			}
+
+			public void setMaxUsage(float maxUsage) {
+				this.maxUsage = maxUsage;
+			}
+
+			public int getMaxWaiting() {
+				return this.maxWaiting;
+			}
+
+			public void setMaxWaiting(int maxWaiting) {
+				this.maxWaiting = maxWaiting;
+			}
+
+			public TriggerBackpressure.Decision getDecision() {
+				return this.decision;
+			}
+
+			public void setDecision(TriggerBackpressure.Decision decision) {
+				this.decision = decision;
+			}
+
+			public List<String> getGroups() {
+				return this.groups;
+			}
+
+			public void setGroups(List<String> groups) {
+				this.groups = groups;
+			}
+
+		}
+
+	}
+
+	public static class Watchdog {
+
+		/**
+		 * Whether running jobs should be watched and reported, with the stack of their
+		 * worker thread, when they run longer than their threshold.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Time after which running jobs are reported.
+		 */
+		private Duration threshold = Duration.ofMinutes(5);
+
+		/**
+		 * Time after which running jobs are reported, per job group.
+		 */
+		private final Map<String, Duration> groupThresholds = new HashMap<String, Duration>();
+
+		/**
+		 * Time after which running jobs implementing InterruptableJob are interrupted.
+		 * Jobs are never interrupted when not set.
+		 */
+		private Duration interruptAfter;
+
+		/**
+		 * Interval at which running jobs are checked.
+		 */
+		private Duration checkInterval = Duration.ofSeconds(5);
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getThreshold() {
+			return this.threshold;
+		}
+
+		public void setThreshold(Duration threshold) {
+			this.threshold = threshold;
+		}
+
+		public Map<String, Duration> getGroupThresholds() {
+			return this.groupThresholds;
+		}
+
+		public Duration getInterruptAfter() {
+			return this.interruptAfter;
+		}
+
+		public void setInterruptAfter(Duration interruptAfter) {
+			this.interruptAfter = interruptAfter;
+		}
+
+		public Duration getCheckInterval() {
+			return this.checkInterval;
+		}
+
+		public void setCheckInterval(Duration checkInterval) {
+			this.checkInterval = checkInterval;
+		}
+
 	}
 
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.quartz.core.QuartzScheduler;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Index of the statements of the Quartz platform scripts, split at build time with the
+ * default separator and comment prefixes so that the schema initializer does not have
+ * to parse them on every start. The index of a platform is only used with the Quartz
+ * version it was built from and a script of the same length and CRC32 checksum, the
+ * schema initializer falls back to parsing the script otherwise.
+ *
+ * @see SchemaStatementIndexWriter
+ */
+final class SchemaStatementIndex {
+
+	static final String[] COMMENT_PREFIXES = { "#", "--" };
+
+	static final String INDEX_LOCATION = "org/springframework/boot/autoconfigure/quartz/schema/";
+
+	static final String INDEX_SUFFIX = ".statements";
+
+	static final int FORMAT = 2;
+
+	private static final Log logger = LogFactory.getLog(SchemaStatementIndex.class);
+
+	private SchemaStatementIndex() {
+	}
+
+	/**
+	 * Return the indexed statements of the given Quartz platform script.
+	 * @param platform the platform of the script
+	 * @param script the script, used to check that the index is up to date
+	 * @return the statements, or {@code null} if the script is not indexed or its index
+	 * is out of date
+	 */
+	static List<String> load(String platform, Resource script) {
+		String location = INDEX_LOCATION + "tables_" + platform + INDEX_SUFFIX;
+		InputStream stream = ClassUtils.getDefaultClassLoader().getResourceAsStream(location);
+		if (stream == null) {
+			return null;
+		}
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(stream))) {
+			if (input.readInt() != FORMAT || !getQuartzVersion().equals(input.readUTF())
+					|| script.contentLength() != input.readLong() || checksum(script) != input.readLong()) {
+				logger.debug("Statement index of " + script + " is out of date");
+				return null;
+			}
+			int count = input.readInt();
+			List<String> statements = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				statements.add(input.readUTF());
+			}
+			return Collections.unmodifiableList(statements);
+		}
+		catch (IOException ex) {
+			logger.debug("Could not read statement index of " + script, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Return the CRC32 checksum of the content of the given script.
+	 * @param script the script
+	 * @return the checksum
+	 * @throws IOException if the script cannot be read
+	 */
+	static long checksum(Resource script) throws IOException {
+		CRC32 crc = new CRC32();
+		try (InputStream input = script.getInputStream()) {
+			crc.update(StreamUtils.copyToByteArray(input));
+		}
+		return crc.getValue();
+	}
+
+	static String getQuartzVersion() {
+		return QuartzScheduler.getVersionMajor() + "." + QuartzScheduler.getVersionMinor() + "."
+				+ QuartzScheduler.getVersionIteration();
+	}
+
+}
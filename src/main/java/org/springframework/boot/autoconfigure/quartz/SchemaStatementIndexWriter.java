@@ -0,0 +1,86 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtilsEnhanced;
+
+/**
+ * Writes the {@link SchemaStatementIndex} of the Quartz platform scripts found on the
+ * class path. Only used by the build, in its {@code process-classes} phase.
+ */
+final class SchemaStatementIndexWriter {
+
+	private static final String SCRIPTS = "classpath*:org/quartz/impl/jdbcjobstore/tables_*.sql";
+
+	private static final Log logger = LogFactory.getLog(SchemaStatementIndexWriter.class);
+
+	private SchemaStatementIndexWriter() {
+	}
+
+	/**
+	 * Write the statement index of the Quartz platform scripts found on the class path.
+	 * @param args the output directory
+	 * @throws IOException if a script cannot be read or the index cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		File directory = new File(args[0], SchemaStatementIndex.INDEX_LOCATION);
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Could not create " + directory);
+		}
+		Resource[] scripts = new PathMatchingResourcePatternResolver().getResources(SCRIPTS);
+		for (Resource script : scripts) {
+			write(script, directory);
+		}
+		logger.info("Indexed " + scripts.length + " Quartz schema scripts in " + directory);
+	}
+
+	private static void write(Resource script, File directory) throws IOException {
+		String name = script.getFilename();
+		List<String> statements = ScriptUtilsEnhanced.readStatements(
+				new EncodedResource(script, StandardCharsets.UTF_8), null, SchemaStatementIndex.COMMENT_PREFIXES,
+				ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+				ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+		File index = new File(directory,
+				name.substring(0, name.length() - ".sql".length()) + SchemaStatementIndex.INDEX_SUFFIX);
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(index)))) {
+			output.writeInt(SchemaStatementIndex.FORMAT);
+			output.writeUTF(SchemaStatementIndex.getQuartzVersion());
+			output.writeLong(script.contentLength());
+			output.writeLong(SchemaStatementIndex.checksum(script));
+			output.writeInt(statements.size());
+			for (String statement : statements) {
+				output.writeUTF(statement);
+			}
+		}
+	}
+
+}
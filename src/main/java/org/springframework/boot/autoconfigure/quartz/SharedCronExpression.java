@@ -0,0 +1,344 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.text.ParseException;
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.quartz.CronExpression;
+
+/**
+ * Parsed {@link CronExpression} shared by any number of triggers, together with a
+ * next fire time calculation based on bit masks of the parsed fields rather than on
+ * the parser's sorted sets. Expressions using {@code L}, {@code W} or {@code #} use the
+ * standard calculation.
+ * <p>
+ * The wrapped expression must never be modified, in particular its time zone.
+ *
+ * @see CronExpressionCache
+ */
+final class SharedCronExpression {
+
+	private final CronExpression expression;
+
+	private final TimeZone timeZone;
+
+	private final boolean bitMasks;
+
+	private final long secondMask;
+
+	private final long minuteMask;
+
+	private final long hourMask;
+
+	private final long dayOfMonthMask;
+
+	private final long monthMask;
+
+	private final long dayOfWeekMask;
+
+	private final boolean dayOfMonthSpec;
+
+	private final BitSet years;
+
+	SharedCronExpression(String cronExpression, TimeZone timeZone) throws ParseException {
+		this.expression = new CronExpression(cronExpression);
+		this.expression.setTimeZone(timeZone);
+		this.timeZone = timeZone;
+		// The parsed fields are only exposed through the expression summary
+		Map<String, String> fields = new HashMap<>();
+		for (String line : this.expression.getExpressionSummary().split("\n")) {
+			int separator = line.indexOf(": ");
+			if (separator > 0) {
+				fields.put(line.substring(0, separator), line.substring(separator + 2));
+			}
+		}
+		this.secondMask = toMask(fields.get("seconds"), 0, 59);
+		this.minuteMask = toMask(fields.get("minutes"), 0, 59);
+		this.hourMask = toMask(fields.get("hours"), 0, 23);
+		this.dayOfMonthMask = toMask(fields.get("daysOfMonth"), 1, 31);
+		this.monthMask = toMask(fields.get("months"), 1, 12);
+		this.dayOfWeekMask = toMask(fields.get("daysOfWeek"), 1, 7);
+		this.dayOfMonthSpec = !"?".equals(fields.get("daysOfMonth"));
+		boolean dayOfWeekSpec = !"?".equals(fields.get("daysOfWeek"));
+		this.years = toBitSet(fields.get("years"));
+		this.bitMasks = "false".equals(fields.get("lastdayOfWeek"))
+				&& "false".equals(fields.get("nearestWeekday"))
+				&& "0".equals(fields.get("NthDayOfWeek"))
+				&& "false".equals(fields.get("lastdayOfMonth"))
+				&& this.dayOfMonthSpec != dayOfWeekSpec && this.secondMask > 0
+				&& this.minuteMask > 0 && this.hourMask > 0 && this.monthMask > 0
+				&& (this.dayOfMonthSpec ? this.dayOfMonthMask : this.dayOfWeekMask) > 0
+				&& this.years != null;
+	}
+
+	/**
+	 * Build the bit mask of a summarized field. Returns {@code 0} for an unspecified
+	 * field and {@code -1} when the values cannot be represented.
+	 */
+	private static long toMask(String summary, int min, int max) {
+		if (summary == null) {
+			return -1;
+		}
+		if ("?".equals(summary)) {
+			return 0;
+		}
+		if ("*".equals(summary)) {
+			return (-1L >>> (63 - max)) & (-1L << min);
+		}
+		long mask = 0;
+		for (String value : summary.split(",")) {
+			int bit;
+			try {
+				bit = Integer.parseInt(value.trim());
+			}
+			catch (NumberFormatException ex) {
+				return -1;
+			}
+			if (bit < min || bit > max) {
+				return -1;
+			}
+			mask |= 1L << bit;
+		}
+		return mask;
+	}
+
+	private static BitSet toBitSet(String summary) {
+		if (summary == null || "?".equals(summary)) {
+			return null;
+		}
+		BitSet bits = new BitSet();
+		if ("*".equals(summary)) {
+			bits.set(1970, CronExpression.MAX_YEAR + 1);
+			return bits;
+		}
+		for (String value : summary.split(",")) {
+			try {
+				bits.set(Integer.parseInt(value.trim()));
+			}
+			catch (NumberFormatException | IndexOutOfBoundsException ex) {
+				return null;
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Return the shared expression. It must not be modified.
+	 * @return the cron expression
+	 */
+	CronExpression getExpression() {
+		return this.expression;
+	}
+
+	String getCronExpression() {
+		return this.expression.getCronExpression();
+	}
+
+	TimeZone getTimeZone() {
+		return this.timeZone;
+	}
+
+	/**
+	 * Return whether the next fire time is computed from bit masks.
+	 * @return {@code true} if the bit mask calculation is used
+	 */
+	boolean isBitMaskCalculation() {
+		return this.bitMasks;
+	}
+
+	/**
+	 * Return the next time after the given time that matches the expression, with the
+	 * same result as {@link CronExpression#getTimeAfter(Date)}.
+	 * @param afterTime the time to start searching from
+	 * @return the next matching time, or {@code null}
+	 */
+	Date getTimeAfter(Date afterTime) {
+		if (!this.bitMasks) {
+			return this.expression.getTimeAfter(afterTime);
+		}
+		// Same walk as CronExpression.getTimeAfter, field by field, so that lenient
+		// calendar and daylight saving behavior stays identical
+		Calendar cl = new GregorianCalendar(this.timeZone);
+		cl.setTime(new Date(afterTime.getTime() + 1000));
+		cl.set(Calendar.MILLISECOND, 0);
+		while (true) {
+			if (cl.get(Calendar.YEAR) > 2999) {
+				return null;
+			}
+			int sec = cl.get(Calendar.SECOND);
+			int min = cl.get(Calendar.MINUTE);
+			int next = nextBit(this.secondMask, sec);
+			if (next != -1) {
+				sec = next;
+			}
+			else {
+				sec = firstBit(this.secondMask);
+				min++;
+				cl.set(Calendar.MINUTE, min);
+			}
+			cl.set(Calendar.SECOND, sec);
+
+			min = cl.get(Calendar.MINUTE);
+			int hr = cl.get(Calendar.HOUR_OF_DAY);
+			next = nextBit(this.minuteMask, min);
+			if (next != min) {
+				cl.set(Calendar.SECOND, 0);
+				if (next == -1) {
+					cl.set(Calendar.MINUTE, firstBit(this.minuteMask));
+					setCalendarHour(cl, hr + 1);
+				}
+				else {
+					cl.set(Calendar.MINUTE, next);
+					setCalendarHour(cl, hr);
+				}
+				continue;
+			}
+			cl.set(Calendar.MINUTE, min);
+
+			hr = cl.get(Calendar.HOUR_OF_DAY);
+			int day = cl.get(Calendar.DAY_OF_MONTH);
+			next = nextBit(this.hourMask, hr);
+			if (next != hr) {
+				cl.set(Calendar.SECOND, 0);
+				cl.set(Calendar.MINUTE, 0);
+				if (next == -1) {
+					cl.set(Calendar.DAY_OF_MONTH, day + 1);
+					setCalendarHour(cl, firstBit(this.hourMask));
+				}
+				else {
+					cl.set(Calendar.DAY_OF_MONTH, day);
+					setCalendarHour(cl, next);
+				}
+				continue;
+			}
+			cl.set(Calendar.HOUR_OF_DAY, hr);
+
+			day = cl.get(Calendar.DAY_OF_MONTH);
+			int mon = cl.get(Calendar.MONTH) + 1;
+			if (this.dayOfMonthSpec) {
+				int newDay = nextBit(this.dayOfMonthMask, day);
+				int newMon = mon;
+				if (newDay == -1 || newDay > getLastDayOfMonth(mon, cl.get(Calendar.YEAR))) {
+					newDay = firstBit(this.dayOfMonthMask);
+					newMon++;
+				}
+				if (newDay != day || newMon != mon) {
+					cl.set(Calendar.SECOND, 0);
+					cl.set(Calendar.MINUTE, 0);
+					cl.set(Calendar.HOUR_OF_DAY, 0);
+					cl.set(Calendar.DAY_OF_MONTH, newDay);
+					cl.set(Calendar.MONTH, newMon - 1);
+					continue;
+				}
+			}
+			else {
+				int cDow = cl.get(Calendar.DAY_OF_WEEK);
+				int dow = nextBit(this.dayOfWeekMask, cDow);
+				if (dow == -1) {
+					dow = firstBit(this.dayOfWeekMask);
+				}
+				int daysToAdd = (dow >= cDow) ? dow - cDow : dow + (7 - cDow);
+				if (day + daysToAdd > getLastDayOfMonth(mon, cl.get(Calendar.YEAR))) {
+					cl.set(Calendar.SECOND, 0);
+					cl.set(Calendar.MINUTE, 0);
+					cl.set(Calendar.HOUR_OF_DAY, 0);
+					cl.set(Calendar.DAY_OF_MONTH, 1);
+					cl.set(Calendar.MONTH, mon);
+					continue;
+				}
+				if (daysToAdd > 0) {
+					cl.set(Calendar.SECOND, 0);
+					cl.set(Calendar.MINUTE, 0);
+					cl.set(Calendar.HOUR_OF_DAY, 0);
+					cl.set(Calendar.DAY_OF_MONTH, day + daysToAdd);
+					cl.set(Calendar.MONTH, mon - 1);
+					continue;
+				}
+			}
+			cl.set(Calendar.DAY_OF_MONTH, day);
+
+			mon = cl.get(Calendar.MONTH) + 1;
+			int year = cl.get(Calendar.YEAR);
+			if (year > CronExpression.MAX_YEAR) {
+				return null;
+			}
+			next = nextBit(this.monthMask, mon);
+			if (next != mon) {
+				if (next == -1) {
+					next = firstBit(this.monthMask);
+					year++;
+				}
+				cl.set(Calendar.SECOND, 0);
+				cl.set(Calendar.MINUTE, 0);
+				cl.set(Calendar.HOUR_OF_DAY, 0);
+				cl.set(Calendar.DAY_OF_MONTH, 1);
+				cl.set(Calendar.MONTH, next - 1);
+				cl.set(Calendar.YEAR, year);
+				continue;
+			}
+			cl.set(Calendar.MONTH, mon - 1);
+
+			year = cl.get(Calendar.YEAR);
+			next = this.years.nextSetBit(year);
+			if (next == -1) {
+				return null;
+			}
+			if (next != year) {
+				cl.set(Calendar.SECOND, 0);
+				cl.set(Calendar.MINUTE, 0);
+				cl.set(Calendar.HOUR_OF_DAY, 0);
+				cl.set(Calendar.DAY_OF_MONTH, 1);
+				cl.set(Calendar.MONTH, 0);
+				cl.set(Calendar.YEAR, next);
+				continue;
+			}
+			cl.set(Calendar.YEAR, year);
+			return cl.getTime();
+		}
+	}
+
+	private static int nextBit(long mask, int from) {
+		long remaining = mask & (-1L << from);
+		return (remaining != 0) ? Long.numberOfTrailingZeros(remaining) : -1;
+	}
+
+	private static int firstBit(long mask) {
+		return Long.numberOfTrailingZeros(mask);
+	}
+
+	private static void setCalendarHour(Calendar calendar, int hour) {
+		calendar.set(Calendar.HOUR_OF_DAY, hour);
+		if (calendar.get(Calendar.HOUR_OF_DAY) != hour && hour != 24) {
+			calendar.set(Calendar.HOUR_OF_DAY, hour + 1);
+		}
+	}
+
+	private static int getLastDayOfMonth(int month, int year) {
+		if (month == 2) {
+			return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+		}
+		return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+	}
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.quartz.CronExpression;
+import org.quartz.CronTrigger;
+import org.quartz.ScheduleBuilder;
+import org.quartz.impl.triggers.CronTriggerImpl;
+
+/**
+ * {@link CronTriggerImpl} holding a cron expression from the
+ * {@link CronExpressionCache#getSharedInstance() shared cache}. Unlike the standard
+ * implementation, copies of the trigger made by the job store do not parse the
+ * expression again, and next fire times use the bit mask calculation of
+ * {@link SharedCronExpression}.
+ *
+ * @see CachedCronScheduleBuilder
+ */
+public class SharedCronTriggerImpl extends CronTriggerImpl {
+
+	private static final long serialVersionUID = 1L;
+
+	private transient SharedCronExpression expression;
+
+	public SharedCronTriggerImpl() {
+	}
+
+	SharedCronTriggerImpl(CronTriggerImpl trigger, SharedCronExpression expression) {
+		if (trigger.getKey() != null) {
+			setKey(trigger.getKey());
+		}
+		if (trigger.getJobKey() != null) {
+			setJobKey(trigger.getJobKey());
+		}
+		setDescription(trigger.getDescription());
+		setCalendarName(trigger.getCalendarName());
+		setJobDataMap(trigger.getJobDataMap());
+		setPriority(trigger.getPriority());
+		setMisfireInstruction(trigger.getMisfireInstruction());
+		if (trigger.getStartTime() != null) {
+			setStartTime(trigger.getStartTime());
+		}
+		setEndTime(trigger.getEndTime());
+		setNextFireTime(trigger.getNextFireTime());
+		setPreviousFireTime(trigger.getPreviousFireTime());
+		setSharedExpression(expression);
+	}
+
+	void setSharedExpression(SharedCronExpression expression) {
+		this.expression = expression;
+		super.setTimeZone(expression.getTimeZone());
+	}
+
+	@Override
+	public void setCronExpression(String cronExpression) throws ParseException {
+		setSharedExpression(
+				CronExpressionCache.getSharedInstance().get(cronExpression, getTimeZone()));
+	}
+
+	@Override
+	public void setCronExpression(CronExpression cronExpression) {
+		try {
+			setSharedExpression(CronExpressionCache.getSharedInstance().get(
+					cronExpression.getCronExpression(), cronExpression.getTimeZone()));
+		}
+		catch (ParseException ex) {
+			throw new IllegalArgumentException(ex);
+		}
+	}
+
+	@Override
+	public String getCronExpression() {
+		return (this.expression != null) ? this.expression.getCronExpression() : null;
+	}
+
+	@Override
+	public void setTimeZone(TimeZone timeZone) {
+		super.setTimeZone(timeZone);
+		if (this.expression != null && !this.expression.getTimeZone().equals(timeZone)) {
+			try {
+				setCronExpression(this.expression.getCronExpression());
+			}
+			catch (ParseException ex) {
+				throw new IllegalStateException(ex);
+			}
+		}
+	}
+
+	@Override
+	public String getExpressionSummary() {
+		return (this.expression != null)
+				? this.expression.getExpression().getExpressionSummary() : null;
+	}
+
+	@Override
+	public ScheduleBuilder<CronTrigger> getScheduleBuilder() {
+		CachedCronScheduleBuilder builder = CachedCronScheduleBuilder
+				.cronSchedule(getCronExpression()).inTimeZone(getTimeZone());
+		switch (getMisfireInstruction()) {
+		case MISFIRE_INSTRUCTION_DO_NOTHING:
+			builder.withMisfireHandlingInstructionDoNothing();
+			break;
+		case MISFIRE_INSTRUCTION_FIRE_ONCE_NOW:
+			builder.withMisfireHandlingInstructionFireAndProceed();
+			break;
+		case MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY:
+			builder.withMisfireHandlingInstructionIgnoreMisfires();
+			break;
+		default:
+		}
+		return builder;
+	}
+
+	@Override
+	protected Date getTimeAfter(Date afterTime) {
+		return (this.expression != null) ? this.expression.getTimeAfter(afterTime) : null;
+	}
+
+	@Override
+	protected Date getTimeBefore(Date endTime) {
+		return (this.expression != null)
+				? this.expression.getExpression().getTimeBefore(endTime) : null;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeObject(getCronExpression());
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		String cronExpression = (String) in.readObject();
+		if (cronExpression != null) {
+			try {
+				setCronExpression(cronExpression);
+			}
+			catch (ParseException ex) {
+				throw new InvalidObjectException(ex.getMessage());
+			}
+		}
+	}
+
+}
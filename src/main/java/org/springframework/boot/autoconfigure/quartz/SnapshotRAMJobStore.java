@@ -0,0 +1,410 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.quartz.Calendar;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+
+/**
+ * {@link RAMJobStore} that writes its jobs, triggers and calendars to a binary snapshot
+ * file on shutdown and at a fixed interval, and restores them on startup. Restoring
+ * stores the triggers as they were, including their computed next fire times, so a
+ * restarted scheduler does not have to re-register and recompute every trigger and
+ * keeps the jobs that were scheduled dynamically.
+ * <p>
+ * Configured through the {@code org.quartz.jobStore.*} properties, usually by setting
+ * {@code spring.quartz.snapshot.file}. Jobs or triggers holding non-serializable job
+ * data are left out of the snapshot.
+ *
+ * @see QuartzProperties.Snapshot
+ */
+public class SnapshotRAMJobStore extends RAMJobStore {
+
+	private static final Log logger = LogFactory.getLog(SnapshotRAMJobStore.class);
+
+	private static final int MAGIC = 0x51525453; // "QRTS"
+
+	private static final int VERSION = 1;
+
+	private String snapshotFile;
+
+	private long snapshotInterval;
+
+	private String instanceName = "quartzScheduler";
+
+	private ClassLoadHelper classLoadHelper;
+
+	private ScheduledExecutorService snapshotExecutor;
+
+	private final Object snapshotMonitor = new Object();
+
+	/**
+	 * Set the path of the snapshot file.
+	 * @param snapshotFile the snapshot file path
+	 */
+	public void setSnapshotFile(String snapshotFile) {
+		this.snapshotFile = snapshotFile;
+	}
+
+	public String getSnapshotFile() {
+		return this.snapshotFile;
+	}
+
+	/**
+	 * Set the interval, in milliseconds, at which snapshots are written while the
+	 * scheduler is running. A value of zero or less only writes a snapshot on shutdown.
+	 * @param snapshotInterval the snapshot interval in milliseconds
+	 */
+	public void setSnapshotInterval(long snapshotInterval) {
+		this.snapshotInterval = snapshotInterval;
+	}
+
+	public long getSnapshotInterval() {
+		return this.snapshotInterval;
+	}
+
+	@Override
+	public void setInstanceName(String schedName) {
+		this.instanceName = schedName;
+	}
+
+	@Override
+	public void initialize(ClassLoadHelper loadHelper, SchedulerSignaler schedSignaler) {
+		super.initialize(loadHelper, schedSignaler);
+		this.classLoadHelper = loadHelper;
+		if (this.snapshotFile == null) {
+			throw new IllegalStateException("Snapshot file must be set");
+		}
+		File file = new File(this.snapshotFile);
+		if (file.isFile()) {
+			long startTime = System.currentTimeMillis();
+			try {
+				int restored = restore(file);
+				logger.info("Restored " + restored + " jobs from snapshot " + file + " in "
+						+ (System.currentTimeMillis() - startTime) + " ms");
+			}
+			catch (Exception ex) {
+				logger.warn("Could not restore scheduler state from snapshot " + file, ex);
+			}
+		}
+	}
+
+	@Override
+	public void schedulerStarted() {
+		super.schedulerStarted();
+		if (this.snapshotInterval > 0 && this.snapshotExecutor == null) {
+			this.snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, SnapshotRAMJobStore.this.instanceName + "_SnapshotWriter");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			this.snapshotExecutor.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					writeSnapshot();
+				}
+			}, this.snapshotInterval, this.snapshotInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		if (this.snapshotExecutor != null) {
+			this.snapshotExecutor.shutdown();
+			try {
+				if (!this.snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+					logger.warn("Periodic snapshot still running on shutdown");
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			this.snapshotExecutor = null;
+		}
+		writeSnapshot();
+		super.shutdown();
+	}
+
+	/**
+	 * Write the current state of this store to the snapshot file. The file is replaced
+	 * atomically where the file system supports it. Concurrent calls are serialized, as
+	 * they share the same temporary file.
+	 */
+	public void writeSnapshot() {
+		File file = new File(this.snapshotFile);
+		try {
+			long startTime = System.currentTimeMillis();
+			int written;
+			synchronized (this.snapshotMonitor) {
+				written = write(file);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Wrote " + written + " jobs to snapshot " + file + " in "
+						+ (System.currentTimeMillis() - startTime) + " ms");
+			}
+		}
+		catch (Exception ex) {
+			logger.warn("Could not write scheduler state to snapshot " + file, ex);
+		}
+	}
+
+	private int write(File file) throws IOException, JobPersistenceException {
+		Map<String, byte[]> calendars = new LinkedHashMap<String, byte[]>();
+		List<String> pausedTriggerGroups;
+		List<String> pausedJobGroups;
+		List<JobEntry> jobs = new ArrayList<JobEntry>();
+		synchronized (this.lock) {
+			for (String name : getCalendarNames()) {
+				byte[] block = serialize(retrieveCalendar(name));
+				if (block != null) {
+					calendars.put(name, block);
+				}
+			}
+			pausedTriggerGroups = new ArrayList<String>(this.pausedTriggerGroups);
+			pausedJobGroups = new ArrayList<String>(this.pausedJobGroups);
+			for (String group : getJobGroupNames()) {
+				for (JobKey jobKey : getJobKeys(GroupMatcher.jobGroupEquals(group))) {
+					JobEntry entry = new JobEntry(retrieveJob(jobKey));
+					for (OperableTrigger trigger : getTriggersForJob(jobKey)) {
+						entry.triggers.add(trigger);
+						entry.paused.add(isPaused(getTriggerState(trigger.getKey())));
+					}
+					jobs.add(entry);
+				}
+			}
+		}
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Could not create directory " + parent);
+		}
+		File temp = new File(parent, file.getName() + ".tmp");
+		int written = 0;
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new GZIPOutputStream(new FileOutputStream(temp))))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(calendars.size());
+			for (Map.Entry<String, byte[]> calendar : calendars.entrySet()) {
+				out.writeUTF(calendar.getKey());
+				writeBlock(out, calendar.getValue());
+			}
+			writeStrings(out, pausedTriggerGroups);
+			writeStrings(out, pausedJobGroups);
+			for (JobEntry entry : jobs) {
+				byte[] block = serialize(entry);
+				if (block != null) {
+					out.writeBoolean(true);
+					writeBlock(out, block);
+					written++;
+				}
+			}
+			out.writeBoolean(false);
+		}
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		return written;
+	}
+
+	private int restore(File file) throws IOException, ClassNotFoundException, JobPersistenceException {
+		int restored = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new GZIPInputStream(new FileInputStream(file))))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Unsupported snapshot format in " + file);
+			}
+			synchronized (this.lock) {
+				int calendars = in.readInt();
+				for (int i = 0; i < calendars; i++) {
+					String name = in.readUTF();
+					storeCalendar(name, (Calendar) deserialize(readBlock(in)), true, false);
+				}
+				List<String> pausedTriggerGroups = readStrings(in);
+				List<String> pausedJobGroups = readStrings(in);
+				while (in.readBoolean()) {
+					JobEntry entry = (JobEntry) deserialize(readBlock(in));
+					storeJob(entry.jobDetail, true);
+					for (int i = 0; i < entry.triggers.size(); i++) {
+						OperableTrigger trigger = entry.triggers.get(i);
+						storeTrigger(trigger, true);
+						if (entry.paused.get(i)) {
+							pauseTrigger(trigger.getKey());
+						}
+					}
+					restored++;
+				}
+				for (String group : pausedTriggerGroups) {
+					pauseTriggers(GroupMatcher.triggerGroupEquals(group));
+				}
+				for (String group : pausedJobGroups) {
+					pauseJobs(GroupMatcher.jobGroupEquals(group));
+				}
+			}
+		}
+		return restored;
+	}
+
+	private static boolean isPaused(TriggerState state) {
+		return state == TriggerState.PAUSED;
+	}
+
+	private byte[] serialize(Object object) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		catch (IOException ex) {
+			logger.warn("Skipping " + object + " in scheduler snapshot: " + ex);
+			return null;
+		}
+		return bytes.toByteArray();
+	}
+
+	private Object deserialize(byte[] block) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ClassLoadHelperObjectInputStream(
+				new ByteArrayInputStream(block), this.classLoadHelper)) {
+			return in.readObject();
+		}
+	}
+
+	private static void writeBlock(DataOutputStream out, byte[] block) throws IOException {
+		out.writeInt(block.length);
+		out.write(block);
+	}
+
+	private static byte[] readBlock(DataInputStream in) throws IOException {
+		byte[] block = new byte[in.readInt()];
+		in.readFully(block);
+		return block;
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for (String string : strings) {
+			out.writeUTF(string);
+		}
+	}
+
+	private static List<String> readStrings(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		List<String> strings = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			strings.add(in.readUTF());
+		}
+		return strings;
+	}
+
+	/**
+	 * A job together with its triggers, serialized as one unit so that a job whose data
+	 * cannot be serialized is skipped as a whole.
+	 */
+	private static final class JobEntry implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final JobDetail jobDetail;
+
+		private final List<OperableTrigger> triggers = new ArrayList<OperableTrigger>();
+
+		private final List<Boolean> paused = new ArrayList<Boolean>();
+
+		JobEntry(JobDetail jobDetail) {
+			this.jobDetail = jobDetail;
+		}
+
+		@Override
+		public String toString() {
+			return "job " + this.jobDetail.getKey();
+		}
+
+	}
+
+	/**
+	 * {@link ObjectInputStream} resolving classes through the scheduler's
+	 * {@link ClassLoadHelper}.
+	 */
+	private static final class ClassLoadHelperObjectInputStream extends ObjectInputStream {
+
+		private final ClassLoadHelper classLoadHelper;
+
+		ClassLoadHelperObjectInputStream(InputStream in, ClassLoadHelper classLoadHelper) throws IOException {
+			super(in);
+			this.classLoadHelper = classLoadHelper;
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if (this.classLoadHelper != null) {
+				try {
+					return this.classLoadHelper.loadClass(desc.getName());
+				}
+				catch (ClassNotFoundException ex) {
+					// fall back to the default resolution, e.g. for primitive types
+				}
+			}
+			return super.resolveClass(desc);
+		}
+
+	}
+
+}
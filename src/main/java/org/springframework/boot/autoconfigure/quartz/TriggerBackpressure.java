@@ -0,0 +1,64 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.Trigger;
+
+/**
+ * Callback interface that can be implemented by beans wishing to hold back fires while
+ * a downstream resource is saturated. Beans are consulted in order on the worker thread
+ * of every fire, before its job runs, until one of them does not return
+ * {@link Decision#PROCEED}.
+ *
+ * @see DataSourcePoolBackpressure
+ * @see QuartzProperties.Backpressure
+ */
+//@FunctionalInterface
+public interface TriggerBackpressure {
+
+	/**
+	 * Decide what to do with the given fire.
+	 * @param trigger the trigger that fired
+	 * @param context the context of the fire
+	 * @return the decision, never {@code null}
+	 */
+	Decision decide(Trigger trigger, JobExecutionContext context);
+
+	/**
+	 * What to do with a fire.
+	 */
+	enum Decision {
+
+		/**
+		 * Run the job now.
+		 */
+		PROCEED,
+
+		/**
+		 * Replay the fire after {@code spring.quartz.backpressure.defer-delay}.
+		 */
+		DEFER,
+
+		/**
+		 * Drop the fire, the trigger fires again on its next scheduled time.
+		 */
+		SKIP
+
+	}
+
+}
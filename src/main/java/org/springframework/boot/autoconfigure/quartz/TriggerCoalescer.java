@@ -0,0 +1,170 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.quartz.CronTrigger;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.triggers.CronTriggerImpl;
+
+/**
+ * Replaces groups of cron trigger beans that share the same schedule by a single
+ * trigger firing a {@link CoalescingJob}, so that the scheduler acquires and fires one
+ * trigger instead of one per job. Triggers are only coalesced when the result is
+ * indistinguishable to their jobs: same cron expression, time zone, calendar, misfire
+ * instruction and priority, no end time, no trigger job data, and jobs that neither
+ * disallow concurrent execution nor persist their job data. Member jobs are stored
+ * durably since they no longer have a trigger of their own.
+ * <p>
+ * Only used with a job store that does not outlive the scheduler: a persistent store
+ * would keep the triggers of the members from previous runs and fire their jobs twice.
+ */
+class TriggerCoalescer {
+
+	static final String GROUP = "COALESCED";
+
+	/**
+	 * Key under which {@code CronTriggerFactoryBean} stores the job detail of a trigger.
+	 */
+	private static final String JOB_DETAIL_KEY = "jobDetail";
+
+	private static final Log logger = LogFactory.getLog(TriggerCoalescer.class);
+
+	private final Map<JobKey, JobDetail> jobDetails = new LinkedHashMap<>();
+
+	private final List<Trigger> triggers = new ArrayList<>();
+
+	TriggerCoalescer(List<JobDetail> jobDetails, List<Trigger> triggers, int minGroupSize) {
+		if (jobDetails != null) {
+			for (JobDetail jobDetail : jobDetails) {
+				this.jobDetails.put(jobDetail.getKey(), jobDetail);
+			}
+		}
+		Map<String, List<Trigger>> groups = new LinkedHashMap<>();
+		Date now = new Date();
+		for (Trigger trigger : triggers) {
+			String schedule = getSchedule(trigger, now);
+			if (schedule == null) {
+				this.triggers.add(trigger);
+				continue;
+			}
+			List<Trigger> group = groups.get(schedule);
+			if (group == null) {
+				group = new ArrayList<>();
+				groups.put(schedule, group);
+			}
+			group.add(trigger);
+		}
+		for (Map.Entry<String, List<Trigger>> entry : groups.entrySet()) {
+			List<Trigger> group = entry.getValue();
+			if (group.size() < minGroupSize) {
+				this.triggers.addAll(group);
+			}
+			else {
+				coalesce(entry.getKey(), group);
+			}
+		}
+	}
+
+	/**
+	 * Return the schedule identifying the coalescing group of the given trigger, or
+	 * {@code null} if the trigger cannot be coalesced.
+	 */
+	private String getSchedule(Trigger trigger, Date now) {
+		if (!(trigger instanceof CronTriggerImpl) || trigger.getEndTime() != null
+				|| trigger.getStartTime().after(now) || trigger.getJobKey() == null) {
+			return null;
+		}
+		for (String key : trigger.getJobDataMap().getKeys()) {
+			if (!JOB_DETAIL_KEY.equals(key)) {
+				return null;
+			}
+		}
+		JobDetail jobDetail = getJobDetail(trigger);
+		if (jobDetail == null || jobDetail.isConcurrentExectionDisallowed()
+				|| jobDetail.isPersistJobDataAfterExecution()) {
+			return null;
+		}
+		CronTrigger cronTrigger = (CronTrigger) trigger;
+		return cronTrigger.getCronExpression() + " " + cronTrigger.getTimeZone().getID()
+				+ " " + trigger.getCalendarName() + " " + trigger.getMisfireInstruction()
+				+ " " + trigger.getPriority();
+	}
+
+	private JobDetail getJobDetail(Trigger trigger) {
+		Object jobDetail = trigger.getJobDataMap().get(JOB_DETAIL_KEY);
+		if (jobDetail instanceof JobDetail) {
+			return (JobDetail) jobDetail;
+		}
+		return this.jobDetails.get(trigger.getJobKey());
+	}
+
+	private void coalesce(String schedule, List<Trigger> group) {
+		List<JobDetail> members = new ArrayList<>(group.size());
+		StringBuilder name = new StringBuilder(schedule);
+		Date startTime = group.get(0).getStartTime();
+		for (Trigger trigger : group) {
+			JobDetail jobDetail = getJobDetail(trigger);
+			if (!jobDetail.isDurable()) {
+				jobDetail = jobDetail.getJobBuilder().storeDurably().build();
+			}
+			this.jobDetails.put(jobDetail.getKey(), jobDetail);
+			members.add(jobDetail);
+			name.append(' ').append(trigger.getKey());
+			if (trigger.getStartTime().before(startTime)) {
+				startTime = trigger.getStartTime();
+			}
+		}
+		String id = "coalesced-" + UUID.nameUUIDFromBytes(
+				name.toString().getBytes(StandardCharsets.UTF_8));
+		JobDetail jobDetail = JobBuilder.newJob(CoalescingJob.class).withIdentity(id, GROUP)
+				.storeDurably().build();
+		CoalescingJob.setMembers(jobDetail.getJobDataMap(), members);
+		this.jobDetails.put(jobDetail.getKey(), jobDetail);
+		Trigger first = group.get(0);
+		this.triggers.add(TriggerBuilder.newTrigger().withIdentity(id, GROUP)
+				.forJob(jobDetail).startAt(startTime).modifiedByCalendar(first.getCalendarName())
+				.withPriority(first.getPriority()).withSchedule(first.getScheduleBuilder())
+				.build());
+		if (logger.isDebugEnabled()) {
+			logger.debug("Coalesced " + group.size() + " triggers with schedule '"
+					+ schedule + "' into trigger " + GROUP + "." + id);
+		}
+	}
+
+	List<JobDetail> getJobDetails() {
+		return new ArrayList<>(this.jobDetails.values());
+	}
+
+	List<Trigger> getTriggers() {
+		return this.triggers;
+	}
+
+}
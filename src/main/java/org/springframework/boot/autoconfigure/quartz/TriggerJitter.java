@@ -0,0 +1,172 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.triggers.AbstractTrigger;
+import org.quartz.impl.triggers.CalendarIntervalTriggerImpl;
+import org.quartz.impl.triggers.CronTriggerImpl;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+
+/**
+ * Shifts trigger beans by an offset derived from the hash of their key, so that triggers
+ * sharing a schedule such as {@code 0 0 * * * ?} spread their fires evenly over a
+ * window instead of firing all at once. The offset of a trigger is the same on every
+ * start and every node, and each trigger keeps its own schedule, only shifted.
+ * <p>
+ * Cron triggers are shifted by rewriting their seconds and minutes fields, which is only
+ * possible when the seconds field is a single value and the minutes field is a single
+ * value, a {@code start/increment} dividing the hour, or {@code *}. The offset is capped
+ * so that fires stay within the same period of the minutes field, the hours and days of
+ * the schedule are never changed. Simple and calendar interval triggers are shifted by
+ * moving their start time. Other triggers are left alone.
+ *
+ * @see QuartzProperties.Jitter
+ */
+class TriggerJitter {
+
+	private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+	private static final Pattern MINUTES = Pattern.compile("(\\d+)(?:/(\\d+))?");
+
+	private static final Log logger = LogFactory.getLog(TriggerJitter.class);
+
+	private final long windowMillis;
+
+	private final boolean allGroups;
+
+	private final Collection<String> groups;
+
+	TriggerJitter(long windowMillis, boolean allGroups, Collection<String> groups) {
+		this.windowMillis = windowMillis;
+		this.allGroups = allGroups;
+		this.groups = groups;
+	}
+
+	List<Trigger> apply(List<Trigger> triggers) {
+		List<Trigger> result = new ArrayList<>(triggers.size());
+		for (Trigger trigger : triggers) {
+			result.add(isEligible(trigger) ? shift(trigger) : trigger);
+		}
+		return result;
+	}
+
+	private boolean isEligible(Trigger trigger) {
+		return this.windowMillis > 0 && (this.allGroups
+				|| (this.groups != null && this.groups.contains(trigger.getKey().getGroup())));
+	}
+
+	private Trigger shift(Trigger trigger) {
+		if (trigger instanceof CronTriggerImpl) {
+			return shiftCron((CronTriggerImpl) trigger);
+		}
+		if (trigger instanceof SimpleTriggerImpl
+				|| trigger instanceof CalendarIntervalTriggerImpl) {
+			long offset = getOffset(trigger.getKey(), this.windowMillis);
+			AbstractTrigger<?> shifted = (AbstractTrigger<?>) ((AbstractTrigger<?>) trigger).clone();
+			shifted.setStartTime(new Date(trigger.getStartTime().getTime() + offset));
+			return log(trigger, offset + "ms", shifted);
+		}
+		return log(trigger, null, trigger);
+	}
+
+	private Trigger shiftCron(CronTriggerImpl trigger) {
+		String[] fields = trigger.getCronExpression().trim().split("\\s+");
+		if (fields.length < 6 || !NUMBER.matcher(fields[0]).matches()) {
+			return log(trigger, null, trigger);
+		}
+		int second = Integer.parseInt(fields[0]);
+		String increment = null;
+		int start;
+		int periodSeconds;
+		if ("*".equals(fields[1])) {
+			start = second;
+			periodSeconds = 60;
+		}
+		else {
+			Matcher minutes = MINUTES.matcher(fields[1]);
+			if (!minutes.matches()) {
+				return log(trigger, null, trigger);
+			}
+			int minute = Integer.parseInt(minutes.group(1));
+			increment = minutes.group(2);
+			int periodMinutes = (increment != null) ? Integer.parseInt(increment) : 60;
+			if (periodMinutes <= 0 || 60 % periodMinutes != 0 || minute >= periodMinutes) {
+				return log(trigger, null, trigger);
+			}
+			start = minute * 60 + second;
+			periodSeconds = periodMinutes * 60;
+		}
+		long bound = Math.min(this.windowMillis / 1000, periodSeconds - start);
+		if (bound <= 1) {
+			return trigger;
+		}
+		int shiftedStart = start + (int) getOffset(trigger.getKey(), bound);
+		fields[0] = String.valueOf(shiftedStart % 60);
+		if (!"*".equals(fields[1])) {
+			fields[1] = (shiftedStart / 60) + ((increment != null) ? "/" + increment : "");
+		}
+		CronTriggerImpl shifted = (CronTriggerImpl) trigger.clone();
+		try {
+			shifted.setCronExpression(String.join(" ", fields));
+		}
+		catch (ParseException ex) {
+			throw new IllegalStateException("Invalid shifted cron expression for trigger "
+					+ trigger.getKey(), ex);
+		}
+		return log(trigger, (shiftedStart - start) + "s", shifted);
+	}
+
+	private Trigger log(Trigger trigger, String offset, Trigger shifted) {
+		if (logger.isDebugEnabled()) {
+			if (offset != null) {
+				logger.debug("Shifted trigger " + trigger.getKey() + " by " + offset);
+			}
+			else {
+				logger.debug("Cannot shift trigger " + trigger.getKey() + ", leaving it alone");
+			}
+		}
+		return shifted;
+	}
+
+	/**
+	 * Return the offset of the trigger with the given key, between zero (inclusive) and
+	 * the given bound (exclusive).
+	 */
+	static long getOffset(TriggerKey key, long bound) {
+		int hash = key.getGroup().hashCode() * 31 + key.getName().hashCode();
+		// Murmur3 finalizer, spreads keys differing in their last characters only
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		hash *= 0xc2b2ae35;
+		hash ^= hash >>> 16;
+		return Math.floorMod((long) hash, bound);
+	}
+
+}
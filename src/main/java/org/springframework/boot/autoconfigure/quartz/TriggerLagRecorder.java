@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.listeners.JobListenerSupport;
+
+/**
+ * Job listener recording, per job group, how late jobs start: the lag from the scheduled
+ * fire time to the time the job store fired the trigger, in milliseconds, into a
+ * {@link LatencyHistogram histogram}.
+ * <p>
+ * The scheduler thread only acquires triggers once a worker thread is available and
+ * hands fired triggers over to it right away, so a shortage of worker threads shows as
+ * lag as well, together with slow trigger acquisition.
+ */
+public class TriggerLagRecorder extends JobListenerSupport {
+
+	private final ConcurrentMap<String, Histograms> groups = new ConcurrentHashMap<>();
+
+	@Override
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public void jobToBeExecuted(JobExecutionContext context) {
+		Histograms histograms = getHistograms(context.getJobDetail().getKey().getGroup());
+		Date fireTime = context.getFireTime();
+		Date scheduledFireTime = context.getScheduledFireTime();
+		if (fireTime != null && scheduledFireTime != null) {
+			histograms.lag.record(fireTime.getTime() - scheduledFireTime.getTime());
+		}
+	}
+
+	/**
+	 * Return the histograms recorded so far, by job group.
+	 * @return the histograms by job group
+	 */
+	public Map<String, Histograms> getHistograms() {
+		return Collections.unmodifiableMap(this.groups);
+	}
+
+	private Histograms getHistograms(String group) {
+		Histograms histograms = this.groups.get(group);
+		if (histograms == null) {
+			histograms = new Histograms();
+			Histograms existing = this.groups.putIfAbsent(group, histograms);
+			if (existing != null) {
+				return existing;
+			}
+		}
+		return histograms;
+	}
+
+	/**
+	 * Histograms of a job group.
+	 */
+	public static final class Histograms {
+
+		private final LatencyHistogram lag = new LatencyHistogram();
+
+		/**
+		 * Return the lag of fires, in milliseconds.
+		 * @return the lag histogram
+		 */
+		public LatencyHistogram getLag() {
+			return this.lag;
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+
+/**
+ * {@link Reader} decoding a memory-mapped script file in bulk with a
+ * {@link CharsetDecoder}, instead of copying it through an {@code InputStream} and an
+ * {@code InputStreamReader}. Malformed and unmappable input is replaced, as
+ * {@link EncodedResource#getReader()} does.
+ * <p>The mapping is released when the reader is garbage collected, the JDK offering no
+ * way to release it explicitly.
+ */
+final class MappedScriptReader extends Reader {
+
+	/**
+	 * Minimum size of the files worth mapping; smaller ones are read through
+	 * {@link EncodedResource#getReader()}.
+	 */
+	static final long MAPPING_THRESHOLD = 256 * 1024;
+
+	private final ByteBuffer bytes;
+
+	private final CharsetDecoder decoder;
+
+	private boolean decoded;
+
+	private boolean flushed;
+
+	private MappedScriptReader(ByteBuffer bytes, Charset charset) {
+		this.bytes = bytes;
+		this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Open a reader of the given script, mapping it if it is a file of at least
+	 * {@link #MAPPING_THRESHOLD} bytes.
+	 * @param resource the script and its encoding
+	 * @return a reader of the script
+	 * @throws IOException in case of I/O errors
+	 */
+	static Reader open(EncodedResource resource) throws IOException {
+		File file = getFile(resource.getResource());
+		if (file == null || file.length() < MAPPING_THRESHOLD || file.length() > Integer.MAX_VALUE) {
+			return resource.getReader();
+		}
+		Charset charset = (resource.getCharset() != null) ? resource.getCharset()
+				: (resource.getEncoding() != null) ? Charset.forName(resource.getEncoding())
+						: Charset.defaultCharset();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return new MappedScriptReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+					charset);
+		}
+	}
+
+	private static File getFile(Resource resource) {
+		try {
+			return resource.getFile();
+		}
+		catch (IOException ex) {
+			// not in the file system, a class path resource in a jar for instance
+			return null;
+		}
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (this.flushed) {
+			return -1;
+		}
+		CharBuffer target = CharBuffer.wrap(cbuf, off, len);
+		if (!this.decoded) {
+			CoderResult result = this.decoder.decode(this.bytes, target, true);
+			if (result.isError()) {
+				result.throwException();
+			}
+			this.decoded = result.isUnderflow();
+		}
+		if (this.decoded && this.decoder.flush(target).isUnderflow()) {
+			this.flushed = true;
+		}
+		int read = target.position() - off;
+		return (read == 0 && this.flushed) ? -1 : read;
+	}
+
+	@Override
+	public void close() {
+	}
+
+}
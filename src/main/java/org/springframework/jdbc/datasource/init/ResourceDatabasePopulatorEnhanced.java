@@ -17,13 +17,24 @@
 // copy from spring-jdbc-5.3.18:\org\springframework\jdbc\datasource\init\ResourceDatabasePopulator.java
 package org.springframework.jdbc.datasource.init;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.sql.DataSource;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.EncodedResource;
 import org.springframework.util.Assert;
@@ -56,8 +67,16 @@ import org.springframework.util.StringUtils;
  */
 public class ResourceDatabasePopulatorEnhanced implements DatabasePopulator {
 
+	private static final Log logger = LogFactory.getLog(ResourceDatabasePopulatorEnhanced.class);
+
+	private static final Pattern CREATE_TABLE = Pattern.compile(
+			"^create\\s+(?:\\w+\\s+)*?table\\s+(?:if\\s+not\\s+exists\\s+)?([^\\s(]+)",
+			Pattern.CASE_INSENSITIVE);
+
 	List<Resource> scripts = new ArrayList<>();
 
+	private final Map<Resource, List<String>> splitScripts = new HashMap<>();
+
 	private String sqlScriptEncoding;
 
 	private String separator = ScriptUtilsEnhanced.DEFAULT_STATEMENT_SEPARATOR;
@@ -72,6 +91,18 @@ public class ResourceDatabasePopulatorEnhanced implements DatabasePopulator {
 
 	private boolean ignoreFailedDrops = false;
 
+	private int batchSize = 1;
+
+	private DataSource dataSource;
+
+	private int parallelism = 1;
+
+	private boolean recordTimings = false;
+
+	private int slowestStatementsLogged = 0;
+
+	private volatile ScriptExecutionReport executionReport;
+
 
 	/**
 	 * Construct a new {@code ResourceDatabasePopulator} with default settings.
@@ -122,6 +153,18 @@ public class ResourceDatabasePopulatorEnhanced implements DatabasePopulator {
 		this.scripts.add(script);
 	}
 
+	/**
+	 * Add a script whose statements are already known, typically split at build time.
+	 * The statements are executed as is, the script is neither read nor parsed.
+	 * @param script the SQL script the statements were split from (never {@code null})
+	 * @param statements the statements of the script (never {@code null})
+	 */
+	public void addScript(Resource script, List<String> statements) {
+		Assert.notNull(statements, "'statements' must not be null");
+		addScript(script);
+		this.splitScripts.put(script, statements);
+	}
+
 	/**
 	 * Add multiple scripts to execute to initialize or clean up the database.
 	 * @param scripts the scripts to execute (never {@code null})
@@ -140,6 +183,7 @@ public class ResourceDatabasePopulatorEnhanced implements DatabasePopulator {
 		assertContentsOfScriptArray(scripts);
 		// Ensure that the list is modifiable
 		this.scripts = new ArrayList<>(Arrays.asList(scripts));
+		this.splitScripts.clear();
 	}
 
 	private void assertContentsOfScriptArray(Resource... scripts) {
@@ -241,6 +285,74 @@ public class ResourceDatabasePopulatorEnhanced implements DatabasePopulator {
 		this.ignoreFailedDrops = ignoreFailedDrops;
 	}
 
+	/**
+	 * Set the maximum number of statements sent to the database in a single JDBC batch.
+	 * <p>Defaults to {@code 1}, executing statements one by one. Batches are only used
+	 * if the driver supports batch updates; statements of a failed batch are handled
+	 * as if executed one by one, so that {@link #setContinueOnError continueOnError}
+	 * and {@link #setIgnoreFailedDrops ignoreFailedDrops} apply to each of them.
+	 * @param batchSize the maximum number of statements per batch
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the {@code DataSource} additional connections are borrowed from when
+	 * independent statements are executed concurrently.
+	 * @param dataSource the source of additional connections
+	 * @see #setParallelism(int)
+	 */
+	public void setDataSource(DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * Set the maximum number of connections executing independent statements
+	 * concurrently.
+	 * <p>Defaults to {@code 1}, executing statements in script order on the connection
+	 * being populated. With a higher value and a {@link #setDataSource DataSource}, runs
+	 * of consecutive {@code CREATE INDEX} statements are executed concurrently, one
+	 * table per connection, while any other statement waits for the preceding ones, so
+	 * that table creations and foreign keys keep the script order. This requires the
+	 * populated connection to be in auto-commit mode, statements are executed in script
+	 * order otherwise.
+	 * @param parallelism the maximum number of connections, including the populated one
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Flag to indicate that the execution time, update count and failure of each
+	 * statement should be recorded, and returned by {@link #getExecutionReport()}.
+	 * <p>Defaults to {@code false}.
+	 * @param recordTimings {@code true} to record statement timings
+	 */
+	public void setRecordTimings(boolean recordTimings) {
+		this.recordTimings = recordTimings;
+	}
+
+	/**
+	 * Set the number of slowest statements logged at info level after each
+	 * {@link #populate population}, whether it succeeded or not. A positive number
+	 * implies {@link #setRecordTimings recording timings}.
+	 * <p>Defaults to {@code 0}, logging none.
+	 * @param slowestStatementsLogged the number of statements to log
+	 */
+	public void setSlowestStatementsLogged(int slowestStatementsLogged) {
+		this.slowestStatementsLogged = slowestStatementsLogged;
+	}
+
+	/**
+	 * Return the statement timings of the last {@link #populate population}, if
+	 * {@link #setRecordTimings recorded}.
+	 * @return the report of the last population, or {@code null}
+	 */
+	public ScriptExecutionReport getExecutionReport() {
+		return this.executionReport;
+	}
+
 
 	/**
 	 * {@inheritDoc}
@@ -249,10 +361,61 @@ public class ResourceDatabasePopulatorEnhanced implements DatabasePopulator {
 	@Override
 	public void populate(Connection connection) throws ScriptException {
 		Assert.notNull(connection, "'connection' must not be null");
+		ScriptExecutionReport report = (this.recordTimings || this.slowestStatementsLogged > 0)
+				? new ScriptExecutionReport() : null;
+		this.executionReport = report;
+		try {
+			for (Resource script : this.scripts) {
+				EncodedResource encodedScript = new EncodedResource(script, this.sqlScriptEncoding);
+				List<String> statements = this.splitScripts.get(script);
+				ScriptUtilsEnhanced.executeSqlScript(connection, encodedScript, statements, this.continueOnError,
+						this.ignoreFailedDrops, this.commentPrefixes, this.separator, this.blockCommentStartDelimiter,
+						this.blockCommentEndDelimiter, this.batchSize, this.dataSource, this.parallelism, report);
+			}
+		}
+		finally {
+			if (report != null && this.slowestStatementsLogged > 0 && logger.isInfoEnabled()) {
+				logger.info(report.describeSlowest(this.slowestStatementsLogged));
+			}
+		}
+	}
+
+	/**
+	 * Return the names of the tables created by the {@code CREATE TABLE} statements of
+	 * the configured scripts, as written in the scripts, possibly qualified or quoted.
+	 * @return the names of the created tables, in script order
+	 * @throws ScriptException if a script cannot be read or parsed
+	 */
+	public Set<String> getCreatedTables() throws ScriptException {
+		Set<String> tables = new LinkedHashSet<>();
 		for (Resource script : this.scripts) {
 			EncodedResource encodedScript = new EncodedResource(script, this.sqlScriptEncoding);
-			ScriptUtilsEnhanced.executeSqlScript(connection, encodedScript, this.continueOnError, this.ignoreFailedDrops,
-					this.commentPrefixes, this.separator, this.blockCommentStartDelimiter, this.blockCommentEndDelimiter);
+			List<String> statements = this.splitScripts.get(script);
+			if (statements != null) {
+				for (String statement : statements) {
+					addCreatedTable(tables, statement);
+				}
+				continue;
+			}
+			try (Reader reader = MappedScriptReader.open(encodedScript)) {
+				SqlScriptTokenizer tokenizer = new SqlScriptTokenizer(encodedScript, reader, this.separator,
+						this.commentPrefixes, this.blockCommentStartDelimiter, this.blockCommentEndDelimiter);
+				String statement;
+				while ((statement = tokenizer.nextStatement()) != null) {
+					addCreatedTable(tables, statement);
+				}
+			}
+			catch (IOException ex) {
+				throw new CannotReadScriptException(encodedScript, ex);
+			}
+		}
+		return tables;
+	}
+
+	private void addCreatedTable(Set<String> tables, String statement) {
+		Matcher matcher = CREATE_TABLE.matcher(statement);
+		if (matcher.find()) {
+			tables.add(matcher.group(1));
 		}
 	}
 
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Matches the statement separator, the single-line comment prefixes and the block
+ * comment start delimiter of a script at a given position. The delimiters are indexed by
+ * their first character once, so that most characters of a script are rejected by a
+ * single array lookup instead of one {@code startsWith} call per delimiter. Delimiters
+ * sharing their first character are tried in the order the script splitting loop
+ * checks them: separator, comment prefixes, block comment start.
+ */
+final class ScriptDelimiterMatcher {
+
+	private static final int ASCII = 128;
+
+	private final Delimiter[][] ascii = new Delimiter[ASCII][];
+
+	private final Map<Character, Delimiter[]> others = new HashMap<>();
+
+	private final int maxLength;
+
+	/**
+	 * Create a new matcher.
+	 * @param separator the statement separator
+	 * @param commentPrefixes the prefixes of single-line comments
+	 * @param blockCommentStartDelimiter the start delimiter of block comments
+	 */
+	ScriptDelimiterMatcher(String separator, String[] commentPrefixes,
+			String blockCommentStartDelimiter) {
+
+		Map<Character, List<Delimiter>> index = new HashMap<>();
+		add(index, separator, Type.SEPARATOR);
+		for (String commentPrefix : commentPrefixes) {
+			add(index, commentPrefix, Type.COMMENT);
+		}
+		add(index, blockCommentStartDelimiter, Type.BLOCK_COMMENT);
+		int maxLength = 0;
+		for (Map.Entry<Character, List<Delimiter>> entry : index.entrySet()) {
+			Delimiter[] delimiters = entry.getValue().toArray(new Delimiter[0]);
+			char c = entry.getKey();
+			if (c < ASCII) {
+				this.ascii[c] = delimiters;
+			}
+			else {
+				this.others.put(c, delimiters);
+			}
+			for (Delimiter delimiter : delimiters) {
+				maxLength = Math.max(maxLength, delimiter.text.length());
+			}
+		}
+		this.maxLength = maxLength;
+	}
+
+	private static void add(Map<Character, List<Delimiter>> index, String text, Type type) {
+		if (StringUtils.hasLength(text)) {
+			List<Delimiter> delimiters = index.get(text.charAt(0));
+			if (delimiters == null) {
+				delimiters = new ArrayList<>(2);
+				index.put(text.charAt(0), delimiters);
+			}
+			delimiters.add(new Delimiter(text, type));
+		}
+	}
+
+	/**
+	 * Return the length of the longest delimiter, the number of characters from the
+	 * matched position that {@link #match} may look at.
+	 */
+	int getMaxLength() {
+		return this.maxLength;
+	}
+
+	/**
+	 * Return the type of the delimiter starting at the given offset of the given text.
+	 * @param text the text to search
+	 * @param offset the offset of the character to match
+	 * @return the type of the delimiter, or {@code null} if none starts there
+	 */
+	Type match(CharSequence text, int offset) {
+		char c = text.charAt(offset);
+		Delimiter[] delimiters = (c < ASCII) ? this.ascii[c] : this.others.get(c);
+		if (delimiters != null) {
+			for (Delimiter delimiter : delimiters) {
+				if (delimiter.matches(text, offset)) {
+					return delimiter.type;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The types of delimiters.
+	 */
+	enum Type {
+
+		SEPARATOR, COMMENT, BLOCK_COMMENT
+
+	}
+
+	private static final class Delimiter {
+
+		private final String text;
+
+		private final Type type;
+
+		Delimiter(String text, Type type) {
+			this.text = text;
+			this.type = type;
+		}
+
+		boolean matches(CharSequence script, int offset) {
+			if (offset + this.text.length() > script.length()) {
+				return false;
+			}
+			// the first character is already matched by the index
+			for (int i = 1; i < this.text.length(); i++) {
+				if (script.charAt(offset + i) != this.text.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.core.io.support.EncodedResource;
+
+/**
+ * Timings of the statements executed by a {@link ResourceDatabasePopulatorEnhanced},
+ * recorded when {@link ResourceDatabasePopulatorEnhanced#setRecordTimings timings are
+ * recorded}. Statements sent in a JDBC batch are recorded as a single entry covering
+ * the whole batch.
+ */
+public final class ScriptExecutionReport {
+
+	/**
+	 * Maximum length of the SQL text kept for each statement.
+	 */
+	static final int MAX_SQL_LENGTH = 100;
+
+	private final List<StatementTiming> statements = new ArrayList<>();
+
+	synchronized void record(EncodedResource resource, int statementNumber, int statementCount,
+			String sql, long durationNanos, int updateCount, SQLException failure) {
+		this.statements.add(new StatementTiming(String.valueOf(resource), statementNumber, statementCount,
+				truncate(sql), durationNanos / 1000, updateCount, failure));
+	}
+
+	private static String truncate(String sql) {
+		return (sql.length() <= MAX_SQL_LENGTH) ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+	}
+
+	/**
+	 * Return the timings of the executed statements, in execution order.
+	 * @return the statement timings
+	 */
+	public synchronized List<StatementTiming> getStatements() {
+		return Collections.unmodifiableList(new ArrayList<>(this.statements));
+	}
+
+	/**
+	 * Return the timings of the slowest statements, slowest first.
+	 * @param count the maximum number of statements to return
+	 * @return the statement timings
+	 */
+	public List<StatementTiming> getSlowest(int count) {
+		List<StatementTiming> statements = new ArrayList<>(getStatements());
+		statements.sort(Comparator.comparingLong(StatementTiming::getDurationMicros).reversed());
+		return statements.subList(0, Math.min(count, statements.size()));
+	}
+
+	/**
+	 * Return the total execution time of the statements, in microseconds. Statements
+	 * executed concurrently are all counted.
+	 * @return the total execution time
+	 */
+	public synchronized long getTotalMicros() {
+		long total = 0;
+		for (StatementTiming statement : this.statements) {
+			total += statement.getDurationMicros();
+		}
+		return total;
+	}
+
+	/**
+	 * Return a description of the slowest statements, one per line.
+	 * @param count the maximum number of statements to describe
+	 * @return the description
+	 */
+	public String describeSlowest(int count) {
+		List<StatementTiming> slowest = getSlowest(count);
+		StringBuilder description = new StringBuilder("Slowest ").append(slowest.size()).append(" of ")
+				.append(getStatements().size()).append(" statements (").append(getTotalMicros())
+				.append(" us in total):");
+		for (StatementTiming statement : slowest) {
+			description.append("\n  ").append(statement);
+		}
+		return description.toString();
+	}
+
+	/**
+	 * Timing of a statement, or of a JDBC batch of statements.
+	 */
+	public static final class StatementTiming {
+
+		private final String script;
+
+		private final int statementNumber;
+
+		private final int statementCount;
+
+		private final String sql;
+
+		private final long durationMicros;
+
+		private final int updateCount;
+
+		private final SQLException failure;
+
+		StatementTiming(String script, int statementNumber, int statementCount, String sql,
+				long durationMicros, int updateCount, SQLException failure) {
+			this.script = script;
+			this.statementNumber = statementNumber;
+			this.statementCount = statementCount;
+			this.sql = sql;
+			this.durationMicros = durationMicros;
+			this.updateCount = updateCount;
+			this.failure = failure;
+		}
+
+		/**
+		 * Return the description of the script the statement belongs to.
+		 * @return the script
+		 */
+		public String getScript() {
+			return this.script;
+		}
+
+		/**
+		 * Return the number of the statement in its script, starting at 1, or of the
+		 * first statement of a batch.
+		 * @return the statement number
+		 */
+		public int getStatementNumber() {
+			return this.statementNumber;
+		}
+
+		/**
+		 * Return the number of statements covered, more than 1 for a batch.
+		 * @return the statement count
+		 */
+		public int getStatementCount() {
+			return this.statementCount;
+		}
+
+		/**
+		 * Return the SQL text of the statement, or of the first statement of a batch,
+		 * truncated to {@value ScriptExecutionReport#MAX_SQL_LENGTH} characters.
+		 * @return the SQL text
+		 */
+		public String getSql() {
+			return this.sql;
+		}
+
+		/**
+		 * Return the execution time, in microseconds.
+		 * @return the execution time
+		 */
+		public long getDurationMicros() {
+			return this.durationMicros;
+		}
+
+		/**
+		 * Return the update count reported by the driver, summed over a batch, or
+		 * {@code -1} if unknown or failed.
+		 * @return the update count
+		 */
+		public int getUpdateCount() {
+			return this.updateCount;
+		}
+
+		/**
+		 * Return the failure of the statement, or {@code null} if it succeeded.
+		 * @return the failure
+		 */
+		public SQLException getFailure() {
+			return this.failure;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder description = new StringBuilder("#").append(this.statementNumber);
+			if (this.statementCount > 1) {
+				description.append("-#").append(this.statementNumber + this.statementCount - 1);
+			}
+			description.append(" of ").append(this.script).append(": ").append(this.durationMicros)
+					.append(" us, ");
+			if (this.failure != null) {
+				description.append("failed (").append(this.failure.getMessage()).append(")");
+			}
+			else {
+				description.append(this.updateCount).append(" updated");
+			}
+			return description.append(": ").append(this.sql).toString();
+		}
+
+	}
+
+}
@@ -19,18 +19,37 @@ package org.springframework.jdbc.datasource.init;
 
 import java.io.IOException;
 import java.io.LineNumberReader;
+import java.io.Reader;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -195,6 +214,9 @@ public abstract class ScriptUtilsEnhanced {
 	 * Execute the given SQL script.
 	 * <p>Statement separators and comments will be removed before executing
 	 * individual statements within the supplied script.
+	 * <p>The script is read and split in a single pass, each statement being executed
+	 * as soon as it is parsed; a parse error is therefore only reported once the
+	 * statements preceding it have been executed.
 	 * <p><strong>Warning</strong>: this method does <em>not</em> release the
 	 * provided {@link Connection}.
 	 * @param connection the JDBC connection to use to execute the script; already
@@ -226,73 +248,179 @@ public abstract class ScriptUtilsEnhanced {
 			boolean ignoreFailedDrops, String[] commentPrefixes, String separator,
 			String blockCommentStartDelimiter, String blockCommentEndDelimiter) throws ScriptException {
 
+		executeSqlScript(connection, resource, continueOnError, ignoreFailedDrops, commentPrefixes, separator,
+				blockCommentStartDelimiter, blockCommentEndDelimiter, 1);
+	}
+
+	/**
+	 * Execute the given SQL script, sending its statements to the database in JDBC
+	 * batches of the given size.
+	 * <p>Statements are executed one by one if the batch size is {@code 1} or less, or
+	 * if the driver does not support batch updates. When a batch fails, the statements
+	 * the driver reports as failed are handled as if they had been executed one by one,
+	 * honoring {@code continueOnError} and {@code ignoreFailedDrops}; the statements it
+	 * did not get to, or the whole batch if the driver does not tell, are then executed
+	 * one by one.
+	 * <p><strong>Warning</strong>: this method does <em>not</em> release the
+	 * provided {@link Connection}.
+	 * @param connection the JDBC connection to use to execute the script; already
+	 * configured and ready to use
+	 * @param resource the resource (potentially associated with a specific encoding)
+	 * to load the SQL script from
+	 * @param continueOnError whether or not to continue without throwing an exception
+	 * in the event of an error
+	 * @param ignoreFailedDrops whether or not to continue in the event of specifically
+	 * an error on a {@code DROP} statement
+	 * @param commentPrefixes the prefixes that identify single-line comments in the
+	 * SQL script (typically "--")
+	 * @param separator the script statement separator
+	 * @param blockCommentStartDelimiter the <em>start</em> block comment delimiter
+	 * @param blockCommentEndDelimiter the <em>end</em> block comment delimiter
+	 * @param batchSize the maximum number of statements per batch
+	 * @throws ScriptException if an error occurred while executing the SQL script
+	 * @see #executeSqlScript(Connection, EncodedResource, boolean, boolean, String[], String, String, String)
+	 */
+	public static void executeSqlScript(Connection connection, EncodedResource resource, boolean continueOnError,
+			boolean ignoreFailedDrops, String[] commentPrefixes, String separator,
+			String blockCommentStartDelimiter, String blockCommentEndDelimiter, int batchSize)
+			throws ScriptException {
+
+		executeSqlScript(connection, resource, null, continueOnError, ignoreFailedDrops, commentPrefixes,
+				separator, blockCommentStartDelimiter, blockCommentEndDelimiter, batchSize, null, 1, null);
+	}
+
+	/**
+	 * Execute the given statements, already split from the given SQL script, in JDBC
+	 * batches of the given size.
+	 * <p>The statements are executed as is, with the same failure handling as
+	 * {@link #executeSqlScript(Connection, EncodedResource, boolean, boolean, String[], String, String, String, int)};
+	 * the script is only used in log and error messages.
+	 * <p><strong>Warning</strong>: this method does <em>not</em> release the
+	 * provided {@link Connection}.
+	 * @param connection the JDBC connection to use to execute the statements; already
+	 * configured and ready to use
+	 * @param resource the resource the statements were split from
+	 * @param statements the statements to execute
+	 * @param continueOnError whether or not to continue without throwing an exception
+	 * in the event of an error
+	 * @param ignoreFailedDrops whether or not to continue in the event of specifically
+	 * an error on a {@code DROP} statement
+	 * @param batchSize the maximum number of statements per batch
+	 * @throws ScriptException if an error occurred while executing the statements
+	 */
+	public static void executeSqlStatements(Connection connection, EncodedResource resource,
+			List<String> statements, boolean continueOnError, boolean ignoreFailedDrops, int batchSize)
+			throws ScriptException {
+
+		Assert.notNull(statements, "'statements' must not be null");
+		executeSqlScript(connection, resource, statements, continueOnError, ignoreFailedDrops, null, null, null,
+				null, batchSize, null, 1, null);
+	}
+
+	/**
+	 * Split the given SQL script into statements, with comments removed and adjacent
+	 * whitespace collapsed, as {@link #executeSqlScript} would execute them.
+	 * @param resource the resource to load the SQL script from
+	 * @param separator the script statement separator
+	 * @param commentPrefixes the prefixes that identify single-line comments in the
+	 * SQL script
+	 * @param blockCommentStartDelimiter the <em>start</em> block comment delimiter
+	 * @param blockCommentEndDelimiter the <em>end</em> block comment delimiter
+	 * @return the statements of the script
+	 * @throws ScriptException if the script cannot be read or parsed
+	 */
+	public static List<String> readStatements(EncodedResource resource, String separator,
+			String[] commentPrefixes, String blockCommentStartDelimiter, String blockCommentEndDelimiter)
+			throws ScriptException {
+
+		List<String> statements = new ArrayList<>();
+		try (Reader reader = MappedScriptReader.open(resource)) {
+			SqlScriptTokenizer tokenizer = new SqlScriptTokenizer(resource, reader, separator, commentPrefixes,
+					blockCommentStartDelimiter, blockCommentEndDelimiter);
+			String statement;
+			while ((statement = tokenizer.nextStatement()) != null) {
+				statements.add(statement);
+			}
+		}
+		catch (IOException ex) {
+			throw new CannotReadScriptException(resource, ex);
+		}
+		return statements;
+	}
+
+	/**
+	 * Execute the given statements, or the statements of the given SQL script if none,
+	 * in JDBC batches of the given size.
+	 * <p>With a {@code parallelism} above {@code 1}, consecutive {@code CREATE INDEX}
+	 * statements are queued and executed concurrently, the ones on the same table in
+	 * script order, on the given connection and on up to {@code parallelism - 1}
+	 * connections borrowed from the given {@code DataSource}. The queued statements are
+	 * completed before any other statement is executed, so that table creations, foreign
+	 * keys and data keep the script order. Statements are only executed concurrently if
+	 * the given connection is in auto-commit mode, otherwise the other connections may
+	 * not see the tables it created.
+	 * @param dataSource the source of the additional connections, or {@code null}
+	 * @param parallelism the maximum number of connections executing statements
+	 * @param report the report recording the timing of each statement, or {@code null}
+	 */
+	static void executeSqlScript(Connection connection, EncodedResource resource, List<String> statements,
+			boolean continueOnError, boolean ignoreFailedDrops, String[] commentPrefixes, String separator,
+			String blockCommentStartDelimiter, String blockCommentEndDelimiter, int batchSize,
+			DataSource dataSource, int parallelism, ScriptExecutionReport report) throws ScriptException {
+
 		try {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Executing SQL script from " + resource);
 			}
 			long startTime = System.currentTimeMillis();
 
-			String script;
-			try {
-				script = readScript(resource, separator, commentPrefixes, blockCommentEndDelimiter);
-			}
-			catch (IOException ex) {
-				throw new CannotReadScriptException(resource, ex);
-			}
-
-			if (separator == null) {
-				separator = DEFAULT_STATEMENT_SEPARATOR;
-			}
-			if (!EOF_STATEMENT_SEPARATOR.equals(separator) &&
-					!containsStatementSeparator(resource, script, separator, commentPrefixes,
-						blockCommentStartDelimiter, blockCommentEndDelimiter)) {
-				separator = FALLBACK_STATEMENT_SEPARATOR;
+			if (batchSize > 1 && !supportsBatchUpdates(connection)) {
+				batchSize = 1;
 			}
-
-			List<String> statements = new ArrayList<>();
-			splitSqlScript(resource, script, separator, commentPrefixes, blockCommentStartDelimiter,
-					blockCommentEndDelimiter, statements);
-
-			int stmtNumber = 0;
-			Statement stmt = connection.createStatement();
-			try {
-				for (String statement : statements) {
-					stmtNumber++;
-					try {
-						stmt.execute(statement);
-						int rowsAffected = stmt.getUpdateCount();
-						if (logger.isDebugEnabled()) {
-							logger.debug(rowsAffected + " returned as update count for SQL: " + statement);
-							SQLWarning warningToLog = stmt.getWarnings();
-							while (warningToLog != null) {
-								logger.debug("SQLWarning ignored: SQL state '" + warningToLog.getSQLState() +
-										"', error code '" + warningToLog.getErrorCode() +
-										"', message [" + warningToLog.getMessage() + "]");
-								warningToLog = warningToLog.getNextWarning();
+			try (Reader reader = (statements != null) ? null : MappedScriptReader.open(resource)) {
+				StatementReader statementReader = (reader != null)
+						? new SqlScriptTokenizer(resource, reader, separator, commentPrefixes,
+								blockCommentStartDelimiter, blockCommentEndDelimiter)::nextStatement
+						: iterate(statements);
+				ScriptExecution execution = new ScriptExecution(connection.createStatement(), resource,
+						continueOnError, ignoreFailedDrops, report);
+				IndependentStatements independent = (parallelism > 1 && dataSource != null
+						&& connection.getAutoCommit()) ? new IndependentStatements(dataSource, parallelism,
+								resource, continueOnError, ignoreFailedDrops, report) : null;
+				try {
+					List<String> batch = new ArrayList<>();
+					String statement;
+					while ((statement = statementReader.nextStatement()) != null) {
+						if (independent != null) {
+							if (independent.add(statement, execution, batch)) {
+								continue;
 							}
+							independent.execute(execution);
 						}
-					}
-					catch (SQLException ex) {
-						boolean dropStatement = StringUtils.startsWithIgnoreCase(statement.trim(), "drop");
-						if (continueOnError || (dropStatement && ignoreFailedDrops)) {
-							if (logger.isDebugEnabled()) {
-								logger.debug(ScriptStatementFailedException.buildErrorMessage(statement, stmtNumber, resource), ex);
-							}
+						if (batchSize <= 1) {
+							execution.execute(statement);
+							continue;
 						}
-						else {
-							throw new ScriptStatementFailedException(statement, stmtNumber, resource, ex);
+						batch.add(statement);
+						if (batch.size() >= batchSize) {
+							execution.executeBatch(batch);
+							batch.clear();
 						}
 					}
+					if (independent != null) {
+						independent.execute(execution);
+					}
+					if (!batch.isEmpty()) {
+						execution.executeBatch(batch);
+					}
 				}
-			}
-			finally {
-				try {
-					stmt.close();
-				}
-				catch (Throwable ex) {
-					logger.trace("Could not close JDBC Statement", ex);
+				finally {
+					execution.close();
 				}
 			}
+			catch (IOException ex) {
+				throw new CannotReadScriptException(resource, ex);
+			}
 
 			long elapsedTime = System.currentTimeMillis() - startTime;
 			if (logger.isDebugEnabled()) {
@@ -308,6 +436,21 @@ public abstract class ScriptUtilsEnhanced {
 		}
 	}
 
+	private static StatementReader iterate(List<String> statements) {
+		Iterator<String> iterator = statements.iterator();
+		return () -> iterator.hasNext() ? iterator.next() : null;
+	}
+
+	private static boolean supportsBatchUpdates(Connection connection) {
+		try {
+			return connection.getMetaData().supportsBatchUpdates();
+		}
+		catch (SQLException ex) {
+			logger.debug("Could not determine whether the driver supports batch updates", ex);
+			return false;
+		}
+	}
+
 	/**
 	 * Read a script from the provided resource, using the supplied comment prefixes
 	 * and statement separator, and build a {@code String} containing the lines.
@@ -326,7 +469,7 @@ public abstract class ScriptUtilsEnhanced {
 	static String readScript(EncodedResource resource, String separator,
 			String[] commentPrefixes, String blockCommentEndDelimiter) throws IOException {
 
-		try (LineNumberReader lnr = new LineNumberReader(resource.getReader())) {
+		try (LineNumberReader lnr = new LineNumberReader(MappedScriptReader.open(resource))) {
 			return readScript(lnr, commentPrefixes, separator, blockCommentEndDelimiter);
 		}
 	}
@@ -453,10 +596,12 @@ public abstract class ScriptUtilsEnhanced {
 	 * (typically <code>"*&#47;"</code>)
 	 * @since 5.2.16
 	 */
-	private static boolean containsStatementSeparator(EncodedResource resource, String script,
+	static boolean containsStatementSeparator(EncodedResource resource, String script,
 			String separator, String[] commentPrefixes, String blockCommentStartDelimiter,
 			String blockCommentEndDelimiter) throws ScriptException {
 
+		ScriptDelimiterMatcher delimiters = new ScriptDelimiterMatcher(separator, commentPrefixes,
+				blockCommentStartDelimiter);
 		boolean inSingleQuote = false;
 		boolean inDoubleQuote = false;
 		boolean inEscape = false;
@@ -479,10 +624,11 @@ public abstract class ScriptUtilsEnhanced {
 				inDoubleQuote = !inDoubleQuote;
 			}
 			if (!inSingleQuote && !inDoubleQuote) {
-				if (script.startsWith(separator, i)) {
+				ScriptDelimiterMatcher.Type delimiter = delimiters.match(script, i);
+				if (delimiter == ScriptDelimiterMatcher.Type.SEPARATOR) {
 					return true;
 				}
-				else if (startsWithAny(script, commentPrefixes, i)) {
+				else if (delimiter == ScriptDelimiterMatcher.Type.COMMENT) {
 					// Skip over any content from the start of the comment to the EOL
 					int indexOfNextNewline = script.indexOf('\n', i);
 					if (indexOfNextNewline > i) {
@@ -494,7 +640,7 @@ public abstract class ScriptUtilsEnhanced {
 						break;
 					}
 				}
-				else if (script.startsWith(blockCommentStartDelimiter, i)) {
+				else if (delimiter == ScriptDelimiterMatcher.Type.BLOCK_COMMENT) {
 					// Skip over any block comments
 					int indexOfCommentEnd = script.indexOf(blockCommentEndDelimiter, i);
 					if (indexOfCommentEnd > i) {
@@ -643,6 +789,8 @@ public abstract class ScriptUtilsEnhanced {
 		Assert.hasText(blockCommentStartDelimiter, "'blockCommentStartDelimiter' must not be null or empty");
 		Assert.hasText(blockCommentEndDelimiter, "'blockCommentEndDelimiter' must not be null or empty");
 
+		ScriptDelimiterMatcher delimiters = new ScriptDelimiterMatcher(separator, commentPrefixes,
+				blockCommentStartDelimiter);
 		StringBuilder sb = new StringBuilder();
 		boolean inSingleQuote = false;
 		boolean inDoubleQuote = false;
@@ -668,7 +816,8 @@ public abstract class ScriptUtilsEnhanced {
 				inDoubleQuote = !inDoubleQuote;
 			}
 			if (!inSingleQuote && !inDoubleQuote) {
-				if (script.startsWith(separator, i)) {
+				ScriptDelimiterMatcher.Type delimiter = delimiters.match(script, i);
+				if (delimiter == ScriptDelimiterMatcher.Type.SEPARATOR) {
 					// We've reached the end of the current statement
 					if (sb.length() > 0) {
 						statements.add(sb.toString());
@@ -677,7 +826,7 @@ public abstract class ScriptUtilsEnhanced {
 					i += separator.length() - 1;
 					continue;
 				}
-				else if (startsWithAny(script, commentPrefixes, i)) {
+				else if (delimiter == ScriptDelimiterMatcher.Type.COMMENT) {
 					// Skip over any content from the start of the comment to the EOL
 					int indexOfNextNewline = script.indexOf('\n', i);
 					if (indexOfNextNewline > i) {
@@ -689,7 +838,7 @@ public abstract class ScriptUtilsEnhanced {
 						break;
 					}
 				}
-				else if (script.startsWith(blockCommentStartDelimiter, i)) {
+				else if (delimiter == ScriptDelimiterMatcher.Type.BLOCK_COMMENT) {
 					// Skip over any block comments
 					int indexOfCommentEnd = script.indexOf(blockCommentEndDelimiter, i);
 					if (indexOfCommentEnd > i) {
@@ -728,4 +877,367 @@ public abstract class ScriptUtilsEnhanced {
 		return false;
 	}
 
+	/**
+	 * Source of the statements of a script, returning {@code null} after the last one.
+	 */
+	private interface StatementReader {
+
+		String nextStatement() throws IOException;
+
+	}
+
+	/**
+	 * Executes the statements of a script, one by one or in batches, and handles their
+	 * failures.
+	 */
+	private static final class ScriptExecution {
+
+		private final Statement stmt;
+
+		private final EncodedResource resource;
+
+		private final boolean continueOnError;
+
+		private final boolean ignoreFailedDrops;
+
+		private final ScriptExecutionReport report;
+
+		private int stmtNumber;
+
+		ScriptExecution(Statement stmt, EncodedResource resource, boolean continueOnError,
+				boolean ignoreFailedDrops, ScriptExecutionReport report) {
+			this.stmt = stmt;
+			this.resource = resource;
+			this.continueOnError = continueOnError;
+			this.ignoreFailedDrops = ignoreFailedDrops;
+			this.report = report;
+		}
+
+		void execute(String statement) {
+			this.stmtNumber++;
+			execute(statement, this.stmtNumber);
+		}
+
+		/**
+		 * Return the number of the next statement, executed later or elsewhere.
+		 */
+		int nextStatementNumber() {
+			return ++this.stmtNumber;
+		}
+
+		void executeBatch(List<String> statements) throws SQLException {
+			int first = this.stmtNumber + 1;
+			this.stmtNumber += statements.size();
+			long startTime = System.nanoTime();
+			int[] updateCounts;
+			try {
+				for (String statement : statements) {
+					this.stmt.addBatch(statement);
+				}
+				updateCounts = this.stmt.executeBatch();
+			}
+			catch (BatchUpdateException ex) {
+				record(first, statements, startTime, -1, ex);
+				clearBatch();
+				updateCounts = ex.getUpdateCounts();
+				if (updateCounts == null) {
+					executeOneByOne(statements, 0, first, ex);
+					return;
+				}
+				int executed = Math.min(updateCounts.length, statements.size());
+				for (int i = 0; i < executed; i++) {
+					if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+						failed(statements.get(i), first + i, ex);
+					}
+				}
+				if (executed < statements.size()) {
+					// The driver stopped at the first failed statement
+					failed(statements.get(executed), first + executed, ex);
+					executeOneByOne(statements, executed + 1, first, null);
+				}
+				return;
+			}
+			catch (SQLException ex) {
+				record(first, statements, startTime, -1, ex);
+				clearBatch();
+				executeOneByOne(statements, 0, first, ex);
+				return;
+			}
+			record(first, statements, startTime, sum(updateCounts), null);
+			if (logger.isDebugEnabled()) {
+				for (int i = 0; i < statements.size(); i++) {
+					String count = (i < updateCounts.length) ? String.valueOf(updateCounts[i]) : "?";
+					logger.debug(count + " returned as update count for SQL: " + statements.get(i));
+				}
+				logWarnings();
+			}
+		}
+
+		private void executeOneByOne(List<String> statements, int from, int first, SQLException cause) {
+			if (cause != null && logger.isDebugEnabled()) {
+				logger.debug("Batch of " + statements.size() + " statements failed, executing them one by one",
+						cause);
+			}
+			for (int i = from; i < statements.size(); i++) {
+				execute(statements.get(i), first + i);
+			}
+		}
+
+		private void execute(String statement, int stmtNumber) {
+			long startTime = System.nanoTime();
+			try {
+				this.stmt.execute(statement);
+				int rowsAffected = this.stmt.getUpdateCount();
+				record(stmtNumber, Collections.singletonList(statement), startTime, rowsAffected, null);
+				if (logger.isDebugEnabled()) {
+					logger.debug(rowsAffected + " returned as update count for SQL: " + statement);
+					logWarnings();
+				}
+			}
+			catch (SQLException ex) {
+				record(stmtNumber, Collections.singletonList(statement), startTime, -1, ex);
+				failed(statement, stmtNumber, ex);
+			}
+		}
+
+		private void record(int stmtNumber, List<String> statements, long startTime, int updateCount,
+				SQLException failure) {
+			if (this.report != null) {
+				this.report.record(this.resource, stmtNumber, statements.size(), statements.get(0),
+						System.nanoTime() - startTime, updateCount, failure);
+			}
+		}
+
+		private static int sum(int[] updateCounts) {
+			int sum = -1;
+			for (int updateCount : updateCounts) {
+				if (updateCount >= 0) {
+					sum = Math.max(sum, 0) + updateCount;
+				}
+			}
+			return sum;
+		}
+
+		private void failed(String statement, int stmtNumber, SQLException ex) {
+			boolean dropStatement = StringUtils.startsWithIgnoreCase(statement.trim(), "drop");
+			if (this.continueOnError || (dropStatement && this.ignoreFailedDrops)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug(ScriptStatementFailedException.buildErrorMessage(statement, stmtNumber, this.resource), ex);
+				}
+			}
+			else {
+				throw new ScriptStatementFailedException(statement, stmtNumber, this.resource, ex);
+			}
+		}
+
+		private void logWarnings() throws SQLException {
+			SQLWarning warningToLog = this.stmt.getWarnings();
+			while (warningToLog != null) {
+				logger.debug("SQLWarning ignored: SQL state '" + warningToLog.getSQLState() +
+						"', error code '" + warningToLog.getErrorCode() +
+						"', message [" + warningToLog.getMessage() + "]");
+				warningToLog = warningToLog.getNextWarning();
+			}
+		}
+
+		private void clearBatch() {
+			try {
+				this.stmt.clearBatch();
+			}
+			catch (SQLException ex) {
+				logger.trace("Could not clear JDBC batch", ex);
+			}
+		}
+
+		void close() {
+			try {
+				this.stmt.close();
+			}
+			catch (Throwable ex) {
+				logger.trace("Could not close JDBC Statement", ex);
+			}
+		}
+
+	}
+
+	/**
+	 * Queue of consecutive {@code CREATE INDEX} statements, grouped by table, executed
+	 * concurrently when the next statement of another kind is reached.
+	 */
+	private static final class IndependentStatements {
+
+		private static final Pattern CREATE_INDEX = Pattern.compile(
+				"^create\\s+(?:\\w+\\s+)*?index\\s+(?:\\S+\\s+)*?on\\s+([^\\s(]+)",
+				Pattern.CASE_INSENSITIVE);
+
+		private final DataSource dataSource;
+
+		private final int parallelism;
+
+		private final EncodedResource resource;
+
+		private final boolean continueOnError;
+
+		private final boolean ignoreFailedDrops;
+
+		private final ScriptExecutionReport report;
+
+		private final Map<String, List<NumberedStatement>> tables = new LinkedHashMap<>();
+
+		IndependentStatements(DataSource dataSource, int parallelism, EncodedResource resource,
+				boolean continueOnError, boolean ignoreFailedDrops, ScriptExecutionReport report) {
+			this.dataSource = dataSource;
+			this.parallelism = parallelism;
+			this.resource = resource;
+			this.continueOnError = continueOnError;
+			this.ignoreFailedDrops = ignoreFailedDrops;
+			this.report = report;
+		}
+
+		/**
+		 * Queue the given statement if it creates an index, after executing the pending
+		 * batch of the given execution.
+		 * @return whether the statement was queued
+		 */
+		boolean add(String statement, ScriptExecution execution, List<String> batch) throws SQLException {
+			Matcher matcher = CREATE_INDEX.matcher(statement.trim());
+			if (!matcher.find()) {
+				return false;
+			}
+			if (!batch.isEmpty()) {
+				execution.executeBatch(batch);
+				batch.clear();
+			}
+			String table = matcher.group(1).toUpperCase(Locale.ENGLISH);
+			List<NumberedStatement> statements = this.tables.get(table);
+			if (statements == null) {
+				statements = new ArrayList<>();
+				this.tables.put(table, statements);
+			}
+			statements.add(new NumberedStatement(statement, execution.nextStatementNumber()));
+			return true;
+		}
+
+		/**
+		 * Execute the queued statements, on the connection of the given execution and on
+		 * connections borrowed for the other tables, and wait for their completion.
+		 */
+		void execute(ScriptExecution execution) {
+			if (this.tables.isEmpty()) {
+				return;
+			}
+			Queue<List<NumberedStatement>> queue = new ConcurrentLinkedQueue<>(this.tables.values());
+			this.tables.clear();
+			int workers = Math.min(this.parallelism, queue.size()) - 1;
+			if (workers <= 0) {
+				run(queue, execution);
+				return;
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Executing index creations on " + queue.size() + " tables with up to "
+						+ (workers + 1) + " connections");
+			}
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("script-statement-");
+			threadFactory.setDaemon(true);
+			ExecutorService executor = Executors.newFixedThreadPool(workers, threadFactory);
+			try {
+				List<Future<?>> futures = new ArrayList<>(workers);
+				for (int i = 0; i < workers; i++) {
+					futures.add(executor.submit(() -> runOnNewConnection(queue)));
+				}
+				RuntimeException failure = null;
+				try {
+					run(queue, execution);
+				}
+				catch (RuntimeException ex) {
+					failure = ex;
+				}
+				for (Future<?> future : futures) {
+					try {
+						future.get();
+					}
+					catch (ExecutionException ex) {
+						if (failure == null) {
+							failure = (ex.getCause() instanceof RuntimeException) ? (RuntimeException) ex.getCause()
+									: new UncategorizedScriptException("Failed to execute statements of "
+											+ this.resource, ex.getCause());
+						}
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						queue.clear();
+						if (failure == null) {
+							failure = new UncategorizedScriptException("Interrupted while executing statements of "
+									+ this.resource, ex);
+						}
+					}
+				}
+				if (failure != null) {
+					throw failure;
+				}
+			}
+			finally {
+				executor.shutdown();
+			}
+		}
+
+		private void runOnNewConnection(Queue<List<NumberedStatement>> queue) {
+			Connection connection;
+			try {
+				connection = this.dataSource.getConnection();
+			}
+			catch (SQLException ex) {
+				// the other connections take over the statements
+				logger.debug("Could not borrow an additional connection", ex);
+				return;
+			}
+			try {
+				ScriptExecution execution = new ScriptExecution(connection.createStatement(), this.resource,
+						this.continueOnError, this.ignoreFailedDrops, this.report);
+				try {
+					run(queue, execution);
+				}
+				finally {
+					execution.close();
+				}
+			}
+			catch (SQLException ex) {
+				logger.debug("Could not create a statement on an additional connection", ex);
+			}
+			finally {
+				JdbcUtils.closeConnection(connection);
+			}
+		}
+
+		private void run(Queue<List<NumberedStatement>> queue, ScriptExecution execution) {
+			try {
+				List<NumberedStatement> statements;
+				while ((statements = queue.poll()) != null) {
+					for (NumberedStatement statement : statements) {
+						execution.execute(statement.statement, statement.number);
+					}
+				}
+			}
+			catch (RuntimeException ex) {
+				// stop the other connections
+				queue.clear();
+				throw ex;
+			}
+		}
+
+	}
+
+	private static final class NumberedStatement {
+
+		private final String statement;
+
+		private final int number;
+
+		NumberedStatement(String statement, int number) {
+			this.statement = statement;
+			this.number = number;
+		}
+
+	}
+
 }
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Single-pass tokenizer splitting an SQL script read from a {@link Reader} into
+ * statements, returned one at a time by {@link #nextStatement()}. Produces the same
+ * statements as {@link ScriptUtilsEnhanced#readScript} followed by
+ * {@link ScriptUtilsEnhanced#splitSqlScript}, including the fallback to
+ * {@link ScriptUtilsEnhanced#FALLBACK_STATEMENT_SEPARATOR} for scripts that do not
+ * contain the separator, without holding the whole script in memory.
+ * <p>Only the current line, the current statement and, until the first separator is
+ * found, the text read so far are kept; the latter is needed to split the script again
+ * on new lines should it contain no separator at all.
+ */
+class SqlScriptTokenizer {
+
+	private final EncodedResource resource;
+
+	private final ScriptSource source;
+
+	private final String separator;
+
+	private final String[] commentPrefixes;
+
+	private final String blockCommentStartDelimiter;
+
+	private final String blockCommentEndDelimiter;
+
+	private final ScriptDelimiterMatcher delimiters;
+
+	/**
+	 * Text read so far, kept until the separator is found, {@code null} afterwards or if
+	 * there is no fallback.
+	 */
+	private StringBuilder unseparated;
+
+	private SqlScriptTokenizer fallback;
+
+	private boolean finished;
+
+	/**
+	 * Create a new tokenizer.
+	 * @param resource the resource the script is read from, for error messages
+	 * @param reader the reader of the script, which is not closed by the tokenizer
+	 * @param separator the statement separator, {@code null} for
+	 * {@value ScriptUtilsEnhanced#DEFAULT_STATEMENT_SEPARATOR}
+	 * @param commentPrefixes the prefixes of single-line comments
+	 * @param blockCommentStartDelimiter the start delimiter of block comments
+	 * @param blockCommentEndDelimiter the end delimiter of block comments
+	 */
+	SqlScriptTokenizer(EncodedResource resource, Reader reader, String separator,
+			String[] commentPrefixes, String blockCommentStartDelimiter,
+			String blockCommentEndDelimiter) {
+
+		Assert.notEmpty(commentPrefixes, "'commentPrefixes' must not be null or empty");
+		for (String commentPrefix : commentPrefixes) {
+			Assert.hasText(commentPrefix, "'commentPrefixes' must not contain null or empty elements");
+		}
+		Assert.hasText(blockCommentStartDelimiter, "'blockCommentStartDelimiter' must not be null or empty");
+		Assert.hasText(blockCommentEndDelimiter, "'blockCommentEndDelimiter' must not be null or empty");
+		this.resource = resource;
+		this.source = new ScriptSource(reader, separator, commentPrefixes, blockCommentEndDelimiter);
+		this.separator = (separator != null) ? separator : ScriptUtilsEnhanced.DEFAULT_STATEMENT_SEPARATOR;
+		this.commentPrefixes = commentPrefixes;
+		this.blockCommentStartDelimiter = blockCommentStartDelimiter;
+		this.blockCommentEndDelimiter = blockCommentEndDelimiter;
+		this.delimiters = new ScriptDelimiterMatcher(this.separator, commentPrefixes,
+				blockCommentStartDelimiter);
+		if (!ScriptUtilsEnhanced.EOF_STATEMENT_SEPARATOR.equals(this.separator)
+				&& !ScriptUtilsEnhanced.FALLBACK_STATEMENT_SEPARATOR.equals(this.separator)) {
+			this.unseparated = new StringBuilder();
+		}
+	}
+
+	/**
+	 * Return the next statement of the script, with comments removed and adjacent
+	 * whitespace collapsed.
+	 * @return the next statement, or {@code null} at the end of the script
+	 * @throws IOException in case of I/O errors
+	 * @throws ScriptException if the script cannot be parsed
+	 */
+	String nextStatement() throws IOException, ScriptException {
+		if (this.fallback != null) {
+			return this.fallback.nextStatement();
+		}
+		if (this.finished) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder();
+		boolean inSingleQuote = false;
+		boolean inDoubleQuote = false;
+		boolean inEscape = false;
+
+		int c;
+		while ((c = read()) != -1) {
+			if (inEscape) {
+				inEscape = false;
+				sb.append((char) c);
+				continue;
+			}
+			// MySQL style escapes
+			if (c == '\\') {
+				inEscape = true;
+				sb.append((char) c);
+				continue;
+			}
+			if (!inDoubleQuote && (c == '\'')) {
+				inSingleQuote = !inSingleQuote;
+			}
+			else if (!inSingleQuote && (c == '"')) {
+				inDoubleQuote = !inDoubleQuote;
+			}
+			if (!inSingleQuote && !inDoubleQuote) {
+				ScriptDelimiterMatcher.Type delimiter = this.source.match(this.delimiters);
+				if (delimiter == ScriptDelimiterMatcher.Type.SEPARATOR) {
+					// We've reached the end of the current statement
+					skip(this.separator.length() - 1);
+					this.unseparated = null;
+					if (sb.length() > 0) {
+						return sb.toString();
+					}
+					continue;
+				}
+				else if (delimiter == ScriptDelimiterMatcher.Type.COMMENT) {
+					// Skip over any content from the start of the comment to the EOL
+					if (!skipPast("\n")) {
+						// If there's no EOL, we must be at the end of the script, so stop here.
+						break;
+					}
+					continue;
+				}
+				else if (delimiter == ScriptDelimiterMatcher.Type.BLOCK_COMMENT) {
+					// Skip over any block comments, the end delimiter may overlap the start one
+					if (this.source.startsWith(this.blockCommentEndDelimiter, -1)
+							|| !skipPast(this.blockCommentEndDelimiter)) {
+						throw new ScriptParseException(
+								"Missing block comment end delimiter: " + this.blockCommentEndDelimiter,
+								this.resource);
+					}
+					continue;
+				}
+				else if (c == ' ' || c == '\r' || c == '\n' || c == '\t') {
+					// Avoid multiple adjacent whitespace characters
+					if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+						c = ' ';
+					}
+					else {
+						continue;
+					}
+				}
+			}
+			sb.append((char) c);
+		}
+		return finish(sb);
+	}
+
+	private String finish(StringBuilder sb) throws IOException, ScriptException {
+		this.finished = true;
+		Assert.isTrue(this.source.hasText(), "'script' must not be null or empty");
+		if (this.unseparated != null) {
+			// No separator in the whole script, split it again on new lines
+			this.fallback = new SqlScriptTokenizer(this.resource,
+					new StringReader(this.unseparated.toString()),
+					ScriptUtilsEnhanced.FALLBACK_STATEMENT_SEPARATOR, this.commentPrefixes,
+					this.blockCommentStartDelimiter, this.blockCommentEndDelimiter);
+			this.fallback.source.raw = true;
+			this.unseparated = null;
+			return this.fallback.nextStatement();
+		}
+		return StringUtils.hasText(sb) ? sb.toString() : null;
+	}
+
+	private int read() throws IOException {
+		int c = this.source.read();
+		if (c != -1 && this.unseparated != null) {
+			this.unseparated.append((char) c);
+		}
+		return c;
+	}
+
+	private void skip(int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			read();
+		}
+	}
+
+	/**
+	 * Skip the characters up to and including the next occurrence of the given text,
+	 * searching from the character just read.
+	 * @return whether the text was found
+	 */
+	private boolean skipPast(String text) throws IOException {
+		while (!this.source.startsWith(text, -1)) {
+			if (read() == -1) {
+				return false;
+			}
+		}
+		skip(text.length() - 1);
+		return true;
+	}
+
+	/**
+	 * The script as {@link ScriptUtilsEnhanced#readScript} builds it, read line by line:
+	 * lines starting with a comment prefix are left out unless they contain the block
+	 * comment end delimiter, the other ones are joined with {@code '\n'}. Lines are
+	 * found and filtered in a buffer of the characters read, and appended from it, so
+	 * that no {@code String} is created per line.
+	 */
+	private static final class ScriptSource {
+
+		private static final int COMPACT_THRESHOLD = 8192;
+
+		private final Reader reader;
+
+		/**
+		 * Characters read from the reader, those between {@link #start} and
+		 * {@link #end} not being consumed yet.
+		 */
+		private char[] buffer = new char[COMPACT_THRESHOLD];
+
+		private int start;
+
+		private int end;
+
+		private int lineStart;
+
+		private int lineEnd;
+
+		/**
+		 * Whether the last line ended with {@code '\r'}, to be skipped with the
+		 * {@code '\n'} that may follow it.
+		 */
+		private boolean skipLineFeed;
+
+		private boolean readerExhausted;
+
+		private final String separator;
+
+		private final String[] commentPrefixes;
+
+		private final String blockCommentEndDelimiter;
+
+		/**
+		 * Whether the text is already filtered and must be read as is.
+		 */
+		private boolean raw;
+
+		private final StringBuilder window = new StringBuilder();
+
+		/**
+		 * Position of the next character to read in the window.
+		 */
+		private int position;
+
+		private boolean started;
+
+		private boolean eof;
+
+		private boolean hasText;
+
+		ScriptSource(Reader reader, String separator, String[] commentPrefixes,
+				String blockCommentEndDelimiter) {
+			this.reader = reader;
+			this.separator = separator;
+			this.commentPrefixes = commentPrefixes;
+			this.blockCommentEndDelimiter = blockCommentEndDelimiter;
+		}
+
+		int read() throws IOException {
+			if (!ensure(1)) {
+				return -1;
+			}
+			char c = this.window.charAt(this.position++);
+			if (!this.hasText && !Character.isWhitespace(c)) {
+				this.hasText = true;
+			}
+			return c;
+		}
+
+		/**
+		 * Return whether the text at the given offset from the next character to read
+		 * starts with the given text.
+		 */
+		boolean startsWith(String text, int offset) throws IOException {
+			int start = this.position + offset;
+			if (start < 0 || !ensure(text.length() + offset)) {
+				return false;
+			}
+			for (int i = 0; i < text.length(); i++) {
+				if (this.window.charAt(start + i) != text.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Return the type of the delimiter starting at the character just read.
+		 */
+		ScriptDelimiterMatcher.Type match(ScriptDelimiterMatcher delimiters) throws IOException {
+			ensure(delimiters.getMaxLength() - 1);
+			return delimiters.match(this.window, this.position - 1);
+		}
+
+		boolean hasText() {
+			return this.hasText;
+		}
+
+		/**
+		 * Make sure that the given number of characters can be read from the window.
+		 */
+		private boolean ensure(int count) throws IOException {
+			while (this.window.length() - this.position < count) {
+				if (this.eof || !fill()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean fill() throws IOException {
+			if (this.position > COMPACT_THRESHOLD) {
+				// keep the character just read for the lookups at offset -1 and enough of
+				// the end of the script to check whether it ends with the separator
+				int kept = Math.max(1, (this.separator != null) ? this.separator.length() : 0);
+				this.window.delete(0, this.position - kept);
+				this.position = kept;
+			}
+			if (this.raw) {
+				int read = this.reader.read(this.buffer, 0, this.buffer.length);
+				if (read == -1) {
+					this.eof = true;
+					return false;
+				}
+				this.window.append(this.buffer, 0, read);
+				return true;
+			}
+			while (nextLine()) {
+				if ((this.blockCommentEndDelimiter != null && lineContains(this.blockCommentEndDelimiter))
+						|| (this.commentPrefixes != null && !lineStartsWithAny(this.commentPrefixes))) {
+					if (this.started) {
+						this.window.append('\n');
+					}
+					this.window.append(this.buffer, this.lineStart, this.lineEnd - this.lineStart);
+					this.started = this.started || this.window.length() > 0;
+					if (this.window.length() > this.position) {
+						return true;
+					}
+				}
+			}
+			this.eof = true;
+			return appendSeparatorSuffix();
+		}
+
+		/**
+		 * Find the next line in the buffer, reading more characters as needed. Lines
+		 * end with {@code '\n'}, {@code '\r'} or {@code "\r\n"}, like
+		 * {@link java.io.BufferedReader#readLine()}.
+		 * @return whether there is a next line, between {@link #lineStart} and
+		 * {@link #lineEnd}
+		 */
+		private boolean nextLine() throws IOException {
+			int scanned = this.start;
+			while (true) {
+				if (this.skipLineFeed && this.start < this.end) {
+					if (this.buffer[this.start] == '\n') {
+						this.start++;
+					}
+					this.skipLineFeed = false;
+					scanned = this.start;
+				}
+				for (int i = scanned; i < this.end; i++) {
+					char c = this.buffer[i];
+					if (c == '\n' || c == '\r') {
+						this.lineStart = this.start;
+						this.lineEnd = i;
+						this.start = i + 1;
+						this.skipLineFeed = (c == '\r');
+						return true;
+					}
+				}
+				scanned = this.end;
+				if (this.readerExhausted) {
+					if (this.start == this.end) {
+						return false;
+					}
+					this.lineStart = this.start;
+					this.lineEnd = this.end;
+					this.start = this.end;
+					return true;
+				}
+				if (this.start > 0) {
+					System.arraycopy(this.buffer, this.start, this.buffer, 0, this.end - this.start);
+					scanned -= this.start;
+					this.end -= this.start;
+					this.start = 0;
+				}
+				else if (this.end == this.buffer.length) {
+					// a line longer than the buffer
+					this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+				}
+				int read = this.reader.read(this.buffer, this.end, this.buffer.length - this.end);
+				if (read == -1) {
+					this.readerExhausted = true;
+				}
+				else {
+					this.end += read;
+				}
+			}
+		}
+
+		private boolean lineContains(String text) {
+			int last = this.lineEnd - text.length();
+			for (int i = this.lineStart; i <= last; i++) {
+				if (regionMatches(i, text)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean lineStartsWithAny(String[] prefixes) {
+			for (String prefix : prefixes) {
+				if (this.lineStart + prefix.length() <= this.lineEnd && regionMatches(this.lineStart, prefix)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean regionMatches(int offset, String text) {
+			for (int i = 0; i < text.length(); i++) {
+				if (this.buffer[offset + i] != text.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Like {@code ScriptUtilsEnhanced#appendSeparatorToScriptIfNecessary}, append the
+		 * trailing whitespace of the separator if the script ends with the rest of it.
+		 */
+		private boolean appendSeparatorSuffix() {
+			if (this.separator == null) {
+				return false;
+			}
+			String trimmed = this.separator.trim();
+			if (trimmed.length() == this.separator.length()) {
+				return false;
+			}
+			int start = this.window.length() - trimmed.length();
+			if (start < 0 || this.window.indexOf(trimmed, start) != start) {
+				return false;
+			}
+			this.window.append(this.separator.substring(trimmed.length()));
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+
+/**
+ * Flight Recorder event spanning the execution of a job on a worker thread, committed
+ * when the job completes.
+ */
+@Name("org.quartz.JobExecution")
+@Label("Job Execution")
+@Category("Quartz")
+@Description("Execution of a job, from its start to its completion")
+@StackTrace(false)
+class JobExecutionEvent extends Event {
+
+	@Label("Job")
+	String job;
+
+	@Label("Job Group")
+	String jobGroup;
+
+	@Label("Trigger")
+	String trigger;
+
+	@Label("Scheduled Fire Time")
+	@Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+	long scheduledFireTime;
+
+	@Label("Recovering")
+	boolean recovering;
+
+	@Label("Failed")
+	@Description("Whether the job threw an exception")
+	boolean failed;
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import jdk.jfr.FlightRecorder;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.JobListener;
+import org.quartz.Trigger;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerListener;
+
+/**
+ * Job and trigger listener recording trigger fires and job executions as JDK Flight
+ * Recorder events, next to the GC and lock events of the same recording. Events are
+ * only created while they are enabled in a running recording.
+ *
+ * @see TriggerFiredEvent
+ * @see JobExecutionEvent
+ */
+class JobFlightRecorder implements JobListener, TriggerListener {
+
+	private final ThreadLocal<JobExecutionEvent> executions = new ThreadLocal<>();
+
+	/**
+	 * Return whether events can be recorded on this JVM.
+	 * @return whether the flight recorder is available
+	 */
+	static boolean isSupported() {
+		return FlightRecorder.isAvailable();
+	}
+
+	@Override
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	public void triggerFired(Trigger trigger, JobExecutionContext context) {
+		TriggerFiredEvent event = new TriggerFiredEvent();
+		if (event.isEnabled()) {
+			event.trigger = trigger.getKey().toString();
+			event.job = context.getJobDetail().getKey().toString();
+			event.jobGroup = context.getJobDetail().getKey().getGroup();
+			if (context.getScheduledFireTime() != null) {
+				event.scheduledFireTime = context.getScheduledFireTime().getTime();
+				event.lag = context.getFireTime().getTime() - event.scheduledFireTime;
+			}
+			event.commit();
+		}
+	}
+
+	@Override
+	public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+		return false;
+	}
+
+	@Override
+	public void triggerMisfired(Trigger trigger) {
+	}
+
+	@Override
+	public void triggerComplete(Trigger trigger, JobExecutionContext context,
+			CompletedExecutionInstruction triggerInstructionCode) {
+	}
+
+	@Override
+	public void jobToBeExecuted(JobExecutionContext context) {
+		JobExecutionEvent event = new JobExecutionEvent();
+		if (event.isEnabled()) {
+			event.begin();
+			this.executions.set(event);
+		}
+	}
+
+	@Override
+	public void jobExecutionVetoed(JobExecutionContext context) {
+	}
+
+	@Override
+	public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+		JobExecutionEvent event = this.executions.get();
+		if (event == null) {
+			return;
+		}
+		this.executions.remove();
+		event.end();
+		if (event.shouldCommit()) {
+			event.job = context.getJobDetail().getKey().toString();
+			event.jobGroup = context.getJobDetail().getKey().getGroup();
+			event.trigger = context.getTrigger().getKey().toString();
+			if (context.getScheduledFireTime() != null) {
+				event.scheduledFireTime = context.getScheduledFireTime().getTime();
+			}
+			event.recovering = context.isRecovering();
+			event.failed = (jobException != null);
+			event.commit();
+		}
+	}
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.matchers.GroupMatcher;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.boot.actuate.endpoint.QuartzEndpoint;
+import org.springframework.boot.actuate.endpoint.QuartzJdbcEndpoint;
+import org.springframework.boot.actuate.endpoint.QuartzLagEndpoint;
+import org.springframework.boot.actuate.endpoint.mvc.QuartzMvcEndpoint;
+import org.springframework.boot.autoconfigure.quartz.JdbcJobStoreTimings;
+import org.springframework.boot.autoconfigure.quartz.QuartzAutoConfiguration;
+import org.springframework.boot.autoconfigure.quartz.TriggerLagRecorder;
+import org.springframework.boot.test.util.EnvironmentTestUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.support.FormattingConversionService;
+import org.springframework.format.support.FormattingConversionServiceFactoryBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link QuartzEndpointAutoConfiguration}.
+ */
+public class QuartzEndpointAutoConfigurationTests {
+
+	private AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+	@After
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void lagEndpointReportsLagPerJobGroup() throws Exception {
+		registerAndRefresh(JobsConfiguration.class);
+
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+		assertThat(scheduler.getListenerManager().getJobListener("TriggerLagRecorder")).isNotNull();
+		QuartzLagEndpoint endpoint = this.context.getBean(QuartzLagEndpoint.class);
+		for (int i = 0; i < 40 && endpoint.invoke().isEmpty(); i++) {
+			Thread.sleep(50L);
+		}
+		Map<String, Object> group = (Map<String, Object>) endpoint.invoke().get("reports");
+		assertThat(group).containsOnlyKeys("lag");
+		Map<String, Object> lag = (Map<String, Object>) group.get("lag");
+		assertThat(lag).containsEntry("count", 1L).containsKeys("mean", "max", "p50", "p90", "p99");
+		assertThat((Long) lag.get("max")).isGreaterThanOrEqualTo(0L);
+	}
+
+	@Test
+	public void lagEndpointCanBeDisabled() {
+		EnvironmentTestUtils.addEnvironment(this.context, "endpoints.quartzlag.enabled=false");
+		registerAndRefresh(JobsConfiguration.class);
+
+		assertThat(this.context.getBeansOfType(QuartzLagEndpoint.class)).isEmpty();
+		assertThat(this.context.getBeansOfType(TriggerLagRecorder.class)).isEmpty();
+	}
+
+	@Test
+	public void jdbcEndpointRequiresJdbcJobStoreTimings() {
+		registerAndRefresh(JobsConfiguration.class);
+		assertThat(this.context.getBeansOfType(QuartzJdbcEndpoint.class)).isEmpty();
+		this.context.close();
+
+		this.context = new AnnotationConfigApplicationContext();
+		registerAndRefresh(JobsConfiguration.class, JdbcJobStoreTimingsConfiguration.class);
+		assertThat(this.context.getBean(QuartzJdbcEndpoint.class).invoke()).isEmpty();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void quartzEndpointPagesJobsAcrossGroups() {
+		registerAndRefresh(JobsConfiguration.class, MoreJobsConfiguration.class);
+		QuartzEndpoint endpoint = this.context.getBean(QuartzEndpoint.class);
+
+		Map<String, Object> summary = endpoint.invoke();
+		assertThat(summary).containsEntry("state", "started").containsEntry("threadPoolSize", 10);
+		assertThat((Map<String, Integer>) summary.get("jobs")).containsEntry("billing", 3)
+				.containsEntry("reports", 1).hasSize(2);
+		assertThat((Map<String, Integer>) summary.get("triggers")).containsEntry("billing", 1);
+
+		Map<String, Object> page = endpoint.getJobs(null, 1, 3);
+		assertThat(page).containsEntry("page", 1).containsEntry("size", 3).containsEntry("total", 4);
+		List<Map<String, Object>> items = (List<Map<String, Object>>) page.get("items");
+		assertThat(items).hasSize(1);
+		assertThat(items.get(0)).containsEntry("group", "reports").containsEntry("name", "reportJob");
+
+		page = endpoint.getJobs("billing", 0, 2);
+		assertThat(page).containsEntry("group", "billing").containsEntry("total", 3);
+		items = (List<Map<String, Object>>) page.get("items");
+		assertThat(items).extracting("name").containsExactly("invoiceJob0", "invoiceJob1");
+		assertThat((List<String>) items.get(0).get("triggers")).containsExactly("billing.invoiceTrigger");
+
+		items = (List<Map<String, Object>>) endpoint.getTriggers("billing", 0, null).get("items");
+		assertThat(items).hasSize(1);
+		assertThat(items.get(0)).containsEntry("job", "billing.invoiceJob0").containsEntry("type", "simple")
+				.containsEntry("state", "NORMAL");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void quartzEndpointCutsPagesFromCachedKeys() throws Exception {
+		registerAndRefresh(JobsConfiguration.class, MoreJobsConfiguration.class);
+		Scheduler scheduler = spy(this.context.getBean(Scheduler.class));
+		QuartzEndpoint endpoint = new QuartzEndpoint(scheduler);
+
+		assertThat((List<Map<String, Object>>) endpoint.getJobs(null, 0, 2).get("items")).extracting("name")
+				.containsExactly("invoiceJob0", "invoiceJob1");
+		assertThat((List<Map<String, Object>>) endpoint.getJobs(null, 1, 2).get("items")).extracting("name")
+				.containsExactly("invoiceJob2", "reportJob");
+		assertThat(endpoint.getJobs("billing", 1, 2)).containsEntry("total", 3);
+		assertThat(endpoint.getTriggers("billing", 0, null)).containsEntry("total", 1);
+		// once per group, when the keys are cached
+		verify(scheduler, times(2)).getJobKeys(any(GroupMatcher.class));
+		verify(scheduler, times(1)).getTriggerKeys(any(GroupMatcher.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void quartzEndpointCachesJobCounts() throws Exception {
+		registerAndRefresh(JobsConfiguration.class);
+		QuartzEndpoint endpoint = this.context.getBean(QuartzEndpoint.class);
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+
+		assertThat((Map<String, Integer>) endpoint.invoke().get("jobs")).containsOnlyKeys("reports");
+		scheduler.addJob(JobBuilder.newJob(NoOpJob.class).withIdentity("auditJob", "audit").storeDurably()
+				.build(), false);
+		assertThat((Map<String, Integer>) endpoint.invoke().get("jobs")).containsOnlyKeys("reports");
+		endpoint.setTimeToLive(0);
+		assertThat((Map<String, Integer>) endpoint.invoke().get("jobs")).containsOnlyKeys("audit", "reports");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void quartzMvcEndpointReturnsJobDetails() {
+		registerAndRefresh(MoreJobsConfiguration.class);
+		QuartzMvcEndpoint endpoint = new QuartzMvcEndpoint(this.context.getBean(QuartzEndpoint.class));
+
+		Map<String, Object> job = (Map<String, Object>) endpoint.job("billing", "invoiceJob0");
+		assertThat(job).containsEntry("className", NoOpJob.class.getName()).containsEntry("durable", true);
+		assertThat((List<Object>) job.get("triggers")).hasSize(1);
+		assertThat(((ResponseEntity<?>) endpoint.job("billing", "missing")).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	public void quartzEndpointCanBeDisabled() {
+		EnvironmentTestUtils.addEnvironment(this.context, "endpoints.quartz.enabled=false");
+		registerAndRefresh(JobsConfiguration.class);
+
+		assertThat(this.context.getBeansOfType(QuartzEndpoint.class)).isEmpty();
+	}
+
+	private void registerAndRefresh(Class<?>... userConfigurations) {
+		this.context.register(userConfigurations);
+		this.context.register(ConversionServiceConfiguration.class);
+		this.context.register(QuartzAutoConfiguration.class, QuartzEndpointAutoConfiguration.class);
+		this.context.refresh();
+	}
+
+	@Configuration
+	static class JobsConfiguration {
+
+		@Bean
+		JobDetail reportJob() {
+			return JobBuilder.newJob(NoOpJob.class).withIdentity("reportJob", "reports").storeDurably().build();
+		}
+
+		@Bean
+		Trigger reportTrigger(JobDetail reportJob) {
+			return TriggerBuilder.newTrigger().forJob(reportJob).withIdentity("reportTrigger").build();
+		}
+
+	}
+
+	@Configuration
+	static class MoreJobsConfiguration {
+
+		@Bean
+		JobDetail invoiceJob2() {
+			return invoiceJob(2);
+		}
+
+		@Bean
+		JobDetail invoiceJob0() {
+			return invoiceJob(0);
+		}
+
+		@Bean
+		JobDetail invoiceJob1() {
+			return invoiceJob(1);
+		}
+
+		@Bean
+		Trigger invoiceTrigger(JobDetail invoiceJob0) {
+			return TriggerBuilder.newTrigger().forJob(invoiceJob0).withIdentity("invoiceTrigger", "billing")
+					.startAt(new Date(System.currentTimeMillis() + 3600000L)).build();
+		}
+
+		private static JobDetail invoiceJob(int index) {
+			return JobBuilder.newJob(NoOpJob.class).withIdentity(new JobKey("invoiceJob" + index, "billing"))
+					.storeDurably().build();
+		}
+
+	}
+
+	@Configuration
+	static class JdbcJobStoreTimingsConfiguration {
+
+		@Bean
+		JdbcJobStoreTimings jdbcJobStoreTimings() {
+			return new JdbcJobStoreTimings();
+		}
+
+	}
+
+	public static class NoOpJob implements Job {
+
+		@Override
+		public void execute(JobExecutionContext context) {
+		}
+
+	}
+
+	/**
+	 * Spring Boot 1.5 does not convert {@link java.time.Duration} properties with its
+	 * default conversion service.
+	 */
+	@Configuration
+	static class ConversionServiceConfiguration {
+
+		@Bean
+		public FactoryBean<FormattingConversionService> conversionService() {
+			return new FormattingConversionServiceFactoryBean();
+		}
+
+	}
+
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.actuate.autoconfigure;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.quartz.CounterServiceJobResourceAccounting;
+import org.springframework.boot.actuate.metrics.quartz.CounterServiceQuartzMetrics;
+import org.springframework.boot.actuate.metrics.quartz.JobResourceAccounting;
+import org.springframework.boot.actuate.metrics.quartz.MicrometerJobResourceAccounting;
+import org.springframework.boot.actuate.metrics.quartz.MicrometerQuartzMetrics;
+import org.springframework.boot.actuate.metrics.quartz.QuartzMetrics;
+import org.springframework.boot.autoconfigure.quartz.QuartzAutoConfiguration;
+import org.springframework.boot.test.util.EnvironmentTestUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.support.FormattingConversionService;
+import org.springframework.format.support.FormattingConversionServiceFactoryBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link QuartzMetricsAutoConfiguration}.
+ */
+public class QuartzMetricsAutoConfigurationTests {
+
+	private AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+	@After
+	public void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void withCounterServicePublishesPerJobGroup() throws Exception {
+		registerAndRefresh(CounterServiceConfiguration.class, JobsConfiguration.class);
+
+		assertThat(this.context.getBean(QuartzMetrics.class)).isInstanceOf(CounterServiceQuartzMetrics.class);
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+		assertThat(scheduler.getListenerManager().getJobListener("QuartzMetrics")).isNotNull();
+		assertThat(scheduler.getListenerManager().getTriggerListener("QuartzMetrics")).isNotNull();
+		Map<String, Double> metrics = CounterServiceConfiguration.metrics;
+		for (int i = 0; i < 40 && !metrics.containsKey("counter.quartz.failing.failed"); i++) {
+			Thread.sleep(50L);
+		}
+		Thread.sleep(100L);
+		assertThat(metrics).containsEntry("counter.quartz.reports.fired", 1d)
+				.containsEntry("counter.quartz.reports.succeeded", 1d)
+				.containsEntry("counter.quartz.failing.fired", 1d)
+				.containsEntry("counter.quartz.failing.failed", 1d)
+				.containsKeys("timer.quartz.reports.execution", "gauge.quartz.reports.running",
+						"gauge.quartz.threads.active", "gauge.quartz.threads.utilization")
+				.doesNotContainKey("counter.quartz.reports.failed");
+		assertThat(metrics.get("gauge.quartz.threads.active")).isEqualTo(0d);
+		Map<String, Number> published = new HashMap<>();
+		for (Metric<?> metric : this.context.getBean(CounterServiceQuartzMetrics.class).metrics()) {
+			published.put(metric.getName(), metric.getValue());
+		}
+		assertThat(published).containsEntry("timer.quartz.reports.execution.count", 1L)
+				.containsKeys("timer.quartz.reports.execution.mean", "timer.quartz.reports.execution.max",
+						"timer.quartz.reports.execution.p50", "timer.quartz.reports.execution.p90",
+						"timer.quartz.reports.execution.p99");
+	}
+
+	@Test
+	public void withMeterRegistryUsesMicrometer() throws Exception {
+		registerAndRefresh(CounterServiceConfiguration.class, MeterRegistryConfiguration.class,
+				JobsConfiguration.class);
+
+		assertThat(this.context.getBean(QuartzMetrics.class)).isInstanceOf(MicrometerQuartzMetrics.class);
+		MeterRegistry registry = this.context.getBean(MeterRegistry.class);
+		for (int i = 0; i < 40 && registry.find("quartz.executions").tag("outcome", "failure").timer() == null; i++) {
+			Thread.sleep(50L);
+		}
+		Thread.sleep(100L);
+		assertThat(registry.get("quartz.fires").tag("group", "reports").counter().count()).isEqualTo(1d);
+		Timer succeeded = registry.get("quartz.executions").tag("group", "reports").tag("outcome", "success").timer();
+		assertThat(succeeded.count()).isEqualTo(1L);
+		Timer failed = registry.get("quartz.executions").tag("group", "failing").tag("outcome", "failure").timer();
+		assertThat(failed.count()).isEqualTo(1L);
+		assertThat(registry.get("quartz.threads.active").gauge().value()).isEqualTo(0d);
+		assertThat(registry.get("quartz.running").tag("group", "reports").gauge().value()).isEqualTo(0d);
+	}
+
+	@Test
+	public void withResourceAccountingPublishesPerJobClass() throws Exception {
+		EnvironmentTestUtils.addEnvironment(this.context, "spring.quartz.metrics.resource-accounting=true");
+		registerAndRefresh(CounterServiceConfiguration.class, JobsConfiguration.class);
+
+		JobResourceAccounting<?> accounting = this.context.getBean(JobResourceAccounting.class);
+		assertThat(accounting).isInstanceOf(CounterServiceJobResourceAccounting.class);
+		Map<String, Double> metrics = CounterServiceConfiguration.metrics;
+		String prefix = "gauge.quartz.jobs." + FailingJob.class.getName();
+		for (int i = 0; i < 40 && !metrics.containsKey(prefix + ".allocated"); i++) {
+			Thread.sleep(50L);
+		}
+		assertThat(metrics).containsKeys(prefix + ".cpu", prefix + ".allocated");
+		assertThat(accounting.getUsages().get(FailingJob.class.getName()).getExecutions()).isEqualTo(1L);
+	}
+
+	@Test
+	public void withResourceAccountingUsesMicrometer() throws Exception {
+		EnvironmentTestUtils.addEnvironment(this.context, "spring.quartz.metrics.resource-accounting=true");
+		registerAndRefresh(MeterRegistryConfiguration.class, JobsConfiguration.class);
+
+		assertThat(this.context.getBean(JobResourceAccounting.class))
+				.isInstanceOf(MicrometerJobResourceAccounting.class);
+		MeterRegistry registry = this.context.getBean(MeterRegistry.class);
+		for (int i = 0; i < 40 && registry.find("quartz.jobs.cpu").tag("job", NoOpJob.class.getName())
+				.functionCounter() == null; i++) {
+			Thread.sleep(50L);
+		}
+		assertThat(registry.get("quartz.jobs.cpu").tag("job", NoOpJob.class.getName()).functionCounter()
+				.count()).isGreaterThanOrEqualTo(0d);
+		assertThat(registry.get("quartz.jobs.allocated").tag("job", NoOpJob.class.getName())
+				.functionCounter()).isNotNull();
+	}
+
+	@Test
+	public void withMetricsDisabled() {
+		EnvironmentTestUtils.addEnvironment(this.context, "spring.quartz.metrics.enabled=false");
+		registerAndRefresh(CounterServiceConfiguration.class);
+
+		assertThat(this.context.getBeansOfType(QuartzMetrics.class)).isEmpty();
+		assertThat(this.context.getBeansOfType(JobResourceAccounting.class)).isEmpty();
+	}
+
+	private void registerAndRefresh(Class<?>... userConfigurations) {
+		this.context.register(userConfigurations);
+		this.context.register(ConversionServiceConfiguration.class);
+		this.context.register(QuartzMetricsAutoConfiguration.class, QuartzAutoConfiguration.class);
+		this.context.refresh();
+	}
+
+	@Configuration
+	static class CounterServiceConfiguration {
+
+		static final Map<String, Double> metrics = new ConcurrentHashMap<>();
+
+		CounterServiceConfiguration() {
+			metrics.clear();
+		}
+
+		@Bean
+		CounterService counterService() {
+			return new CounterService() {
+				@Override
+				public void increment(String metricName) {
+					Double value = metrics.get(metricName);
+					metrics.put(metricName, (value != null) ? value + 1 : 1);
+				}
+
+				@Override
+				public void decrement(String metricName) {
+					Double value = metrics.get(metricName);
+					metrics.put(metricName, (value != null) ? value - 1 : -1);
+				}
+
+				@Override
+				public void reset(String metricName) {
+					metrics.remove(metricName);
+				}
+			};
+		}
+
+		@Bean
+		GaugeService gaugeService() {
+			return new GaugeService() {
+				@Override
+				public void submit(String metricName, double value) {
+					metrics.put(metricName, value);
+				}
+			};
+		}
+
+	}
+
+	@Configuration
+	static class MeterRegistryConfiguration {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+	}
+
+	@Configuration
+	static class JobsConfiguration {
+
+		@Bean
+		JobDetail reportJob() {
+			return JobBuilder.newJob(NoOpJob.class).withIdentity("reportJob", "reports").storeDurably().build();
+		}
+
+		@Bean
+		JobDetail failingJob() {
+			return JobBuilder.newJob(FailingJob.class).withIdentity("failingJob", "failing").storeDurably().build();
+		}
+
+		@Bean
+		Trigger reportTrigger(JobDetail reportJob) {
+			return TriggerBuilder.newTrigger().forJob(reportJob).withIdentity("reportTrigger").build();
+		}
+
+		@Bean
+		Trigger failingTrigger(JobDetail failingJob) {
+			return TriggerBuilder.newTrigger().forJob(failingJob).withIdentity("failingTrigger").build();
+		}
+
+	}
+
+	public static class NoOpJob implements Job {
+
+		@Override
+		public void execute(JobExecutionContext context) {
+		}
+
+	}
+
+	public static class FailingJob implements Job {
+
+		@Override
+		public void execute(JobExecutionContext context) throws JobExecutionException {
+			throw new JobExecutionException("failed");
+		}
+
+	}
+
+	/**
+	 * Spring Boot 1.5 does not convert {@link java.time.Duration} properties with its
+	 * default conversion service.
+	 */
+	@Configuration
+	static class ConversionServiceConfiguration {
+
+		@Bean
+		public FactoryBean<FormattingConversionService> conversionService() {
+			return new FormattingConversionServiceFactoryBean();
+		}
+
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+import org.quartz.CronExpression;
+import org.quartz.CronTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.triggers.CronTriggerImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link CronExpressionCache}.
+ */
+public class CronExpressionCacheTests {
+
+	private static final String[] EXPRESSIONS = { "0 0/5 * * * ?", "*/7 * * * * ?",
+			"15 30 2 * * ?", "0 0 0 29 2 ?", "0 0 12 ? * MON-FRI", "0 15 10 ? * 6,7",
+			"0 0 0 31 * ?", "0 10,44 14 ? 3 WED", "0 0 1-3 * * ?", "0 0 12 1/5 * ?",
+			"0 0 0 ? * 2 2030-2035", "0 0 0 L * ?", "0 0 0 15W * ?", "0 0 0 ? * 6#3" };
+
+	private static final String[] TIME_ZONES = { "UTC", "America/New_York",
+			"Europe/London", "Australia/Lord_Howe", "Asia/Kolkata" };
+
+	@Test
+	public void sameExpressionAndTimeZoneIsShared() throws Exception {
+		CronExpressionCache cache = new CronExpressionCache(10);
+		TimeZone zone = TimeZone.getTimeZone("UTC");
+		CronExpression expression = cache.getExpression("0 0/5 * * * ?", zone);
+		assertThat(cache.getExpression("0 0/5 * * * ?", zone)).isSameAs(expression);
+		assertThat(cache.getExpression("0 0/5 * * * ?", TimeZone.getTimeZone("GMT+1")))
+				.isNotSameAs(expression);
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void fullCacheStillParsesExpressions() throws Exception {
+		CronExpressionCache cache = new CronExpressionCache(1);
+		cache.getExpression("0 0/5 * * * ?", null);
+		CronExpression expression = cache.getExpression("0 0/10 * * * ?", null);
+		assertThat(expression.getCronExpression()).isEqualTo("0 0/10 * * * ?");
+		assertThat(cache.getExpression("0 0/10 * * * ?", null)).isNotSameAs(expression);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void bitMaskCalculationMatchesCronExpression() throws Exception {
+		Random random = new Random(42);
+		long start = 1262304000000L; // 2010-01-01
+		for (String zoneId : TIME_ZONES) {
+			TimeZone zone = TimeZone.getTimeZone(zoneId);
+			for (String cron : EXPRESSIONS) {
+				SharedCronExpression shared = new SharedCronExpression(cron, zone);
+				CronExpression expected = new CronExpression(cron);
+				expected.setTimeZone(zone);
+				for (int run = 0; run < 20; run++) {
+					Date time = new Date(start + (long) (random.nextDouble() * 40 * 365 * 86400000L));
+					for (int fire = 0; fire < 50 && time != null; fire++) {
+						Date next = shared.getTimeAfter(time);
+						assertThat(next).as(cron + " in " + zoneId + " after " + time)
+								.isEqualTo(expected.getTimeAfter(time));
+						time = next;
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void bitMaskCalculationIsUsedForPlainExpressions() throws Exception {
+		TimeZone zone = TimeZone.getDefault();
+		assertThat(new SharedCronExpression("0 0/5 * * * ?", zone).isBitMaskCalculation())
+				.isTrue();
+		assertThat(new SharedCronExpression("0 0 12 ? * MON-FRI", zone)
+				.isBitMaskCalculation()).isTrue();
+		assertThat(new SharedCronExpression("0 0 0 L * ?", zone).isBitMaskCalculation())
+				.isFalse();
+		assertThat(new SharedCronExpression("0 0 0 ? * 6#3", zone).isBitMaskCalculation())
+				.isFalse();
+	}
+
+	@Test
+	public void sharedTriggerClonesKeepExpression() throws Exception {
+		Trigger trigger = TriggerBuilder.newTrigger().withIdentity("test")
+				.withSchedule(CachedCronScheduleBuilder.cronSchedule("0 0/5 * * * ?")
+						.inTimeZone(TimeZone.getTimeZone("UTC")))
+				.build();
+		assertThat(trigger).isInstanceOf(SharedCronTriggerImpl.class);
+		SharedCronTriggerImpl copy = (SharedCronTriggerImpl) ((SharedCronTriggerImpl) trigger).clone();
+		assertThat(copy.getCronExpression()).isEqualTo("0 0/5 * * * ?");
+		assertThat(copy.getTimeZone().getID()).isEqualTo("UTC");
+		assertThat(copy.getTriggerBuilder().build()).isInstanceOf(SharedCronTriggerImpl.class);
+	}
+
+	@Test
+	public void shareCopiesCronTrigger() throws Exception {
+		CronTriggerImpl trigger = new CronTriggerImpl();
+		trigger.setName("test");
+		trigger.setCronExpression("0 0 12 ? * MON-FRI");
+		trigger.setMisfireInstruction(CronTrigger.MISFIRE_INSTRUCTION_DO_NOTHING);
+		CronTrigger shared = CronExpressionCache.getSharedInstance().share(trigger);
+		assertThat(shared).isInstanceOf(SharedCronTriggerImpl.class);
+		assertThat(shared.getKey()).isEqualTo(trigger.getKey());
+		assertThat(shared.getCronExpression()).isEqualTo(trigger.getCronExpression());
+		assertThat(shared.getMisfireInstruction())
+				.isEqualTo(CronTrigger.MISFIRE_INSTRUCTION_DO_NOTHING);
+		Date now = new Date();
+		assertThat(shared.getFireTimeAfter(now)).isEqualTo(trigger.getFireTimeAfter(now));
+	}
+
+}
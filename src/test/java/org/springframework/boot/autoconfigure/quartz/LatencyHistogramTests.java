@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTests {
+
+	@Test
+	public void bucketsCoverTheirValues() {
+		for (long value : new long[] { 0, 1, 3, 4, 5, 7, 8, 100, 1000, 123456789, Long.MAX_VALUE }) {
+			int bucket = LatencyHistogram.bucketOf(value);
+			assertThat(LatencyHistogram.upperBoundOf(bucket)).isGreaterThanOrEqualTo(value);
+			if (bucket > 0) {
+				assertThat(LatencyHistogram.upperBoundOf(bucket - 1)).isLessThan(value);
+			}
+		}
+	}
+
+	@Test
+	public void percentilesAreWithinBucketPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Random random = new Random(42);
+		long[] values = new long[10000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) (Math.abs(random.nextGaussian()) * 500);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+		LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+		assertThat(snapshot.getCount()).isEqualTo(values.length);
+		assertThat(snapshot.getMax()).isEqualTo(values[values.length - 1]);
+		for (double percentile : new double[] { 0.5, 0.9, 0.99 }) {
+			long exact = values[(int) Math.ceil(percentile * values.length) - 1];
+			long estimate = snapshot.getPercentile(percentile);
+			assertThat(estimate).isGreaterThanOrEqualTo(exact);
+			assertThat(estimate).isLessThanOrEqualTo((long) (exact * 1.25) + 1);
+		}
+	}
+
+	@Test
+	public void negativeValuesAreRecordedAsZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		assertThat(histogram.getSnapshot().getPercentile(0.5)).isEqualTo(0);
+		assertThat(histogram.getSnapshot().getMax()).isEqualTo(0);
+	}
+
+}
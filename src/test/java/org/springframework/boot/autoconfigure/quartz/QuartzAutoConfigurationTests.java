@@ -16,11 +16,27 @@
 
 package org.springframework.boot.autoconfigure.quartz;
 
+import java.io.File;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.assertj.core.api.Assertions;
 import org.junit.*;
 import org.junit.rules.ExpectedException;
@@ -28,8 +44,10 @@ import org.mockito.BDDMockito;
 import org.quartz.*;
 import org.quartz.impl.calendar.MonthlyCalendar;
 import org.quartz.impl.calendar.WeeklyCalendar;
+import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.simpl.RAMJobStore;
 
+import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.UnsatisfiedDependencyException;
@@ -38,6 +56,7 @@ import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
 import org.springframework.boot.autoconfigure.jdbc.*;
+import org.springframework.boot.autoconfigure.jdbc.metadata.HikariDataSourcePoolMetadata;
 import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
 import org.springframework.boot.test.rule.OutputCapture;
 import org.springframework.boot.test.util.EnvironmentTestUtils;
@@ -50,6 +69,8 @@ import org.springframework.format.support.FormattingConversionService;
 import org.springframework.format.support.FormattingConversionServiceFactoryBean;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.scheduling.quartz.LocalDataSourceJobStore;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
@@ -139,6 +160,74 @@ public class QuartzAutoConfigurationTests {
 		assertDataSourceInitializedByDatabaseInitializer("dataSource");
 	}
 
+	@Test
+	public void withDataSourceDetectsDriverDelegateWithoutSchemaInitialization() {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.job-store-type=jdbc",
+				"spring.quartz.auto-startup=false", "spring.quartz.jdbc.initialize-schema=never",
+				"spring.datasource.url=jdbc:hsqldb:mem:delegate");
+		registerAutoConfigurations(
+				DataSourceAutoConfiguration.class,
+				DataSourceTransactionManagerAutoConfiguration.class);
+		registerAndRefresh();
+
+		assertThat(this.context.getBeansOfType(QuartzDatabaseInitializer.class)).isEmpty();
+		assertThat(getQuartzProperties()).containsEntry("org.quartz.jobStore.driverDelegateClass",
+				"org.quartz.impl.jdbcjobstore.HSQLDBDelegate");
+	}
+
+	@Test
+	public void withDataSourceDetectsDriverDelegateFromTheInitializerConnection() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.job-store-type=jdbc",
+				"spring.quartz.auto-startup=false", "spring.quartz.jdbc.initialize-schema=always");
+		registerAndRefresh(CountingDataSourceConfiguration.class);
+
+		assertThat(this.context.getBeansOfType(DriverDelegateDetector.class)).hasSize(1);
+		assertThat(getQuartzProperties()).doesNotContainKey("org.quartz.jobStore.driverDelegateClass");
+		// LocalDataSourceJobStore reads the metadata again once the scheduler is created
+		assertThat(CountingDataSourceConfiguration.connectionsBeforeScheduler.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void withDataSourceAndDriverDelegateDetectionDisabled() {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.job-store-type=jdbc",
+				"spring.quartz.auto-startup=false", "spring.quartz.jdbc.detect-driver-delegate=false",
+				"spring.datasource.url=jdbc:hsqldb:mem:nodelegate");
+		registerAutoConfigurations(
+				DataSourceAutoConfiguration.class,
+				DataSourceTransactionManagerAutoConfiguration.class);
+		registerAndRefresh();
+
+		assertThat(getQuartzProperties()).doesNotContainKey("org.quartz.jobStore.driverDelegateClass");
+	}
+
+	@Test
+	public void withDataSourceAndRecordTimings() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.job-store-type=jdbc",
+				"spring.quartz.jdbc.record-timings=true",
+				"spring.quartz.properties.org.quartz.jobStore.isClustered=true");
+		registerAutoConfigurations(
+				DataSourceAutoConfiguration.class,
+				DataSourceTransactionManagerAutoConfiguration.class);
+		registerAndRefresh(QuartzJobsConfiguration.class);
+
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+		assertThat(scheduler.getJobDetail(JobKey.jobKey("fooJob"))).isNotNull();
+		JdbcJobStoreTimings timings = this.context.getBean(JdbcJobStoreTimings.class);
+		for (int i = 0; i < 40 && !timings.getHistograms().containsKey(JdbcJobStoreTimings.ACQUIRE_TRIGGERS); i++) {
+			Thread.sleep(50L);
+		}
+		assertThat(timings.getHistograms()).containsKeys(JdbcJobStoreTimings.LOCK_WAIT,
+				JdbcJobStoreTimings.ACQUIRE_TRIGGERS, JdbcJobStoreTimings.TRANSACTION, "select JOB_DETAILS");
+		assertThat(timings.getHistograms().get(JdbcJobStoreTimings.TRANSACTION).getSnapshot().getCount())
+				.isGreaterThan(0);
+		assertThat(JdbcJobStoreTimings.classify("SELECT JOB_DATA FROM APP_QRTZ_JOB_DETAILS WHERE SCHED_NAME = 'a'"))
+				.isEqualTo("select JOB_DETAILS");
+		assertThat(JdbcJobStoreTimings.classify("DELETE FROM QRTZ_FIRED_TRIGGERS WHERE ENTRY_ID = ?"))
+				.isEqualTo("delete FIRED_TRIGGERS");
+		assertThat(JdbcJobStoreTimings.classify("UPDATE QRTZ_LOCKS SET LOCK_NAME = LOCK_NAME WHERE LOCK_NAME = ?"))
+				.isEqualTo(JdbcJobStoreTimings.LOCK_WAIT);
+	}
+
 	/**
 	 * when {@link QuartzAutoConfiguration} is before {@link DataSourceAutoConfiguration}, it should not fail。
 	 * {@link AutoConfigureAfter} and {@link AutoConfigureBefore} should be valid only for
@@ -204,6 +293,225 @@ public class QuartzAutoConfigurationTests {
 				context.getBean("quartzTransactionManager"));
 	}
 
+	@Test
+	public void withMemorySnapshotRestoresDynamicallyScheduledJobs() throws Exception {
+		Path snapshotLocation = Files.createTempDirectory("starter-quartz-tests-");
+		File snapshotFile = snapshotLocation.resolve("quartz.snapshot").toFile();
+		snapshotLocation.toFile().deleteOnExit();
+		snapshotFile.deleteOnExit();
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.snapshot.file=" + snapshotFile);
+		registerAndRefresh();
+
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+		assertThat(scheduler.getMetaData().getJobStoreClass()).isEqualTo(SnapshotRAMJobStore.class);
+		JobDetail jobDetail = JobBuilder.newJob(FooJob.class).withIdentity("dynamicJob")
+				.usingJobData("jobDataKey", "jobDataValue").build();
+		Trigger trigger = TriggerBuilder.newTrigger().withIdentity("dynamicTrigger")
+				.startAt(DateBuilder.futureDate(1, DateBuilder.IntervalUnit.HOUR))
+				.withSchedule(SimpleScheduleBuilder.repeatHourlyForever()).build();
+		Date nextFireTime = scheduler.scheduleJob(jobDetail, trigger);
+		this.context.close();
+		assertThat(snapshotFile).exists();
+
+		this.context = new AnnotationConfigApplicationContext();
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.snapshot.file=" + snapshotFile);
+		registerAndRefresh();
+		scheduler = this.context.getBean(Scheduler.class);
+		assertThat(scheduler.getJobDetail(JobKey.jobKey("dynamicJob")).getJobDataMap())
+				.containsEntry("jobDataKey", "jobDataValue");
+		assertThat(scheduler.getTrigger(TriggerKey.triggerKey("dynamicTrigger")).getNextFireTime())
+				.isEqualTo(nextFireTime);
+	}
+
+	@Test
+	public void withCoalescingDrivesIdenticalCronTriggersFromOneTrigger() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "test-name=withCoalescing",
+				"spring.quartz.coalescing.enabled=true");
+		registerAndRefresh(CoalescingConfiguration.class);
+
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+		assertThat(scheduler.getTrigger(TriggerKey.triggerKey("fooTrigger"))).isNull();
+		assertThat(scheduler.getTrigger(TriggerKey.triggerKey("barTrigger"))).isNull();
+		assertThat(scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(TriggerCoalescer.GROUP)))
+				.hasSize(1);
+		assertThat(scheduler.getJobDetail(JobKey.jobKey("fooJob"))).isNotNull();
+		assertThat(scheduler.getJobDetail(JobKey.jobKey("barJob"))).isNotNull();
+		Thread.sleep(1500L);
+		this.output.expect(containsString("withCoalescing - fooValue"));
+		this.output.expect(containsString("withCoalescing - barValue"));
+	}
+
+	@Test
+	public void withCoalescingStartsMemberJobsConcurrently() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.coalescing.enabled=true");
+		registerAndRefresh(ConcurrentCoalescingConfiguration.class);
+
+		// Each member waits for the other member of the same fire to start, which takes
+		// longer than the test waits if they run one after the other
+		assertThat(RendezvousJob.metOther.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	public void withCoalescingAndJdbcJobStoreDoesNotCoalesce() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.job-store-type=jdbc",
+				"spring.quartz.coalescing.enabled=true");
+		registerAutoConfigurations(
+				DataSourceAutoConfiguration.class,
+				DataSourceTransactionManagerAutoConfiguration.class);
+		registerAndRefresh(ConcurrentCoalescingConfiguration.class);
+
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+		assertThat(scheduler.getTrigger(TriggerKey.triggerKey("first"))).isNotNull();
+		assertThat(scheduler.getTrigger(TriggerKey.triggerKey("second"))).isNotNull();
+		assertThat(scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(TriggerCoalescer.GROUP)))
+				.isEmpty();
+	}
+
+	@Test
+	public void withBatchJobGroupsSimultaneousFires() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.batch.window=PT0.5S");
+		registerAndRefresh(BatchJobConfiguration.class);
+
+		for (int i = 0; i < 40 && CountingBatchJob.batchSizes.isEmpty(); i++) {
+			Thread.sleep(50L);
+		}
+		Thread.sleep(600L);
+		assertThat(CountingBatchJob.batchSizes).containsExactly(3);
+	}
+
+	@Test
+	public void withMisfireRecoveryThrottleDefersRecoveredFires() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.misfire-recovery.max-fires-per-second=1",
+				"spring.quartz.misfire-recovery.group-priorities.urgent=10");
+		registerAndRefresh(MisfiredTriggersConfiguration.class);
+
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+		Set<TriggerKey> deferred = Collections.emptySet();
+		for (int i = 0; i < 40 && deferred.size() < 4; i++) {
+			Thread.sleep(50L);
+			deferred = scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(MisfireRecoveryThrottle.GROUP));
+		}
+		assertThat(deferred).hasSize(4);
+		Date urgentFireTime = null;
+		Date earliestFireTime = null;
+		for (TriggerKey key : deferred) {
+			Trigger trigger = scheduler.getTrigger(key);
+			if (trigger.getDescription().startsWith("urgent.")) {
+				urgentFireTime = trigger.getStartTime();
+				assertThat(trigger.getPriority()).isEqualTo(10);
+			}
+			if (earliestFireTime == null || trigger.getStartTime().before(earliestFireTime)) {
+				earliestFireTime = trigger.getStartTime();
+			}
+		}
+		if (urgentFireTime != null) {
+			// replayed in the first slot, whatever order the fires were vetoed in
+			assertThat(urgentFireTime.getTime() - earliestFireTime.getTime()).isLessThan(500L);
+		}
+	}
+
+	@Test
+	public void withJitterShiftsTriggersOfOptedInGroups() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.jitter.window=PT10M",
+				"spring.quartz.jitter.groups=spread");
+		registerAndRefresh(HourlyTriggersConfiguration.class);
+
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+		Set<String> expressions = new HashSet<>();
+		for (TriggerKey key : scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals("spread"))) {
+			String expression = ((CronTrigger) scheduler.getTrigger(key)).getCronExpression();
+			assertThat(expression).matches("\\d+ \\d \\* \\* \\* \\?");
+			// same offset on every start
+			Trigger shifted = new TriggerJitter(600000, false, Collections.singleton("spread"))
+					.apply(Collections.singletonList(HourlyTriggersConfiguration.hourlyTrigger(key.getName(), "spread")))
+					.get(0);
+			assertThat(((CronTrigger) shifted).getCronExpression()).isEqualTo(expression);
+			expressions.add(expression);
+		}
+		assertThat(expressions.size()).isGreaterThan(1);
+		assertThat(((CronTrigger) scheduler.getTrigger(TriggerKey.triggerKey("fixed")))
+				.getCronExpression()).isEqualTo("0 0 * * * ?");
+	}
+
+	@Test
+	public void withTriggerBackpressureSkipsAndDefersFires() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "test-name=withBackpressure");
+		registerAndRefresh(BackpressureConfiguration.class);
+
+		Scheduler scheduler = this.context.getBean(Scheduler.class);
+		Set<TriggerKey> deferred = Collections.emptySet();
+		for (int i = 0; i < 40 && deferred.isEmpty(); i++) {
+			Thread.sleep(50L);
+			deferred = scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(BackpressureTriggerListener.GROUP));
+		}
+		assertThat(deferred).hasSize(1);
+		assertThat(scheduler.getTrigger(deferred.iterator().next()).getDescription())
+				.isEqualTo("deferred.deferredTrigger");
+		for (int i = 0; i < 40 && scheduler.getTrigger(TriggerKey.triggerKey("skippedTrigger", "skipped")) != null; i++) {
+			Thread.sleep(50L);
+		}
+		assertThat(scheduler.getTrigger(TriggerKey.triggerKey("skippedTrigger", "skipped"))).isNull();
+		assertThat(this.output.toString()).doesNotContain("withBackpressure - held");
+	}
+
+	@Test
+	public void dataSourcePoolBackpressureHoldsBackFiresWhilePoolIsSaturated() throws Exception {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl("jdbc:h2:mem:backpressure;DB_CLOSE_DELAY=-1");
+		dataSource.setMaximumPoolSize(1);
+		try {
+			DataSourcePoolBackpressure backpressure = new DataSourcePoolBackpressure(dataSource,
+					new HikariDataSourcePoolMetadata(dataSource));
+			backpressure.setGroups(Collections.singletonList("db"));
+			Trigger dbTrigger = TriggerBuilder.newTrigger().withIdentity("dbTrigger", "db").build();
+			Trigger otherTrigger = TriggerBuilder.newTrigger().withIdentity("otherTrigger").build();
+			dataSource.getConnection().close();
+			assertThat(backpressure.getWaiting()).isEqualTo(0);
+			assertThat(backpressure.decide(dbTrigger, null)).isEqualTo(TriggerBackpressure.Decision.PROCEED);
+			Connection connection = dataSource.getConnection();
+			try {
+				assertThat(backpressure.decide(dbTrigger, null)).isEqualTo(TriggerBackpressure.Decision.SKIP);
+				assertThat(backpressure.getWaiting()).isEqualTo(0);
+				assertThat(backpressure.decide(otherTrigger, null)).isEqualTo(TriggerBackpressure.Decision.PROCEED);
+			}
+			finally {
+				connection.close();
+			}
+		}
+		finally {
+			dataSource.close();
+		}
+	}
+
+	@Test
+	public void withWatchdogReportsAndInterruptsHangingJobs() throws Exception {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.watchdog.enabled=true",
+				"spring.quartz.watchdog.group-thresholds.hanging=PT0.1S",
+				"spring.quartz.watchdog.interrupt-after=PT0.5S",
+				"spring.quartz.watchdog.check-interval=PT0.05S");
+		registerAndRefresh(WatchdogConfiguration.class);
+
+		assertThat(HangingJob.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int i = 0; i < 40 && !this.output.toString().contains("completed after"); i++) {
+			Thread.sleep(50L);
+		}
+		assertThat(this.output.toString())
+				.contains("Job hanging.hangingJob fired by trigger hanging.hangingTrigger has been running for")
+				.contains("at " + HangingJob.class.getName() + ".execute")
+				.contains("Interrupting job hanging.hangingJob")
+				.contains("Job hanging.hangingJob completed after");
+	}
+
+	@Test
+	public void withWatchdogFailingToReportStillInterruptsHangingJobs() throws Exception {
+		registerAndRefresh(FailingWatchdogConfiguration.class);
+
+		assertThat(InterruptedJob.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(this.output.toString())
+				.contains("Could not report slow execution of job failing.interruptedJob")
+				.contains("Interrupting job failing.interruptedJob");
+	}
+
 	@Test
 	public void withTaskExecutor() throws SchedulerException {
 		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.properties.org.quartz.threadPool.threadCount=50");
@@ -427,6 +735,13 @@ public class QuartzAutoConfigurationTests {
 		context.refresh();
 	}
 
+	private Properties getQuartzProperties() {
+		SchedulerFactoryBean schedulerFactoryBean = this.context.getBean(SchedulerFactoryBean.class);
+		Properties properties = (Properties) new DirectFieldAccessor(schedulerFactoryBean)
+				.getPropertyValue("quartzProperties");
+		return (properties != null) ? properties : new Properties();
+	}
+
 	private void assertDataSourceInitialized(String dataSourceName) throws Exception {
 		Scheduler scheduler = this.context.getBean(Scheduler.class);
 		assertThat(scheduler).isNotNull();
@@ -516,6 +831,246 @@ public class QuartzAutoConfigurationTests {
 		}
 	}
 
+	@Configuration
+	static class CoalescingConfiguration extends BaseQuartzConfiguration {
+		@Bean
+		JobDetail fooJob() {
+			return JobBuilder.newJob().ofType(FooJob.class).withIdentity("fooJob")
+					.usingJobData("jobDataKey", "fooValue").build();
+		}
+
+		@Bean
+		JobDetail barJob() {
+			return JobBuilder.newJob().ofType(FooJob.class).withIdentity("barJob")
+					.usingJobData("jobDataKey", "barValue").build();
+		}
+
+		@Bean
+		Trigger fooTrigger(JobDetail fooJob) {
+			return TriggerBuilder.newTrigger().forJob(fooJob).withIdentity("fooTrigger")
+					.withSchedule(CronScheduleBuilder.cronSchedule("* * * * * ?")).build();
+		}
+
+		@Bean
+		Trigger barTrigger(JobDetail barJob) {
+			return TriggerBuilder.newTrigger().forJob(barJob).withIdentity("barTrigger")
+					.withSchedule(CronScheduleBuilder.cronSchedule("* * * * * ?")).build();
+		}
+	}
+
+	@Configuration
+	static class ConcurrentCoalescingConfiguration extends BaseQuartzConfiguration {
+		@Bean
+		Trigger firstRendezvousTrigger() {
+			return rendezvousTrigger("first");
+		}
+
+		@Bean
+		Trigger secondRendezvousTrigger() {
+			return rendezvousTrigger("second");
+		}
+
+		private Trigger rendezvousTrigger(String name) {
+			JobDetail jobDetail = JobBuilder.newJob(RendezvousJob.class).withIdentity(name).build();
+			Trigger trigger = TriggerBuilder.newTrigger().forJob(jobDetail).withIdentity(name)
+					.withSchedule(CronScheduleBuilder.cronSchedule("* * * * * ?")).build();
+			trigger.getJobDataMap().put("jobDetail", jobDetail);
+			return trigger;
+		}
+	}
+
+	@Configuration
+	static class BatchJobConfiguration extends BaseQuartzConfiguration {
+		@Bean
+		Trigger firstBatchTrigger() {
+			return batchTrigger("first");
+		}
+
+		@Bean
+		Trigger secondBatchTrigger() {
+			return batchTrigger("second");
+		}
+
+		@Bean
+		Trigger thirdBatchTrigger() {
+			return batchTrigger("third");
+		}
+
+		private Trigger batchTrigger(String name) {
+			JobDetail jobDetail = JobBuilder.newJob(CountingBatchJob.class).withIdentity(name).build();
+			Trigger trigger = TriggerBuilder.newTrigger().forJob(jobDetail).withIdentity(name)
+					.startAt(DateBuilder.futureDate(1, DateBuilder.IntervalUnit.SECOND)).build();
+			trigger.getJobDataMap().put("jobDetail", jobDetail);
+			return trigger;
+		}
+	}
+
+	@Configuration
+	static class MisfiredTriggersConfiguration extends BaseQuartzConfiguration {
+		@Bean
+		JobDetail recoveryJob() {
+			return JobBuilder.newJob(FooJob.class).withIdentity("recoveryJob").storeDurably().build();
+		}
+
+		@Bean
+		Trigger firstMisfiredTrigger(JobDetail recoveryJob) {
+			return misfiredTrigger(recoveryJob, "first", "DEFAULT");
+		}
+
+		@Bean
+		Trigger secondMisfiredTrigger(JobDetail recoveryJob) {
+			return misfiredTrigger(recoveryJob, "second", "DEFAULT");
+		}
+
+		@Bean
+		Trigger thirdMisfiredTrigger(JobDetail recoveryJob) {
+			return misfiredTrigger(recoveryJob, "third", "DEFAULT");
+		}
+
+		@Bean
+		Trigger fourthMisfiredTrigger(JobDetail recoveryJob) {
+			return misfiredTrigger(recoveryJob, "fourth", "DEFAULT");
+		}
+
+		@Bean
+		Trigger urgentMisfiredTrigger(JobDetail recoveryJob) {
+			return misfiredTrigger(recoveryJob, "fifth", "urgent");
+		}
+
+		private Trigger misfiredTrigger(JobDetail jobDetail, String name, String group) {
+			return TriggerBuilder.newTrigger().forJob(jobDetail).withIdentity(name, group)
+					.startAt(DateBuilder.futureDate(-2, DateBuilder.IntervalUnit.MINUTE)).build();
+		}
+	}
+
+	@Configuration
+	static class HourlyTriggersConfiguration extends BaseQuartzConfiguration {
+		@Bean
+		JobDetail hourlyJob() {
+			return JobBuilder.newJob(FooJob.class).withIdentity("hourlyJob").storeDurably().build();
+		}
+
+		@Bean
+		Trigger firstHourlyTrigger() {
+			return hourlyTrigger("first", "spread");
+		}
+
+		@Bean
+		Trigger secondHourlyTrigger() {
+			return hourlyTrigger("second", "spread");
+		}
+
+		@Bean
+		Trigger thirdHourlyTrigger() {
+			return hourlyTrigger("third", "spread");
+		}
+
+		@Bean
+		Trigger fixedHourlyTrigger() {
+			return hourlyTrigger("fixed", "DEFAULT");
+		}
+
+		static Trigger hourlyTrigger(String name, String group) {
+			return TriggerBuilder.newTrigger().forJob("hourlyJob").withIdentity(name, group)
+					.withSchedule(CronScheduleBuilder.cronSchedule("0 0 * * * ?")).build();
+		}
+	}
+
+	@Configuration
+	static class BackpressureConfiguration extends BaseQuartzConfiguration {
+		@Bean
+		JobDetail heldJob() {
+			return JobBuilder.newJob(FooJob.class).withIdentity("heldJob")
+					.usingJobData("jobDataKey", "held").storeDurably().build();
+		}
+
+		@Bean
+		Trigger skippedTrigger(JobDetail heldJob) {
+			return TriggerBuilder.newTrigger().forJob(heldJob).withIdentity("skippedTrigger", "skipped").build();
+		}
+
+		@Bean
+		Trigger deferredTrigger(JobDetail heldJob) {
+			return TriggerBuilder.newTrigger().forJob(heldJob).withIdentity("deferredTrigger", "deferred").build();
+		}
+
+		@Bean
+		TriggerBackpressure triggerBackpressure() {
+			return new TriggerBackpressure() {
+				@Override
+				public Decision decide(Trigger trigger, JobExecutionContext context) {
+					String group = trigger.getKey().getGroup();
+					if ("skipped".equals(group)) {
+						return Decision.SKIP;
+					}
+					return "deferred".equals(group) ? Decision.DEFER : Decision.PROCEED;
+				}
+			};
+		}
+	}
+
+	@Configuration
+	static class WatchdogConfiguration extends BaseQuartzConfiguration {
+		@Bean
+		JobDetail hangingJob() {
+			return JobBuilder.newJob(HangingJob.class).withIdentity("hangingJob", "hanging").storeDurably().build();
+		}
+
+		@Bean
+		Trigger hangingTrigger(JobDetail hangingJob) {
+			return TriggerBuilder.newTrigger().forJob(hangingJob).withIdentity("hangingTrigger", "hanging").build();
+		}
+	}
+
+	@Configuration
+	static class CountingDataSourceConfiguration extends BaseQuartzConfiguration {
+
+		static final AtomicInteger connectionsBeforeScheduler = new AtomicInteger(-1);
+
+		private final AtomicInteger connections = new AtomicInteger();
+
+		@Bean
+		DataSource dataSource() {
+			return new DelegatingDataSource(new DriverManagerDataSource("jdbc:h2:mem:counting;DB_CLOSE_DELAY=-1", "sa", "")) {
+				@Override
+				public Connection getConnection() throws SQLException {
+					connections.incrementAndGet();
+					return super.getConnection();
+				}
+			};
+		}
+
+		@Bean
+		SchedulerFactoryBeanCustomizer connectionCounter() {
+			return new SchedulerFactoryBeanCustomizer() {
+				@Override
+				public void customize(SchedulerFactoryBean schedulerFactoryBean) {
+					connectionsBeforeScheduler.set(connections.get());
+				}
+			};
+		}
+	}
+
+	@Configuration
+	static class FailingWatchdogConfiguration extends BaseQuartzConfiguration {
+		@Bean
+		JobWatchdog jobWatchdog() {
+			return new FailingJobWatchdog();
+		}
+
+		@Bean
+		JobDetail interruptedJob() {
+			return JobBuilder.newJob(InterruptedJob.class).withIdentity("interruptedJob", "failing").storeDurably()
+					.build();
+		}
+
+		@Bean
+		Trigger interruptedTrigger(JobDetail interruptedJob) {
+			return TriggerBuilder.newTrigger().forJob(interruptedJob).withIdentity("interruptedTrigger", "failing")
+					.build();
+		}
+	}
+
 	@Configuration
 	protected static class QuartzCalendarsConfiguration extends BaseQuartzConfiguration {
 		@Bean
@@ -665,6 +1220,96 @@ public class QuartzAutoConfigurationTests {
 		}
 	}
 
+	public static class CountingBatchJob implements BatchJob {
+
+		static final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void executeBatch(List<JobExecutionContext> contexts) {
+			batchSizes.add(contexts.size());
+		}
+	}
+
+	public static class RendezvousJob implements Job {
+
+		static final ConcurrentMap<Date, CountDownLatch> started = new ConcurrentHashMap<>();
+
+		static final CountDownLatch metOther = new CountDownLatch(1);
+
+		@Override
+		public void execute(JobExecutionContext context) {
+			started.putIfAbsent(context.getFireTime(), new CountDownLatch(2));
+			CountDownLatch fireStarted = started.get(context.getFireTime());
+			fireStarted.countDown();
+			try {
+				if (fireStarted.await(10, TimeUnit.SECONDS)) {
+					metOther.countDown();
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	public static class HangingJob implements InterruptableJob {
+
+		static final CountDownLatch interrupted = new CountDownLatch(1);
+
+		private final CountDownLatch released = new CountDownLatch(1);
+
+		@Override
+		public void execute(JobExecutionContext context) throws JobExecutionException {
+			try {
+				this.released.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public void interrupt() {
+			this.released.countDown();
+			interrupted.countDown();
+		}
+	}
+
+	static class FailingJobWatchdog extends JobWatchdog {
+
+		FailingJobWatchdog() {
+			super(100, null, 500, 50);
+		}
+
+		@Override
+		protected void slowExecution(JobExecutionContext context, long runtime, StackTraceElement[] stackTrace) {
+			throw new IllegalStateException("Reporting failed");
+		}
+	}
+
+	public static class InterruptedJob implements InterruptableJob {
+
+		static final CountDownLatch interrupted = new CountDownLatch(1);
+
+		private final CountDownLatch released = new CountDownLatch(1);
+
+		@Override
+		public void execute(JobExecutionContext context) throws JobExecutionException {
+			try {
+				this.released.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public void interrupt() {
+			this.released.countDown();
+			interrupted.countDown();
+		}
+	}
+
 	/**
 	 * spring-boot-1.5.x use {@link org.springframework.core.convert.support.DefaultConversionService} as bean 'conversionService',
 	 * which cannot converter {@link java.time.Duration} etc.
@@ -18,6 +18,7 @@
 // in spring-boot-autoconfigure-commit-c406dda18160a29649eef6bbb73f3c93674f4028
 package org.springframework.boot.autoconfigure.quartz;
 
+import java.sql.SQLException;
 import java.util.UUID;
 
 import javax.sql.DataSource;
@@ -35,6 +36,9 @@ import org.springframework.jdbc.core.JdbcTemplate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link QuartzDatabaseInitializer}.
@@ -83,6 +87,71 @@ public class QuartzDatabaseInitializerTests {
 		assertThatDatabaseHasBeenInitialized();
 	}
 
+	@Test
+	public void existingSchemaIsInitializedAgainByDefault() {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.jdbc.initialize-schema=always",
+				"spring.quartz.jdbc.schema=classpath:org/springframework/boot/autoconfigure/quartz/"
+						+ "tables_drop_first.sql");
+		registerAndRefresh(TestConfiguration.class);
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		jdbcTemplate.update("INSERT INTO QRTZ_TEST_LOCKS VALUES ('test', 'TRIGGER_ACCESS')");
+		initializeAgain();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM QRTZ_TEST_LOCKS", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	public void existingSchemaIsNotInitializedAgainWhenSkipped() {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.jdbc.initialize-schema=always",
+				"spring.quartz.jdbc.skip-existing-schema=true",
+				"spring.quartz.jdbc.schema=classpath:org/springframework/boot/autoconfigure/quartz/"
+						+ "tables_drop_first.sql");
+		registerAndRefresh(TestConfiguration.class);
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		jdbcTemplate.update("INSERT INTO QRTZ_TEST_LOCKS VALUES ('test', 'TRIGGER_ACCESS')");
+		initializeAgain();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM QRTZ_TEST_LOCKS", Integer.class)).isEqualTo(1);
+	}
+
+	@Test
+	public void partialSchemaIsInitializedWhenSkipped() {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.jdbc.initialize-schema=always",
+				"spring.quartz.jdbc.skip-existing-schema=true",
+				"spring.quartz.jdbc.schema=classpath:org/springframework/boot/autoconfigure/quartz/"
+						+ "tables_drop_first.sql");
+		registerAndRefresh(TestConfiguration.class);
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		jdbcTemplate.execute("DROP TABLE QRTZ_TEST_LOCKS");
+		initializeAgain();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM QRTZ_TEST_LOCKS", Integer.class)).isEqualTo(0);
+	}
+
+	@Test
+	public void slowestStatementsAreRecordedWhenLogged() {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.jdbc.log-slowest-statements=3");
+		registerAndRefresh(TestConfiguration.class);
+		QuartzDatabaseInitializer initializer = this.context.getBean(QuartzDatabaseInitializer.class);
+		assertThat(initializer.getExecutionReport().getStatements()).isNotEmpty();
+		assertThat(initializer.getExecutionReport().getSlowest(3)).hasSize(3);
+	}
+
+	@Test
+	public void initializationBorrowsASingleConnection() throws SQLException {
+		EnvironmentTestUtils.addEnvironment(context, "spring.quartz.jdbc.skip-existing-schema=true");
+		registerAndRefresh(TestConfiguration.class);
+		DataSource dataSource = spy(context.getBean(DataSource.class));
+		QuartzDatabaseInitializer initializer = new QuartzDatabaseInitializer(dataSource, context,
+				context.getBean(QuartzProperties.class));
+		context.getAutowireCapableBeanFactory().initializeBean(initializer, "initializerAgain");
+		assertThat(initializer.getPlatform()).isEqualTo("h2");
+		verify(dataSource, times(1)).getConnection();
+	}
+
+	private void initializeAgain() {
+		QuartzDatabaseInitializer initializer = new QuartzDatabaseInitializer(context.getBean(DataSource.class),
+				context, context.getBean(QuartzProperties.class));
+		context.getAutowireCapableBeanFactory().initializeBean(initializer, "initializerAgain");
+	}
+
 	private void assertThatDatabaseHasBeenInitialized() {
 		QuartzDatabaseInitializer quartzDatabaseInitializer = context.getBean(QuartzDatabaseInitializer.class);
 		assertThat(quartzDatabaseInitializer).isNotNull();
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptUtilsEnhanced;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SchemaStatementIndex}.
+ */
+public class SchemaStatementIndexTests {
+
+	@Test
+	public void indexedStatementsMatchParsedScript() {
+		for (String platform : new String[] { "h2", "postgres", "mysql_innodb", "oracle", "sqlServer" }) {
+			Resource script = new ClassPathResource("org/quartz/impl/jdbcjobstore/tables_" + platform + ".sql");
+			List<String> statements = SchemaStatementIndex.load(platform, script);
+			assertThat(statements).as(platform).isNotEmpty().isEqualTo(ScriptUtilsEnhanced.readStatements(
+					new EncodedResource(script), null, SchemaStatementIndex.COMMENT_PREFIXES,
+					ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+					ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER));
+		}
+	}
+
+	@Test
+	public void outOfDateIndexIsIgnored() {
+		Resource script = new ByteArrayResource("CREATE TABLE QRTZ_LOCKS (ID INT);".getBytes());
+		assertThat(SchemaStatementIndex.load("h2", script)).isNull();
+	}
+
+	@Test
+	public void indexOfEditedScriptOfSameLengthIsIgnored() throws IOException {
+		byte[] content;
+		try (InputStream input = new ClassPathResource("org/quartz/impl/jdbcjobstore/tables_h2.sql").getInputStream()) {
+			content = StreamUtils.copyToByteArray(input);
+		}
+		String edited = new String(content, "UTF-8").replace("VARCHAR(200)", "VARCHAR(199)");
+		assertThat(edited.getBytes("UTF-8")).hasSameSizeAs(content).isNotEqualTo(content);
+		assertThat(SchemaStatementIndex.load("h2", new ByteArrayResource(edited.getBytes("UTF-8")))).isNull();
+	}
+
+	@Test
+	public void unknownPlatformIsIgnored() {
+		Resource script = new ClassPathResource("org/quartz/impl/jdbcjobstore/tables_h2.sql");
+		assertThat(SchemaStatementIndex.load("unknown", script)).isNull();
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.quartz.DateBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SnapshotRAMJobStore}.
+ */
+public class SnapshotRAMJobStoreTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void concurrentSnapshotsAndShutdownWriteARestorableFile() throws Exception {
+		File file = new File(this.temp.getRoot(), "quartz.snapshot");
+		final SnapshotRAMJobStore store = createStore(file);
+		store.setSnapshotInterval(1);
+		for (int i = 0; i < 2000; i++) {
+			store(store, i);
+		}
+		store.schedulerStarted();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> writes = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			writes.add(executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					store.writeSnapshot();
+					return null;
+				}
+
+			}));
+			// Change the state between writes so that overlapping writes differ
+			store(store, 2000 + i);
+		}
+		for (Future<?> write : writes) {
+			write.get();
+		}
+		executor.shutdown();
+		assertThat(createStore(file).getNumberOfJobs()).isGreaterThanOrEqualTo(2000);
+		store.shutdown();
+
+		SnapshotRAMJobStore restored = createStore(file);
+		assertThat(restored.getNumberOfJobs()).isEqualTo(2040);
+		assertThat(restored.retrieveJob(JobKey.jobKey("job2039")).getJobDataMap().getInt("index"))
+				.isEqualTo(2039);
+		assertThat(restored.retrieveTrigger(TriggerKey.triggerKey("trigger2039"))).isNotNull();
+	}
+
+	private void store(SnapshotRAMJobStore store, int index) throws Exception {
+		JobDetail jobDetail = JobBuilder.newJob(NoOpJob.class).withIdentity("job" + index)
+				.usingJobData("index", index).build();
+		store.storeJobAndTrigger(jobDetail, (OperableTrigger) TriggerBuilder.newTrigger()
+				.withIdentity("trigger" + index).forJob(jobDetail)
+				.startAt(DateBuilder.futureDate(1, DateBuilder.IntervalUnit.HOUR))
+				.withSchedule(SimpleScheduleBuilder.repeatHourlyForever()).build());
+	}
+
+	private SnapshotRAMJobStore createStore(File file) {
+		SnapshotRAMJobStore store = new SnapshotRAMJobStore();
+		store.setSnapshotFile(file.getPath());
+		CascadingClassLoadHelper classLoadHelper = new CascadingClassLoadHelper();
+		classLoadHelper.initialize();
+		store.initialize(classLoadHelper, null);
+		return store;
+	}
+
+	public static class NoOpJob extends QuartzJobBean {
+
+		@Override
+		protected void executeInternal(JobExecutionContext context) {
+		}
+
+	}
+
+}
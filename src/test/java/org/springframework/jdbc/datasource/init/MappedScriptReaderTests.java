@@ -0,0 +1,102 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MappedScriptReader}.
+ */
+public class MappedScriptReaderTests {
+
+	@Rule
+	public TemporaryFolder temp = new TemporaryFolder();
+
+	@Test
+	public void largeFileIsMappedAndDecoded() throws IOException {
+		String script = script();
+		EncodedResource resource = new EncodedResource(write(script, StandardCharsets.UTF_8), "UTF-8");
+		try (Reader reader = MappedScriptReader.open(resource)) {
+			assertThat(reader).isInstanceOf(MappedScriptReader.class);
+			assertThat(FileCopyUtils.copyToString(reader)).isEqualTo(script);
+		}
+	}
+
+	@Test
+	public void mappedFileIsSplitAsReadFile() throws IOException {
+		String script = script();
+		List<String> statements = readStatements(
+				new EncodedResource(write(script, StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1));
+		assertThat(statements).isNotEmpty().isEqualTo(readStatements(new EncodedResource(
+				new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8)));
+		assertThat(statements.get(0)).isEqualTo("INSERT INTO T VALUES (0, 'd\u00e9j\u00e0 vu')");
+	}
+
+	@Test
+	public void smallFileIsNotMapped() throws IOException {
+		EncodedResource resource = new EncodedResource(write("SELECT 1;", StandardCharsets.UTF_8));
+		try (Reader reader = MappedScriptReader.open(resource)) {
+			assertThat(reader).isNotInstanceOf(MappedScriptReader.class);
+		}
+	}
+
+	@Test
+	public void resourceOutsideFileSystemIsNotMapped() throws IOException {
+		EncodedResource resource = new EncodedResource(new ByteArrayResource(script().getBytes()));
+		try (Reader reader = MappedScriptReader.open(resource)) {
+			assertThat(reader).isNotInstanceOf(MappedScriptReader.class);
+		}
+	}
+
+	private String script() {
+		StringBuilder script = new StringBuilder();
+		for (int i = 0; script.length() < MappedScriptReader.MAPPING_THRESHOLD * 2; i++) {
+			script.append("# comment ").append(i).append("\r\n");
+			script.append("INSERT INTO T VALUES (").append(i).append(", 'd\u00e9j\u00e0 vu');\r\n");
+		}
+		return script.toString();
+	}
+
+	private FileSystemResource write(String script, Charset charset) throws IOException {
+		File file = this.temp.newFile("script.sql");
+		FileCopyUtils.copy(script.getBytes(charset), file);
+		return new FileSystemResource(file);
+	}
+
+	private List<String> readStatements(EncodedResource resource) {
+		return ScriptUtilsEnhanced.readStatements(resource, ";", new String[] { "#", "--" },
+				ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+				ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+	}
+
+}
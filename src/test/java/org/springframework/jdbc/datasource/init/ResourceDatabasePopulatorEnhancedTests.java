@@ -0,0 +1,197 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ResourceDatabasePopulatorEnhanced}.
+ */
+public class ResourceDatabasePopulatorEnhancedTests {
+
+	private SingleConnectionDataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private String url;
+
+	@Before
+	public void createDataSource() {
+		this.url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+		this.dataSource = new SingleConnectionDataSource(this.url, "sa", "", true);
+		this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+	}
+
+	@After
+	public void destroyDataSource() {
+		this.dataSource.destroy();
+	}
+
+	@Test
+	public void batchesExecuteAllStatements() {
+		populate(3, false, false, "CREATE TABLE T (ID INT);"
+				+ "INSERT INTO T VALUES (1); INSERT INTO T VALUES (2); INSERT INTO T VALUES (3);"
+				+ "INSERT INTO T VALUES (4); INSERT INTO T VALUES (5); INSERT INTO T VALUES (6);");
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM T", Integer.class))
+				.isEqualTo(6);
+	}
+
+	@Test
+	public void failedBatchContinuesOnError() {
+		populate(10, true, false, "CREATE TABLE T (ID INT PRIMARY KEY);"
+				+ "INSERT INTO T VALUES (1); INSERT INTO T VALUES (1); INSERT INTO T VALUES (2);"
+				+ "INSERT INTO MISSING VALUES (3); INSERT INTO T VALUES (3);");
+		assertThat(this.jdbcTemplate.queryForList("SELECT ID FROM T ORDER BY ID", Integer.class))
+				.containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void failedBatchIgnoresFailedDrops() {
+		populate(10, false, true, "DROP TABLE MISSING; CREATE TABLE T (ID INT);"
+				+ "INSERT INTO T VALUES (1);");
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM T", Integer.class))
+				.isEqualTo(1);
+	}
+
+	@Test
+	public void failedBatchReportsFailedStatement() {
+		assertThatThrownBy(() -> populate(10, false, true, "CREATE TABLE T (ID INT);"
+				+ "INSERT INTO T VALUES (1); INSERT INTO MISSING VALUES (2); INSERT INTO T VALUES (3);"))
+						.isInstanceOf(ScriptStatementFailedException.class)
+						.hasMessageContaining("statement #3")
+						.hasMessageContaining("INSERT INTO MISSING VALUES (2)");
+	}
+
+	@Test
+	public void parallelIndexCreationsKeepOrderOfOtherStatements() throws SQLException {
+		DriverManagerDataSource parallelDataSource = spy(new DriverManagerDataSource(this.url, "sa", ""));
+		ResourceDatabasePopulatorEnhanced populator = new ResourceDatabasePopulatorEnhanced(new ByteArrayResource((
+				"CREATE TABLE A (ID INT PRIMARY KEY, B_ID INT, NAME VARCHAR(20)); CREATE TABLE B (ID INT PRIMARY KEY);"
+				+ "CREATE TABLE C (ID INT); CREATE INDEX IDX_A_NAME ON A (NAME); CREATE INDEX IDX_A_B ON A(B_ID);"
+				+ "CREATE UNIQUE INDEX IDX_B ON B (ID); CREATE INDEX IDX_C ON c (ID);"
+				+ "ALTER TABLE A ADD CONSTRAINT FK_A_B FOREIGN KEY (B_ID) REFERENCES B (ID);"
+				+ "INSERT INTO B VALUES (1); INSERT INTO A VALUES (1, 1, 'a'); CREATE INDEX IDX_C_AGAIN ON C (ID);")
+						.getBytes()));
+		populator.setDataSource(parallelDataSource);
+		populator.setParallelism(3);
+		try (Connection connection = this.dataSource.getConnection()) {
+			populator.populate(connection);
+		}
+		verify(parallelDataSource, atLeast(1)).getConnection();
+		assertThat(this.jdbcTemplate.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES "
+				+ "WHERE INDEX_NAME LIKE 'IDX_%'", String.class)).containsOnly("IDX_A_NAME", "IDX_A_B", "IDX_B",
+						"IDX_C", "IDX_C_AGAIN");
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM A", Integer.class)).isEqualTo(1);
+	}
+
+	@Test
+	public void failedParallelIndexCreationReportsFailedStatement() {
+		ResourceDatabasePopulatorEnhanced populator = new ResourceDatabasePopulatorEnhanced(new ByteArrayResource((
+				"CREATE TABLE A (ID INT); CREATE TABLE B (ID INT); CREATE INDEX IDX_A ON A (ID);"
+				+ "CREATE INDEX IDX_MISSING ON MISSING (ID); CREATE INDEX IDX_B ON B (ID);").getBytes()));
+		populator.setDataSource(new DriverManagerDataSource(this.url, "sa", ""));
+		populator.setParallelism(2);
+		assertThatThrownBy(() -> {
+			try (Connection connection = this.dataSource.getConnection()) {
+				populator.populate(connection);
+			}
+		}).isInstanceOf(ScriptStatementFailedException.class).hasMessageContaining("statement #4")
+				.hasMessageContaining("IDX_MISSING");
+	}
+
+	@Test
+	public void timingsAreRecordedPerStatementAndBatch() throws SQLException {
+		ResourceDatabasePopulatorEnhanced populator = new ResourceDatabasePopulatorEnhanced(new ByteArrayResource((
+				"CREATE TABLE T (ID INT); INSERT INTO T VALUES (1); INSERT INTO MISSING VALUES (2);"
+				+ "INSERT INTO T VALUES (3);").getBytes()));
+		populator.setContinueOnError(true);
+		populator.setRecordTimings(true);
+		try (Connection connection = this.dataSource.getConnection()) {
+			populator.populate(connection);
+		}
+		ScriptExecutionReport report = populator.getExecutionReport();
+		assertThat(report.getStatements()).extracting(ScriptExecutionReport.StatementTiming::getStatementNumber)
+				.containsExactly(1, 2, 3, 4);
+		ScriptExecutionReport.StatementTiming failed = report.getStatements().get(2);
+		assertThat(failed.getSql()).isEqualTo("INSERT INTO MISSING VALUES (2)");
+		assertThat((Throwable) failed.getFailure()).hasMessageContaining("MISSING");
+		assertThat(failed.getUpdateCount()).isEqualTo(-1);
+		assertThat(report.getStatements().get(3).getUpdateCount()).isEqualTo(1);
+		assertThat(report.getSlowest(2)).hasSize(2);
+		assertThat(report.getSlowest(2).get(0).getDurationMicros())
+				.isGreaterThanOrEqualTo(report.getSlowest(2).get(1).getDurationMicros());
+		assertThat(report.describeSlowest(1)).startsWith("Slowest 1 of 4 statements");
+
+		populator.setBatchSize(10);
+		this.jdbcTemplate.execute("DROP TABLE T");
+		try (Connection connection = this.dataSource.getConnection()) {
+			populator.populate(connection);
+		}
+		assertThat(populator.getExecutionReport()).isNotSameAs(report);
+		assertThat(populator.getExecutionReport().getStatements().get(0).getStatementCount()).isEqualTo(4);
+	}
+
+	@Test
+	public void longStatementsAreTruncated() throws SQLException {
+		StringBuilder script = new StringBuilder("CREATE TABLE T (ID INT);INSERT INTO T VALUES (0)");
+		for (int i = 1; i < 100; i++) {
+			script.append(", (").append(i).append(")");
+		}
+		ResourceDatabasePopulatorEnhanced populator = new ResourceDatabasePopulatorEnhanced(
+				new ByteArrayResource(script.toString().getBytes()));
+		populator.setSlowestStatementsLogged(1);
+		try (Connection connection = this.dataSource.getConnection()) {
+			populator.populate(connection);
+		}
+		ScriptExecutionReport.StatementTiming insert = populator.getExecutionReport().getStatements().get(1);
+		assertThat(insert.getUpdateCount()).isEqualTo(100);
+		assertThat(insert.getSql()).hasSize(ScriptExecutionReport.MAX_SQL_LENGTH + 3).endsWith("...");
+	}
+
+	private void populate(int batchSize, boolean continueOnError, boolean ignoreFailedDrops,
+			String script) {
+		ResourceDatabasePopulatorEnhanced populator = new ResourceDatabasePopulatorEnhanced(
+				new ByteArrayResource(script.getBytes()));
+		populator.setBatchSize(batchSize);
+		populator.setContinueOnError(continueOnError);
+		populator.setIgnoreFailedDrops(ignoreFailedDrops);
+		try (Connection connection = this.dataSource.getConnection()) {
+			populator.populate(connection);
+		}
+		catch (SQLException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ScriptDelimiterMatcher}.
+ */
+public class ScriptDelimiterMatcherTests {
+
+	private final ScriptDelimiterMatcher delimiters = new ScriptDelimiterMatcher(";",
+			new String[] { "#", "--" }, "/*");
+
+	@Test
+	public void matchDelimiters() {
+		String script = "a;b # c -- d /* e */ -f /g";
+		assertThat(this.delimiters.match(script, 0)).isNull();
+		assertThat(this.delimiters.match(script, 1)).isEqualTo(ScriptDelimiterMatcher.Type.SEPARATOR);
+		assertThat(this.delimiters.match(script, 4)).isEqualTo(ScriptDelimiterMatcher.Type.COMMENT);
+		assertThat(this.delimiters.match(script, 8)).isEqualTo(ScriptDelimiterMatcher.Type.COMMENT);
+		assertThat(this.delimiters.match(script, 13)).isEqualTo(ScriptDelimiterMatcher.Type.BLOCK_COMMENT);
+		assertThat(this.delimiters.match(script, 21)).isNull();
+		assertThat(this.delimiters.match(script, 24)).isNull();
+	}
+
+	@Test
+	public void matchAtEndOfText() {
+		assertThat(this.delimiters.match("a -", 2)).isNull();
+		assertThat(this.delimiters.match("a --", 2)).isEqualTo(ScriptDelimiterMatcher.Type.COMMENT);
+	}
+
+	@Test
+	public void separatorTakesPrecedenceOverCommentPrefixSharingItsFirstCharacter() {
+		ScriptDelimiterMatcher delimiters = new ScriptDelimiterMatcher("--;", new String[] { "--" }, "/*");
+		assertThat(delimiters.match("a--;b", 1)).isEqualTo(ScriptDelimiterMatcher.Type.SEPARATOR);
+		assertThat(delimiters.match("a--b", 1)).isEqualTo(ScriptDelimiterMatcher.Type.COMMENT);
+		assertThat(delimiters.getMaxLength()).isEqualTo(3);
+	}
+
+	@Test
+	public void matchNonAsciiDelimiters() {
+		ScriptDelimiterMatcher delimiters = new ScriptDelimiterMatcher("\u00a7", new String[] { "\u2014" }, "/*");
+		assertThat(delimiters.match("a\u00a7b", 1)).isEqualTo(ScriptDelimiterMatcher.Type.SEPARATOR);
+		assertThat(delimiters.match("a\u2014b", 1)).isEqualTo(ScriptDelimiterMatcher.Type.COMMENT);
+		assertThat(delimiters.match("a\u00e9b", 1)).isNull();
+	}
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource.init;
+
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link SqlScriptTokenizer}.
+ */
+@SuppressWarnings("deprecation")
+public class SqlScriptTokenizerTests {
+
+	private static final String[] DEFAULT_PREFIXES = ScriptUtilsEnhanced.DEFAULT_COMMENT_PREFIXES;
+
+	private static final String[] QUARTZ_PREFIXES = { "#", "--" };
+
+	@Test
+	public void quartzScriptsAreSplitAsBefore() throws IOException {
+		Resource[] resources = new PathMatchingResourcePatternResolver()
+				.getResources("classpath*:org/quartz/impl/jdbcjobstore/tables_*.sql");
+		assertThat(resources).isNotEmpty();
+		for (Resource resource : resources) {
+			String script = read(resource);
+			List<String> statements = tokenize(script, ";", QUARTZ_PREFIXES);
+			assertThat(statements).as(resource.getFilename())
+					.isEqualTo(legacySplit(script, ";", QUARTZ_PREFIXES));
+			assertThat(statements).as(resource.getFilename()).isNotEmpty();
+		}
+	}
+
+	@Test
+	public void testScriptsAreSplitAsBefore() throws IOException {
+		String base = "classpath:org/springframework/boot/autoconfigure/quartz/";
+		assertSplitAsBefore(base + "tables_#_comments.sql", QUARTZ_PREFIXES);
+		assertSplitAsBefore(base + "tables_--_comments.sql", QUARTZ_PREFIXES);
+		assertSplitAsBefore(base + "tables_custom_comment_prefix.sql", new String[] { "**" });
+	}
+
+	@Test
+	public void edgeCasesAreSplitAsBefore() throws IOException {
+		String[] scripts = { "SELECT 1", "SELECT 1;", ";;SELECT 1;;SELECT 2", "\n\n  SELECT 1;\n\n",
+				"SELECT 1\nSELECT 2\n", "SELECT 'a;b'; SELECT \"c;d\";", "SELECT 'it\\'s'; SELECT 2",
+				"SELECT 1; -- trailing comment", "SELECT 1 -- comment;\n;SELECT 2;",
+				"-- only a comment\nSELECT 1", "SELECT /* a; b */ 1; SELECT 2 /*/ x */;",
+				"/* leading\n-- comment */ SELECT 1;", "SELECT\t1\r\n,\r\n2;", "a -- b\nc\nd",
+				"SELECT 1 /* x */\nSELECT 2", "SELECT 1\r-- c\rSELECT 2\r\r", "-- c\r\n\r\nSELECT 1\n\r" };
+		for (String script : scripts) {
+			assertThat(tokenize(script, ";", DEFAULT_PREFIXES)).as(script)
+					.isEqualTo(legacySplit(script, ";", DEFAULT_PREFIXES));
+			assertThat(tokenize(script, null, DEFAULT_PREFIXES)).as(script)
+					.isEqualTo(legacySplit(script, null, DEFAULT_PREFIXES));
+			assertThat(tokenize(script, "GO", DEFAULT_PREFIXES)).as(script)
+					.isEqualTo(legacySplit(script, "GO", DEFAULT_PREFIXES));
+			assertThat(tokenize(script, ScriptUtilsEnhanced.EOF_STATEMENT_SEPARATOR, DEFAULT_PREFIXES))
+					.as(script).isEqualTo(legacySplit(script,
+							ScriptUtilsEnhanced.EOF_STATEMENT_SEPARATOR, DEFAULT_PREFIXES));
+		}
+	}
+
+	@Test
+	public void separatorEndingWithWhitespaceIsSplitAsBefore() throws IOException {
+		String script = "SELECT 1\nGO\nSELECT 2\nGO";
+		assertThat(tokenize(script, "GO\n", DEFAULT_PREFIXES))
+				.isEqualTo(legacySplit(script, "GO\n", DEFAULT_PREFIXES))
+				.containsExactly("SELECT 1 ", "SELECT 2 ");
+	}
+
+	@Test
+	public void longScriptIsSplitAsBefore() throws IOException {
+		StringBuilder script = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			script.append("-- statement ").append(i).append("\n");
+			script.append("INSERT INTO T VALUES (").append(i).append(", 'x;y') /* c */;\n");
+		}
+		assertThat(tokenize(script.toString(), ";", DEFAULT_PREFIXES))
+				.isEqualTo(legacySplit(script.toString(), ";", DEFAULT_PREFIXES)).hasSize(2000);
+	}
+
+	@Test
+	public void linesLongerThanBufferAreSplitAsBefore() throws IOException {
+		StringBuilder script = new StringBuilder("-- comment\nINSERT INTO T VALUES (0");
+		for (int i = 1; i < 5000; i++) {
+			script.append(", ").append(i);
+		}
+		script.append(");\n-- another comment\r\nSELECT 1;");
+		assertThat(tokenize(script.toString(), ";", DEFAULT_PREFIXES))
+				.isEqualTo(legacySplit(script.toString(), ";", DEFAULT_PREFIXES)).hasSize(2);
+	}
+
+	@Test
+	public void emptyScriptIsRejected() {
+		assertThatThrownBy(() -> tokenize("\n  \n", ";", DEFAULT_PREFIXES))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void unterminatedBlockCommentIsRejectedLazily() throws IOException {
+		SqlScriptTokenizer tokenizer = tokenizer("SELECT 1; SELECT /* 2;", ";", DEFAULT_PREFIXES);
+		assertThat(tokenizer.nextStatement()).isEqualTo("SELECT 1");
+		assertThatThrownBy(tokenizer::nextStatement).isInstanceOf(ScriptParseException.class)
+				.hasMessageContaining("Missing block comment end delimiter");
+	}
+
+	private void assertSplitAsBefore(String location, String[] commentPrefixes)
+			throws IOException {
+		String script = read(new PathMatchingResourcePatternResolver().getResource(location));
+		List<String> statements = tokenize(script, ";", commentPrefixes);
+		assertThat(statements).as(location).isEqualTo(legacySplit(script, ";", commentPrefixes))
+				.hasSize(2);
+	}
+
+	private String read(Resource resource) throws IOException {
+		StringBuilder script = new StringBuilder();
+		try (Reader reader = new EncodedResource(resource).getReader()) {
+			char[] buffer = new char[4096];
+			int read;
+			while ((read = reader.read(buffer)) != -1) {
+				script.append(buffer, 0, read);
+			}
+		}
+		return script.toString();
+	}
+
+	private SqlScriptTokenizer tokenizer(String script, String separator,
+			String[] commentPrefixes) {
+		return new SqlScriptTokenizer(resource(script), new StringReader(script), separator,
+				commentPrefixes, ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+				ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+	}
+
+	private List<String> tokenize(String script, String separator, String[] commentPrefixes)
+			throws IOException {
+		SqlScriptTokenizer tokenizer = tokenizer(script, separator, commentPrefixes);
+		List<String> statements = new ArrayList<>();
+		String statement;
+		while ((statement = tokenizer.nextStatement()) != null) {
+			statements.add(statement);
+		}
+		return statements;
+	}
+
+	/**
+	 * Split the script the way {@code ScriptUtilsEnhanced} did before it used the
+	 * tokenizer.
+	 */
+	private List<String> legacySplit(String script, String separator, String[] commentPrefixes)
+			throws IOException {
+		String read = ScriptUtilsEnhanced.readScript(new LineNumberReader(new StringReader(script)),
+				commentPrefixes, separator, ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+		if (separator == null) {
+			separator = ScriptUtilsEnhanced.DEFAULT_STATEMENT_SEPARATOR;
+		}
+		if (!ScriptUtilsEnhanced.EOF_STATEMENT_SEPARATOR.equals(separator)
+				&& !ScriptUtilsEnhanced.containsStatementSeparator(null, read, separator,
+						commentPrefixes, ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+						ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER)) {
+			separator = ScriptUtilsEnhanced.FALLBACK_STATEMENT_SEPARATOR;
+		}
+		List<String> statements = new ArrayList<>();
+		ScriptUtilsEnhanced.splitSqlScript(null, read, separator, commentPrefixes,
+				ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+				ScriptUtilsEnhanced.DEFAULT_BLOCK_COMMENT_END_DELIMITER, statements);
+		return statements;
+	}
+
+	private EncodedResource resource(String script) {
+		return new EncodedResource(new ByteArrayResource(script.getBytes()));
+	}
+
+}
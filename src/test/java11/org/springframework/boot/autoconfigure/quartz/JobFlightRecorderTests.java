@@ -0,0 +1,135 @@
+/*
+ * Copyright 2012-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.boot.autoconfigure.quartz;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.support.FormattingConversionService;
+import org.springframework.format.support.FormattingConversionServiceFactoryBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the Java 11 variant of {@link JobFlightRecorder}, run against the
+ * multi-release jar.
+ */
+public class JobFlightRecorderTests {
+
+	private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+	@After
+	public void closeContext() {
+		this.context.close();
+	}
+
+	@Test
+	public void recordsTriggerFiresAndJobExecutions() throws Exception {
+		assertThat(JobFlightRecorder.isSupported()).isTrue();
+		Path file = Files.createTempFile("quartz", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("org.quartz.TriggerFired");
+			recording.enable("org.quartz.JobExecution");
+			recording.start();
+			this.context.register(ConversionServiceConfiguration.class, JobConfiguration.class,
+					QuartzAutoConfiguration.class);
+			this.context.refresh();
+			assertThat(FlightJob.executed.await(5, TimeUnit.SECONDS)).isTrue();
+			this.context.getBean(Scheduler.class).shutdown(true);
+			recording.stop();
+			recording.dump(file);
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			List<RecordedEvent> fired = ofType(events, "org.quartz.TriggerFired");
+			assertThat(fired).hasSize(1);
+			assertThat(fired.get(0).getString("trigger")).isEqualTo("DEFAULT.flightTrigger");
+			assertThat(fired.get(0).getString("job")).isEqualTo("DEFAULT.flightJob");
+			assertThat(fired.get(0).getLong("lag")).isGreaterThanOrEqualTo(0L);
+			List<RecordedEvent> executions = ofType(events, "org.quartz.JobExecution");
+			assertThat(executions).hasSize(1);
+			assertThat(executions.get(0).getString("job")).isEqualTo("DEFAULT.flightJob");
+			assertThat(executions.get(0).getString("jobGroup")).isEqualTo("DEFAULT");
+			assertThat(executions.get(0).getBoolean("failed")).isFalse();
+		}
+		finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+		return events.stream().filter((event) -> event.getEventType().getName().equals(name))
+				.collect(Collectors.toList());
+	}
+
+	@Configuration
+	static class JobConfiguration {
+
+		@Bean
+		public JobDetail flightJob() {
+			return JobBuilder.newJob(FlightJob.class).withIdentity("flightJob").storeDurably().build();
+		}
+
+		@Bean
+		public Trigger flightTrigger(JobDetail flightJob) {
+			return TriggerBuilder.newTrigger().forJob(flightJob).withIdentity("flightTrigger").startNow().build();
+		}
+
+	}
+
+	@Configuration
+	static class ConversionServiceConfiguration {
+
+		@Bean
+		public FactoryBean<FormattingConversionService> conversionService() {
+			return new FormattingConversionServiceFactoryBean();
+		}
+
+	}
+
+	public static class FlightJob implements Job {
+
+		static final CountDownLatch executed = new CountDownLatch(1);
+
+		@Override
+		public void execute(JobExecutionContext context) {
+			executed.countDown();
+		}
+
+	}
+
+}
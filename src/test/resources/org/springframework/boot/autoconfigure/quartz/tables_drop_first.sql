@@ -0,0 +1,16 @@
+# This is a test script dropping its tables first, like many Quartz scripts
+
+DROP TABLE IF EXISTS QRTZ_TEST_LOCKS;
+DROP TABLE IF EXISTS QRTZ_TEST_TABLE;
+
+CREATE TABLE QRTZ_TEST_TABLE (
+  SCHED_NAME VARCHAR(120) NOT NULL,
+  CALENDAR_NAME VARCHAR (200) NOT NULL
+);
+
+CREATE TABLE qrtz_test_locks (
+  SCHED_NAME VARCHAR(120) NOT NULL,
+  LOCK_NAME VARCHAR(40) NOT NULL
+);
+
+COMMIT;